@@ -1,8 +1,66 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A simple model of an auction.
- * The auction maintains a list of lots of arbitrary length.
+ * The auction maintains a list of lots of arbitrary length,
+ * indexed by lot number so that a lot can be found without
+ * searching the whole list.
+ *
+ * Bids and closed lots are reported to an AuctionListener. By default
+ * they are printed to the console; setListener can replace this with
+ * a NullAuctionListener, so that no time is spent formatting output,
+ * or with a BatchingAuctionListener, so that printing happens on a
+ * thread of its own.
+ *
+ * An AuctionJournal can be attached with setJournal, so that the
+ * auction can be rebuilt if the program stops part way through.
+ *
+ * setBidHistory gives every lot a BidHistory, which records all the
+ * bids made for it rather than only the highest.
+ *
+ * The lots can be read a page at a time with getLots, or as a stream
+ * with streamLots; neither copies the lot index.
+ *
+ * After indexDescriptions, lots can be found by the words of their
+ * descriptions with findLotsWithAll and findLotsWithAny.
+ *
+ * getTopLotsByHighestBid and getTopLotsByBidCount list the leading
+ * lots from a LotLeaderboard, which bidding keeps up to date.
+ *
+ * setLotPricing can make a lot's bids sealed, paid at the first or
+ * second price. Sealed bids are only stored as they are made; the
+ * winners are worked out together, in parallel, when the auction
+ * closes.
+ *
+ * publishView publishes an immutable AuctionView of the lots, which
+ * any number of threads can read without locking while bidding goes
+ * on. Each view after the first is made from the last and the lots
+ * that have changed since, so publishing does not copy every lot.
+ *
+ * getMetrics returns the auction's AuctionMetrics, which count the bids
+ * accepted and rejected, and why, the lots looked up, entered and
+ * closed, and time bids, lookups and closing. They can be read through
+ * JMX, or printed as text or JSON.
+ *
+ * proxyBidFor lets a bidder give the most they will pay, and have the
+ * auction bid for them only as far as it must (see ProxyBook).
+ *
+ * A lot may be given a deadline with setLotDeadline, after which it
+ * takes no more bids and is closed on its own. The lots are kept in a
+ * TimingWheel, so closing the lots that are due never looks at the
+ * others. With setSoftClose, a bid in the last moments before a
+ * deadline pushes the deadline out.
  *
  * @author David J. Barnes and Michael Kolling.
  * @version 2006.03.30
@@ -15,8 +73,34 @@ import java.util.*;
  */
 public class Auction
 {
-    /** The list of Lots in this auction. */
-    private ArrayList<Lot> lots;
+    // How often the lots that are due are closed, in milliseconds.
+    private static final long CLOSING_TICK_MILLIS = 10;
+
+    /** The Lots in this auction, indexed by lot number. */
+    private LotIndex lots;
+
+    /**
+     * The Lots that have no bids, in the order they were entered.
+     * A lot leaves this set when it gets its first bid or is removed,
+     * so getNoBids never has to look at the lots that have sold.
+     * It is locked while in use, since bids may come from many threads.
+     */
+    private LinkedHashSet<Lot> unsoldLots;
+
+    // The numbers of the lots carried over from a closed auction, or
+    // null if there were none, and those of them that have sealed
+    // pricing. Neither is changed. Carried lots are not put in
+    // unsoldLots, so that carrying them over takes constant time.
+    private PostingList carriedNumbers;
+    private List<Lot> carriedSealedLots = Collections.emptyList();
+
+    // The numbers of the lots that did not sell, and those of them that
+    // have sealed pricing, made when the auction closes for a later
+    // auction to carry over.
+    private volatile PostingList unsoldAtClose;
+    private volatile List<Lot> sealedUnsoldAtClose;
+    // Keeps the unsold lots closed until a later auction opens them.
+    private volatile Lot.Closure unsoldClosure;
 
     /** 
      * The number that will be given to the next lot entered
@@ -27,16 +111,97 @@ public class Auction
     private int nextLotNumber;
     
     //Describes whether the auction is open or not (true if the Auction is open, otherwise false).
-    private boolean isOpen;
+    //It is volatile so that bidders on other threads see the auction close.
+    private volatile boolean isOpen;
+
+    // Receives the bids and closed lots of this auction.
+    private AuctionListener listener;
+
+    // Records every change to this auction, or null if there is no journal.
+    private AuctionJournal journal;
+
+    // Gives each bidder a number. Shared with auctions that carry lots over from this one.
+    private BidderRegistry bidders;
+
+    // The lots each bidder is winning, kept up to date as bids are accepted.
+    private BidderIndex winners;
+
+    // Ranks the lots by highest bid and by number of bids.
+    private final LotLeaderboard leaders;
+
+    // Publishes views of the lots, or null if none has been asked for.
+    private volatile ViewPublisher views;
+
+    // Counts and times what the auction does.
+    private final AuctionMetrics metrics;
+
+    // The words of every lot's description, or null if they are not indexed.
+    private volatile DescriptionIndex descriptions;
+
+    // The number of bids each lot's history keeps in memory, or 0 if
+    // bid histories are not kept.
+    private int historyDepth;
+
+    // The directory older bids are moved to, or null to forget them.
+    private Path historyDirectory;
+
+    // True if any lot's history may have bids waiting to be spilled, so
+    // that the histories must be closed when lots go or the auction closes.
+    private boolean spillHistories;
+
+    // Finds the lots whose deadlines have passed. Made when the first
+    // deadline is set.
+    private volatile TimingWheel closings;
+
+    // A bid this close to a lot's deadline, in milliseconds, pushes the
+    // deadline out to this long after the bid, or 0 if bids never do.
+    private volatile long softCloseWindow;
+    private volatile long softCloseExtension;
+
+    // Closes lots as their deadlines pass, or null if nothing does.
+    private ScheduledExecutorService clock;
+
+    // The outcome of the auction, once it has closed.
+    private volatile Settlement settlement;
+
+    // True while the auction is being rebuilt from a journal or a
+    // snapshot, when bids are not checked against the clock.
+    private volatile boolean restoring;
+
+    // How much a proxy bid raises the price over the bid it beats.
+    private volatile long bidIncrement = 1;
+
+    // The lots that have been given sealed pricing. Locked while in use.
+    private final ArrayList<Lot> sealedLots = new ArrayList<Lot>();
 
     /**
      * Create a new auction.
      */
     public Auction()
     {
-        lots = new ArrayList<Lot>();
+        this(new LotIndex(), new BidderRegistry());
+    }
+
+    /**
+     * Create a new auction that keeps its lots in the given index.
+     * A ShardedAuction uses this to give each shard an index that
+     * holds only the lot numbers routed to it, and one registry of
+     * bidders shared by all the shards.
+     *
+     * @param lots An empty lot index.
+     * @param bidders The registry of bidders to use.
+     */
+    Auction(LotIndex lots, BidderRegistry bidders)
+    {
+        this.lots = lots;
+        this.bidders = bidders;
+        this.winners = new BidderIndex(bidders);
+        this.leaders = new LotLeaderboard(lots);
+        this.metrics = new AuctionMetrics(lots);
+        unsoldLots = new LinkedHashSet<Lot>();
         nextLotNumber = 1;
         isOpen = true;
+        listener = new ConsoleAuctionListener();
     }
     
     /**
@@ -44,198 +209,1469 @@ public class Auction
      * an Auction as a parameter.  Provided the auction parameter
      * is closed, the constructor creates a new auction containing
      * the unsold lots of the closed auction.  If the auction parameter
-     * is still open or null, this constructor behaves like the
+     * is still open (or still closing) or null, this constructor behaves like the
      * default constructor.
+     * The unsold lots are noted when the auction closes, and the new
+     * auction shares the closed auction's lot index rather than copying
+     * the lots (see LotIndex.successor). The unsold lots were closed with
+     * the auction by one shared closure, which is opened here to open
+     * them all at once, so this takes constant time however many lots
+     * are carried over; only the sealed ones are given new sealed bids
+     * one by one. A chain of auctions, each carrying over from the last,
+     * does not copy the same unsold lots again for every auction.
      * 
      * @param auction An auction object that is used to create a new auction by taking the unsold lots
      */
     
     public Auction(Auction auction){
-        ArrayList newLots = new ArrayList<Lot>();
-        if (auction.isOpen){
-            lots = new ArrayList<Lot>();
+        unsoldLots = new LinkedHashSet<Lot>();
+        listener = new ConsoleAuctionListener();
+        // An auction still closing has not noted its unsold lots yet.
+        if ((auction == null) || (auction.unsoldAtClose == null)){
+            lots = new LotIndex();
+            bidders = new BidderRegistry();
             nextLotNumber = 1;
             isOpen = true ;
         } else {
-            lots = auction.getNoBids();
+            bidders = auction.bidders;
+            carriedNumbers = auction.unsoldAtClose;
+            carriedSealedLots = auction.sealedUnsoldAtClose;
+            lots = auction.lots.successor(auction.nextLotNumber, carriedNumbers);
+            // Opened here rather than when the auction closed, so that a
+            // bid still in flight as that auction closed cannot reach them.
+            auction.unsoldClosure.reopen();
+            for (Lot lot : carriedSealedLots) {
+                lot.setPricing(lot.getPricing());
+            }
             nextLotNumber = auction.nextLotNumber;
+            // The carried lots keep their histories.
+            spillHistories = auction.spillHistories;
             isOpen = true;
         }
+        // The carried lots are all unsold, so nobody is winning anything yet.
+        winners = new BidderIndex(bidders);
+        leaders = new LotLeaderboard(lots);
+        metrics = new AuctionMetrics(lots);
     }
 
 
     /**
-     * Enter a new lot into the auction. Returns false if the
-     * auction is not open or if the description is null.
+     * Set the listener that receives the bids and closed lots of this
+     * auction.
      *
-     * @param description A description of the lot.
-     * 
-     * @return True if a new lot was entered into the auction, false otherwise.
+     * @param listener The new listener, or null to ignore all events.
      */
-    public boolean enterLot(String description)
+    public void setListener(AuctionListener listener)
     {
-        if ((this.isOpen) && (description != null)){
-            lots.add(new Lot(nextLotNumber, description));
-            nextLotNumber++;
-            return true;
-        }
-        return false;
+        this.listener = (listener != null) ? listener : new NullAuctionListener();
     }
 
     /**
-     * Show the full list of lots in this auction.
+     * Record every later change to this auction in a journal, from
+     * which AuctionJournal.replay can rebuild it. The lots the auction
+     * already has, and their bids, are recorded first.
      *
-     * Print a blank line first, to make our output look nicer. 
-     * If there are no lots, print a message indicating this.
-     * 
+     * @param journal The journal to write to, or null to stop journaling.
      */
-    public void showLots()
+    public void setJournal(AuctionJournal journal)
     {
-        System.out.println();
-        if (lots.isEmpty()){
-            System.out.println("There are no lots currently being used.");
+        if (journal != null){
+            journal.recordState(this);
         }
-        for(Lot lot : lots) {
-            System.out.println(lot.toString());
+        this.journal = journal;
+    }
+
+    /**
+     * Keep a history of every bid made for each lot, accepted or not,
+     * which can be read through the lot's getHistory method. This
+     * applies to the lots already in the auction and to those entered
+     * later. Each lot keeps its most recent bids in memory; older ones
+     * are written to a file of their own, named after the lot number,
+     * or forgotten if no directory is given, a batch at a time. A lot's
+     * file is only open while a batch is written or the history is read;
+     * the last bids waiting to be written are written when the lot is
+     * removed or the auction closes.
+     *
+     * @param depth The number of bids to keep in memory for each lot,
+     *              or 0 to stop keeping histories.
+     * @param directory The directory to keep older bids in, or null.
+     */
+    public void setBidHistory(int depth, Path directory) throws IOException
+    {
+        historyDepth = Math.max(depth, 0);
+        historyDirectory = directory;
+        Iterator<Lot> it = lots.iterator();
+        while (it.hasNext()){
+            Lot lot = it.next();
+            closeHistory(lot);
+            lot.setHistory(newHistory(lot.getNumber()));
         }
+        spillHistories = spillHistories || ((historyDepth > 0) && (directory != null));
     }
-    
+
     /**
-     * Bid for a lot.
-     * Do not assume that the lots are stored in numerical order.
-     * Prints a message indicating whether the bid is successful or not.
-     *   
-     * First print a blank line.  
-     * Then print whether or not the bid is successful.
-     * If the bid is successful, also print the
-     * lot number, high bidder's name, and the bid value.
-     * If the bid is not successful, also print the lot number 
-     * and high bid (but not the high bidder's name).
-     * 
-     * Returns false if the auction is closed, the lot doesn't
-     * exist, the bidder is null, or the bid was not positive
-     * and true otherwise (even if the bid was not high enough).
-     * (You need to update the return type, documentation, and code.)
+     * Close a lot's bid history, if it has one, writing the bids
+     * waiting to be spilled.
      *
-     * @param number The lot number being bid for.
-     * @param bidder The person bidding for the lot.
-     * @param value  The value of the bid.
-     * 
-     * @return True if the bid was successful, false otherwise.
+     * @param lot The lot.
      */
-    public boolean bidFor(int lotNumber, Person bidder, long value)
+    private void closeHistory(Lot lot)
     {
-        if (!(this.isOpen) || (lotNumber >= nextLotNumber) || (bidder == null) || (value <= 0)){
-            return false;
-        } else {
-            System.out.println();
-            Lot current = getLot(lotNumber);
-            Bid newBid = new Bid(bidder, value);
-            boolean isSuccessful = current.bidFor(newBid);
-            System.out.println((isSuccessful) ? "Bid Successful." : "Bid unsuccessful.");
-            if (isSuccessful){
-                System.out.println(current.toString() + "    Bidder Name: " + bidder.getName());
-                return true;
-            } else {
-                System.out.println(current.toString());
-                return false;
+        BidHistory history = lot.getHistory();
+        if (history != null){
+            try {
+                history.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not close the bid history of lot " + lot.getNumber(), e);
             }
         }
     }
 
+    /**
+     * Create the bid history for a lot, as set by setBidHistory.
+     *
+     * @param number The lot number.
+     *
+     * @return The new history, or null if histories are not kept.
+     */
+    private BidHistory newHistory(int number) throws IOException
+    {
+        if (historyDepth == 0){
+            return null;
+        } else if (historyDirectory == null){
+            return new BidHistory(bidders, historyDepth);
+        } else {
+            return new BidHistory(bidders, historyDepth, historyDirectory.resolve("lot-" + number + ".bids"));
+        }
+    }
 
     /**
-     * Return the lot with the given number. 
-     * Do not assume that the lots are stored in numerical order.   
-     *   
-     * Returns null if the lot does not exist.
-     * (You need to update the code.)
+     * Set when bidding for a lot ends. After that the lot takes no more
+     * bids, and it is closed, and reported to the listener, by the next
+     * call to closeDueLots. A deadline can be set once and then only
+     * made later.
      *
-     * @param lotNumber The number of the lot to return.
+     * @param number The lot number.
+     * @param deadline When bidding ends, in milliseconds since 1970.
      *
-     * @return the Lot with the given number
+     * @return True if the deadline was set, false if the auction or
+     *         the lot is closed, there is no such lot, or the deadline
+     *         is earlier than the lot's current one.
      */
-    public Lot getLot(int lotNumber)
+    public synchronized boolean setLotDeadline(int number, long deadline)
     {
-        for (Lot lot : lots) {
-            if (lot.getNumber() == lotNumber){
-                return lot;
+        Lot lot = lots.get(number);
+        if (!(this.isOpen) || (lot == null) || lot.isClosed() || (deadline <= 0)){
+            return false;
+        }
+        boolean first = (lot.getDeadline() == 0);
+        if (!lot.extendDeadline(deadline)){
+            return false;
+        }
+        if (first){
+            if (closings == null){
+                closings = new TimingWheel(CLOSING_TICK_MILLIS, System.currentTimeMillis());
             }
+            closings.schedule(lot);
         }
-        return null;
+        if (journal != null){
+            journal.deadlineSet(number, deadline);
+        }
+        return true;
     }
-    
+
     /**
-     * Closes the auction and prints information on the lots.
-     * First print a blank line.  Then for each lot,
-     * its number and description are printed.
-     * If it did sell, the high bidder and bid value are also printed.  
-     * If it didn't sell, print that it didn't sell.
+     * Make late bids extend a lot's deadline (a soft close): an accepted
+     * bid made within the window before a lot's deadline pushes the
+     * deadline out to the given time after the bid, so that other
+     * bidders have a chance to respond.
      *
-     * Returns false if the auction is already closed, true otherwise.
-     * 
-     * @return False is the auction is closed, true otherwise. 
+     * @param window How close to the deadline a bid must be to extend
+     *               it, in milliseconds, or 0 for no soft close.
+     * @param extension How long after such a bid the lot now ends, in
+     *                  milliseconds.
      */
-    public boolean close()
+    public void setSoftClose(long window, long extension)
     {
-        if (this.isOpen) {
-            for (Lot lot : lots) {
-                System.out.println();
-                if(lot.getHighestBid() != null){
-                    System.out.println(lot.toString() + "    Bidder: " + lot.getHighestBid().getBidder().getName());
-                } else {
-                    System.out.println(lot.getNumber() + ": " + lot.getDescription() + ". This lot did not sell.");
+        softCloseExtension = extension;
+        softCloseWindow = Math.max(window, 0);
+    }
+
+    /**
+     * Set how a lot's winner and price are decided. A lot with sealed
+     * pricing keeps its bids secret: they are not reported to the
+     * listener, and the lot shows no highest bid, until it closes.
+     * The pricing must be set before the lot has any bids.
+     *
+     * @param number The lot number.
+     * @param pricing How the winner and price are decided.
+     *
+     * @return True if the pricing was set, false if the auction is
+     *         closed, there is no such lot, or it already has bids.
+     */
+    public synchronized boolean setLotPricing(int number, LotPricing pricing)
+    {
+        Lot lot = lots.get(number);
+        if (!(this.isOpen) || (lot == null) || (pricing == null) || lot.isClosed() || !lot.setPricing(pricing)){
+            return false;
+        }
+        if (pricing != LotPricing.ASCENDING){
+            synchronized (sealedLots) {
+                if (!sealedLots.contains(lot)){
+                    sealedLots.add(lot);
                 }
             }
-            this.isOpen = false;
-            return true;
         }
-        return false;
+        if (journal != null){
+            journal.pricingSet(number, pricing);
+        }
+        return true;
     }
-    
+
     /**
-     * Returns an ArrayList containing all the items that have no bids so far.
-     * (or have not sold if the auction has ended).
-     * 
-     * @return an ArrayList of the Lots which currently have no bids
+     * Close every lot whose deadline has passed, reporting each to the
+     * listener. Only the lots that are due are looked at.
+     *
+     * @param now The current time, in milliseconds since 1970.
+     *
+     * @return The lots that were closed.
      */
-    public ArrayList<Lot> getNoBids()
+    public ArrayList<Lot> closeDueLots(long now)
     {
-        ArrayList<Lot> noBids = new ArrayList<Lot>();
-        for (Lot lot : lots) {
-            if (lot.getHighestBid() == null){
-                noBids.add(lot);
+        ArrayList<Lot> closed = new ArrayList<Lot>();
+        TimingWheel wheel = closings;
+        if (!(this.isOpen) || (wheel == null)){
+            return closed;
+        }
+        ArrayList<Lot> due = new ArrayList<Lot>();
+        wheel.advance(now, due);
+        for (Lot lot : due) {
+            // Skip lots that have been removed since their deadline was set.
+            if ((lots.get(lot.getNumber()) == lot) && closeLot(lot)){
+                closed.add(lot);
             }
         }
-        return noBids;
+        return closed;
     }
-    
+
     /**
-     * Remove the lot with the given lot number, as long as the lot has
-     * no bids, and the auction is open.  
-     * You must use an Iterator object to search the list and,
-     * if applicable, remove the item.
-     * Do not assume that the lots are stored in numerical order.
+     * Start a background thread that calls closeDueLots with the
+     * current time every few milliseconds, until the auction closes.
+     */
+    public synchronized void startClosingLots()
+    {
+        if ((clock == null) && (this.isOpen)){
+            clock = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+            {
+                public Thread newThread(Runnable task)
+                {
+                    Thread thread = new Thread(task, "auction-clock");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            clock.scheduleAtFixedRate(new Runnable()
+            {
+                public void run()
+                {
+                    closeDueLots(System.currentTimeMillis());
+                }
+            }, CLOSING_TICK_MILLIS, CLOSING_TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Close a lot now, as if its deadline had passed.
      *
-     * Returns true if successful, false otherwise (auction closed,
-     * lot does not exist, or lot has a bid).
+     * @param number The lot number.
      *
-     * @param number The number of the lot to be removed. 
-     * 
-     * @return True if the lot was successfully removed, false otherwise.
+     * @return True if the lot was closed, false if there is no such
+     *         lot or it was already closed.
      */
-    public boolean removeLot(int number)
+    boolean closeLot(int number)
     {
-        Iterator<Lot> it = lots.iterator();
-        if (this.isOpen) {
+        Lot lot = lots.get(number);
+        return (lot != null) && closeLot(lot);
+    }
+
+    /**
+     * Close a lot and report it to the listener.
+     *
+     * @param lot The lot.
+     *
+     * @return True if the lot was closed, false if it was already closed.
+     */
+    private boolean closeLot(Lot lot)
+    {
+        SealedBids sealed = lot.getSealedBids();
+        if (sealed != null){
+            sealed.close();
+            installSealedWinner(lot);
+        }
+        if (!lot.close()){
+            return false;
+        }
+        viewChanged(lot);
+        metrics.lotClosed();
+        listener.lotClosed(lot, lot.getHighestBid());
+        if (journal != null){
+            journal.lotClosed(lot.getNumber());
+        }
+        return true;
+    }
+
+    /**
+     * Make the winner of a lot's closed sealed bids its highest bid.
+     *
+     * @param lot A lot with sealed pricing.
+     */
+    private void installSealedWinner(Lot lot)
+    {
+        if (lot.installSealedWinner()){
+            winners.update(lot);
+            lotChanged(lot);
+        }
+    }
+
+    /**
+     * Tell the leaderboard, and the view publisher if there is one,
+     * that a lot has been bid for.
+     *
+     * @param lot The lot.
+     */
+    private void lotChanged(Lot lot)
+    {
+        leaders.changed(lot);
+        viewChanged(lot);
+    }
+
+    /**
+     * Tell the view publisher, if there is one, that a lot has changed.
+     *
+     * @param lot The lot.
+     */
+    private void viewChanged(Lot lot)
+    {
+        ViewPublisher publisher = views;
+        if (publisher != null){
+            publisher.changed(lot);
+        }
+    }
+
+    /**
+     * Say whether the auction is being rebuilt. While it is, bids are
+     * not checked against the clock and do not extend deadlines, since
+     * the times that mattered were when they were first made; the
+     * journal or snapshot records which lots closed and when.
+     *
+     * @param restoring True while the auction is being rebuilt.
+     */
+    void setRestoring(boolean restoring)
+    {
+        this.restoring = restoring;
+    }
+
+    /**
+     * @param lot A lot.
+     *
+     * @return True if bidding for the lot has ended: it has been closed,
+     *         or its deadline has passed even if it has not been closed yet.
+     */
+    private boolean isPastDeadline(Lot lot)
+    {
+        long deadline = lot.getDeadline();
+        return lot.isClosed()
+               || ((deadline != 0) && !restoring && (System.currentTimeMillis() >= deadline));
+    }
+
+    /**
+     * Push out a lot's deadline after an accepted bid, if the bid came
+     * within the soft close window.
+     *
+     * @param lot The lot that was bid for.
+     */
+    private void extendForLateBid(Lot lot)
+    {
+        long deadline = lot.getDeadline();
+        long window = softCloseWindow;
+        if ((deadline != 0) && (window > 0) && !restoring){
+            long now = System.currentTimeMillis();
+            if ((now >= deadline - window) && lot.extendDeadline(now + softCloseExtension)
+                && (journal != null)){
+                journal.deadlineSet(lot.getNumber(), lot.getDeadline());
+            }
+        }
+    }
+
+    /**
+     * Start indexing the words of lot descriptions, so that lots can be
+     * found by keyword with findLotsWithAll and findLotsWithAny. The
+     * lots already in the auction are indexed now, and later ones as
+     * they are entered.
+     *
+     * The index is made public before the lots are walked, so a lot
+     * entered meanwhile is either seen by the walk or indexed by
+     * enterLot, and indexing it twice does no harm. A lot removed
+     * meanwhile is taken out again after it is indexed. A search made
+     * before this returns may miss lots the walk has not reached yet.
+     */
+    public synchronized void indexDescriptions()
+    {
+        if (descriptions == null){
+            DescriptionIndex index = new DescriptionIndex();
+            descriptions = index;
+            Iterator<Lot> it = lots.iterator();
             while (it.hasNext()){
                 Lot lot = it.next();
-                if ((lot.getNumber() == number) && (lot.getHighestBid() == null)){
-                    it.remove();
-                    return true;
+                index.add(lot);
+                if (lots.get(lot.getNumber()) != lot){
+                    index.remove(lot);
                 }
             }
         }
+    }
+
+    /**
+     * Find the lots whose descriptions contain all of the given words,
+     * in any case. Lots are found through the description index, not
+     * by looking at each lot.
+     *
+     * @param words The words, separated by spaces or punctuation.
+     *
+     * @return The numbers of the lots found, in increasing order.
+     *
+     * @throws IllegalStateException If descriptions are not being indexed.
+     */
+    public int[] findLotsWithAll(String words)
+    {
+        return descriptionIndex().findAll(words).toArray();
+    }
+
+    /**
+     * Find the lots whose descriptions contain any of the given words,
+     * in any case.
+     *
+     * @param words The words, separated by spaces or punctuation.
+     *
+     * @return The numbers of the lots found, in increasing order.
+     *
+     * @throws IllegalStateException If descriptions are not being indexed.
+     */
+    public int[] findLotsWithAny(String words)
+    {
+        return descriptionIndex().findAny(words).toArray();
+    }
+
+    /**
+     * @return The description index.
+     *
+     * @throws IllegalStateException If descriptions are not being indexed.
+     */
+    private DescriptionIndex descriptionIndex()
+    {
+        DescriptionIndex index = descriptions;
+        if (index == null){
+            throw new IllegalStateException("Lot descriptions are not being indexed");
+        }
+        return index;
+    }
+
+    /**
+     * @return The registry that gives each bidder in this auction a number.
+     */
+    public BidderRegistry getBidderRegistry()
+    {
+        return bidders;
+    }
+
+    /**
+     * Write a snapshot of this auction to a memory-mapped file, from
+     * which AuctionSnapshotFile.recover can rebuild it much faster than
+     * by replaying the whole journal. If the auction has a journal, it
+     * is committed first and the snapshot notes how far it had got, so
+     * that only the journal written after the snapshot is replayed.
+     *
+     * @param file The file to write. Any existing file is replaced.
+     */
+    public void writeSnapshot(Path file) throws IOException
+    {
+        long journalPosition = 0;
+        if (journal != null){
+            journal.commit();
+            journalPosition = journal.position();
+        }
+        AuctionSnapshotFile.write(this, file, journalPosition);
+    }
+
+    /**
+     * @return True if the auction is open.
+     */
+    boolean isOpen()
+    {
+        return isOpen;
+    }
+
+    /**
+     * @return The number that will be given to the next lot entered.
+     */
+    int getNextLotNumber()
+    {
+        return nextLotNumber;
+    }
+
+    /**
+     * Set the number that will be given to the next lot entered.
+     * It is never moved backwards, so numbers are not reused.
+     *
+     * @param number The next lot number.
+     */
+    void setNextLotNumber(int number)
+    {
+        nextLotNumber = Math.max(nextLotNumber, number);
+    }
+
+    /**
+     * Enter a new lot into the auction. Returns false if the
+     * auction is not open or if the description is null.
+     *
+     * @param description A description of the lot.
+     * 
+     * @return True if a new lot was entered into the auction, false otherwise.
+     */
+    public boolean enterLot(String description)
+    {
+        return enterLot(nextLotNumber, description);
+    }
+
+    /**
+     * Enter a new lot with the given number. Numbers are not checked
+     * for reuse, so the caller must make sure each is used only once.
+     * Later lots entered through enterLot(String) get higher numbers.
+     *
+     * @param number The number to give the lot.
+     * @param description A description of the lot.
+     * 
+     * @return True if a new lot was entered into the auction, false otherwise.
+     */
+    boolean enterLot(int number, String description)
+    {
+        if ((this.isOpen) && (description != null)){
+            // Journal first, so that a lot the journal could not take
+            // is not entered.
+            if (journal != null){
+                journal.lotEntered(number, description);
+            }
+            Lot lot = new Lot(number, description);
+            if (historyDepth > 0){
+                try {
+                    lot.setHistory(newHistory(number));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not create the bid history of lot " + number, e);
+                }
+            }
+            lots.put(lot);
+            synchronized (unsoldLots) {
+                unsoldLots.add(lot);
+            }
+            viewChanged(lot);
+            metrics.lotEntered();
+            DescriptionIndex index = descriptions;
+            if (index != null){
+                index.add(lot);
+            }
+            nextLotNumber = Math.max(nextLotNumber, number + 1);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Show the full list of lots in this auction.
+     *
+     * Print a blank line first, to make our output look nicer. 
+     * If there are no lots, print a message indicating this.
+     * 
+     */
+    public void showLots()
+    {
+        System.out.println();
+        if (lots.isEmpty()){
+            System.out.println("There are no lots currently being used.");
+        }
+        streamLots().forEachOrdered(new Consumer<Lot>()
+        {
+            public void accept(Lot lot)
+            {
+                System.out.println(lot.toString());
+            }
+        });
+    }
+
+    /**
+     * Show one page of the lots in this auction, those numbered after
+     * the given number, so that a large catalog can be shown a page at
+     * a time.
+     *
+     * @param afterNumber The number of the last lot already shown, or 0
+     *                    to start at the beginning.
+     * @param limit The most lots to show.
+     *
+     * @return The number of the last lot shown, to pass in for the next
+     *         page, or afterNumber if there were no more lots.
+     */
+    public int showLots(int afterNumber, int limit)
+    {
+        int last = afterNumber;
+        for (Lot lot : getLots(afterNumber, limit)) {
+            System.out.println(lot.toString());
+            last = lot.getNumber();
+        }
+        return last;
+    }
+
+    /**
+     * Return one page of the lots in this auction, in lot number order.
+     * To go through every lot, start after 0 and then ask for the lots
+     * after the last one of each page, until a page comes back empty.
+     * Lots entered or removed in between are seen or skipped as they
+     * would be in a single pass, since a page starts from a lot number
+     * rather than a position.
+     *
+     * @param afterNumber The number of the last lot already seen, or 0
+     *                    to start at the beginning.
+     * @param limit The most lots to return.
+     *
+     * @return The lots numbered after afterNumber, up to limit of them.
+     */
+    public ArrayList<Lot> getLots(int afterNumber, int limit)
+    {
+        final ArrayList<Lot> page = new ArrayList<Lot>(Math.max(Math.min(limit, lots.size()), 0));
+        Spliterator<Lot> rest = lots.spliterator(afterNumber);
+        Consumer<Lot> add = new Consumer<Lot>()
+        {
+            public void accept(Lot lot)
+            {
+                page.add(lot);
+            }
+        };
+        while ((page.size() < limit) && rest.tryAdvance(add)){
+            // The lot has been added to the page.
+        }
+        return page;
+    }
+
+    /**
+     * @return A stream of the lots in this auction, in lot number order.
+     *         It reads the lots where they are kept rather than copying
+     *         them, and may be made parallel.
+     */
+    public Stream<Lot> streamLots()
+    {
+        return streamLots(0);
+    }
+
+    /**
+     * @param afterNumber Only lots with higher numbers are included.
+     *
+     * @return A stream of the lots in this auction numbered after the
+     *         given number, in lot number order. It may be made parallel.
+     */
+    public Stream<Lot> streamLots(int afterNumber)
+    {
+        return StreamSupport.stream(lots.spliterator(afterNumber), false);
+    }
+    
+    /**
+     * @return An iterator over the lots in this auction, in lot number order.
+     */
+    Iterator<Lot> lotIterator()
+    {
+        return lots.iterator();
+    }
+
+    /**
+     * Bid for a lot.
+     * The lot is found through the lot index, so the cost of a bid
+     * does not depend on the number of lots in the auction.
+     * Bids may be made from many threads at once; the lot itself
+     * makes sure that only the highest bid is kept.
+     * The listener is told whether the bid is successful or not.
+     * The default listener prints a blank line, then whether or not
+     * the bid is successful. If the bid is successful, it also prints
+     * the lot number, high bidder's name, and the bid value.
+     * If the bid is not successful, it also prints the lot number 
+     * and high bid (but not the high bidder's name).
+     * 
+     * Returns false if the auction is closed, the lot doesn't
+     * exist, the bidder is null, or the bid was not positive
+     * and true otherwise (even if the bid was not high enough).
+     * (You need to update the return type, documentation, and code.)
+     * Every bid is counted in the auction's metrics, with the reason
+     * it was rejected if it was. While timing is enabled, about one in
+     * AuctionMetrics.SAMPLE_RATE is timed (see AuctionMetrics).
+     *
+     * @param number The lot number being bid for.
+     * @param bidder The person bidding for the lot.
+     * @param value  The value of the bid.
+     * 
+     * @return True if the bid was successful, false otherwise.
+     */
+    public boolean bidFor(int lotNumber, Person bidder, long value)
+    {
+        Lot current = lots.get(lotNumber);
+        if (!(this.isOpen) || (current == null) || (bidder == null) || (value <= 0)
+            || isPastDeadline(current)){
+            // Only work out why once the bid is known to be turned away,
+            // which keeps bidFor small enough for the JIT to inline.
+            metrics.bidRejected(checkBid(current, bidder, value));
+            return false;
+        }
+        long start = metrics.startBid(current);
+        SealedBids sealed = current.getSealedBids();
+        boolean accepted;
+        if (sealed != null){
+            accepted = sealBid(current, sealed, bidder, value);
+        } else {
+            accepted = placeBid(current, bidder, value);
+            if (accepted && (current.getProxyBook() != null)){
+                resolveProxies(current);
+            }
+        }
+        if (accepted || (sealed == null)){
+            // The lot has counted the bid.
+            metrics.bidPlaced(start);
+        } else {
+            // The lot's sealed bids closed after the bid was checked.
+            metrics.bidRejected(BidRejection.LOT_CLOSED);
+        }
+        return accepted;
+    }
+
+    /**
+     * Check that a bid may be made, before it is compared with the
+     * lot's other bids.
+     *
+     * @param current The lot being bid for, or null if there is none.
+     * @param bidder The person bidding for the lot.
+     * @param value  The value of the bid.
+     *
+     * @return Why the bid must be rejected, or null if it may be made.
+     */
+    private BidRejection checkBid(Lot current, Person bidder, long value)
+    {
+        if (!(this.isOpen)){
+            return BidRejection.AUCTION_CLOSED;
+        } else if (current == null){
+            return BidRejection.UNKNOWN_LOT;
+        } else if (bidder == null){
+            return BidRejection.NULL_BIDDER;
+        } else if (value <= 0){
+            return BidRejection.NOT_POSITIVE;
+        } else if (isPastDeadline(current)){
+            return BidRejection.LOT_CLOSED;
+        }
+        return null;
+    }
+
+    /**
+     * Place a bid on a lot and report it. The auction and the bid have
+     * already been checked.
+     *
+     * @param current The lot being bid for.
+     * @param bidder The person bidding for the lot.
+     * @param value  The value of the bid.
+     *
+     * @return True if the bid was accepted, false otherwise.
+     */
+    private boolean placeBid(Lot current, Person bidder, long value)
+    {
+        Bid newBid = new Bid(bidder, value);
+        Bid previous = current.placeBid(newBid);
+        lotChanged(current);
+        if (previous != newBid){
+            if (previous == null){
+                // This is the lot's first bid, so it is no longer unsold.
+                synchronized (unsoldLots) {
+                    unsoldLots.remove(current);
+                }
+            }
+            winners.update(current);
+            extendForLateBid(current);
+            metrics.bidsAccepted(1);
+            if (journal != null){
+                journal.bid(current.getNumber(), bidders.idOf(bidder), bidder, value, true);
+            }
+            listener.bidAccepted(current, newBid);
+            return true;
+        } else {
+            if (journal != null){
+                journal.bid(current.getNumber(), bidders.idOf(bidder), bidder, value, false);
+            }
+            listener.bidRejected(current, newBid, current.getHighestBid());
+            return false;
+        }
+    }
+
+    /**
+     * Add a bid to a lot's sealed bids. It is not compared with the
+     * others or reported to the listener.
+     *
+     * @param current The lot being bid for.
+     * @param sealed The lot's sealed bids.
+     * @param bidder The person bidding for the lot.
+     * @param value  The value of the bid.
+     *
+     * @return True if the bid was taken, false if the lot has closed.
+     */
+    private boolean sealBid(Lot current, SealedBids sealed, Person bidder, long value)
+    {
+        int position = sealed.add(bidder, value);
+        if (position < 0){
+            return false;
+        }
+        current.countBids(1);
+        metrics.bidsAccepted(1);
+        lotChanged(current);
+        if (position == 0){
+            // This is the lot's first bid, so it is no longer unsold.
+            synchronized (unsoldLots) {
+                unsoldLots.remove(current);
+            }
+        }
+        BidHistory history = current.getHistory();
+        if ((history != null) || (journal != null)){
+            int bidderId = bidders.idOf(bidder);
+            if (history != null){
+                history.record(bidderId, value, true);
+            }
+            if (journal != null){
+                journal.bid(current.getNumber(), bidderId, bidder, value, true);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Set how much a proxy bid raises the price over the bid it beats.
+     *
+     * @param increment The bid increment, at least 1.
+     */
+    public void setBidIncrement(long increment)
+    {
+        bidIncrement = Math.max(increment, 1);
+    }
+
+    /**
+     * Make a proxy bid for a lot: the most the bidder is willing to pay.
+     * The auction then bids for them, never more than it takes to beat
+     * the other bidders by the bid increment, so the winner pays about
+     * what the runner-up was willing to (a second-price auction). All
+     * the proxies for a lot are resolved at once, with a single bid,
+     * rather than by bidding each other up one increment at a time.
+     * Between equal maximums, the earlier proxy wins.
+     *
+     * A bidder's later proxy for the same lot replaces their earlier
+     * one if it is higher. The bids the proxies make are reported to
+     * the listener like any other.
+     *
+     * @param lotNumber The lot number being bid for.
+     * @param bidder The person bidding for the lot.
+     * @param maximum The most the bidder will pay.
+     *
+     * @return True if the bidder has the highest bid for the lot
+     *         afterwards, false if not, or if the auction is closed,
+     *         the lot doesn't exist, the bidder is null, or the
+     *         maximum is not positive.
+     */
+    public boolean proxyBidFor(int lotNumber, Person bidder, long maximum)
+    {
+        Lot current = lots.get(lotNumber);
+        if ((checkBid(current, bidder, maximum) != null) || (current.getSealedBids() != null)){
+            return false;
+        }
+        if (current.proxyBook().register(bidder, maximum) && (journal != null)){
+            journal.proxyRegistered(lotNumber, bidders.idOf(bidder), bidder, maximum);
+        }
+        if (restoring){
+            // The bids the proxy made are replayed on their own.
+            return false;
+        }
+        resolveProxies(current);
+        Bid highest = current.getHighestBid();
+        return (highest != null) && (highest.getBidder() == bidder);
+    }
+
+    /**
+     * Bid for the leading proxy of a lot, if it is not already winning,
+     * or if another proxy has come close enough that it must bid higher.
+     * The leader bids one increment over the next highest proxy or the
+     * lot's highest bid, whichever is more, but never over its maximum.
+     * Proxies that can no longer win are forgotten.
+     *
+     * @param current The lot.
+     */
+    private void resolveProxies(Lot current)
+    {
+        if (restoring){
+            return;
+        }
+        ProxyBook book = current.getProxyBook();
+        long increment = bidIncrement;
+        synchronized (book) {
+            // Only loops again if a bid made directly gets in first.
+            while ((this.isOpen) && !isPastDeadline(current)){
+                Bid highest = current.getHighestBid();
+                long floor = (highest != null) ? highest.getValue() : 0;
+                book.dropBelow(floor);
+                ProxyBook.Proxy leader = book.getLeader();
+                if (leader == null){
+                    return;
+                }
+                ProxyBook.Proxy runnerUp = book.getRunnerUp();
+                long beat;
+                if ((highest != null) && (highest.getBidder() == leader.getBidder())){
+                    // The leader is winning, and only has to stay ahead of the other proxies.
+                    if (runnerUp == null){
+                        return;
+                    }
+                    beat = runnerUp.getMaximum();
+                } else {
+                    beat = (runnerUp != null) ? Math.max(floor, runnerUp.getMaximum()) : floor;
+                }
+                // Written so as not to overflow near Long.MAX_VALUE.
+                long price = (beat >= leader.getMaximum() - increment) ? leader.getMaximum()
+                                                                       : beat + increment;
+                if (placeBid(current, leader.getBidder(), price)){
+                    book.dropBelow(price);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Place a batch of bids, as if bidFor had been called for each of
+     * them in turn, and return which were accepted. This is much
+     * cheaper than calling bidFor for every bid: the auction is checked
+     * once, and the bids are grouped by lot so that each lot is looked
+     * up once and only its highest bid in the batch is actually placed.
+     * The others are accepted or rejected by comparing them with the
+     * bids before them.
+     *
+     * Every bid is still reported to the listener, grouped by lot.
+     * Unless the listener is a NullAuctionListener, a Bid is made for
+     * each bid so that it can be reported. Every bid is counted in the
+     * auction's metrics, with the reason it was rejected if it was, as
+     * bidFor counts it.
+     *
+     * @param batch The bids to place. It is not changed, and may be
+     *              cleared and reused afterwards.
+     *
+     * @return A set holding the position in the batch of each bid that
+     *         was accepted. It is empty if the auction is closed.
+     */
+    public BitSet bidForBatch(BidBatch batch)
+    {
+        BitSet accepted = new BitSet(batch.size());
+        if (!(this.isOpen)){
+            metrics.bidsRejected(BidRejection.AUCTION_CLOSED, batch.size());
+            return accepted;
+        }
+        boolean report = !(listener instanceof NullAuctionListener);
+        long[] keys = batch.sortByLot();
+        int start = 0;
+        while (start < batch.size()){
+            int lotNumber = (int) (keys[start] >> 32);
+            int end = start + 1;
+            while ((end < batch.size()) && ((int) (keys[end] >> 32) == lotNumber)){
+                end++;
+            }
+            Lot current = lots.get(lotNumber);
+            if ((current != null) && !isPastDeadline(current)){
+                SealedBids sealed = current.getSealedBids();
+                if (sealed != null){
+                    for (int k = start; k < end; k++){
+                        int i = (int) keys[k];
+                        Person bidder = batch.getBidder(i);
+                        long value = batch.getValue(i);
+                        if ((bidder == null) || (value <= 0)){
+                            metrics.bidRejected(checkBid(current, bidder, value));
+                        } else if (sealBid(current, sealed, bidder, value)){
+                            accepted.set(i);
+                        } else {
+                            // The lot's sealed bids closed after the batch was checked.
+                            metrics.bidRejected(BidRejection.LOT_CLOSED);
+                        }
+                    }
+                } else {
+                    placeLotBids(current, batch, keys, start, end, accepted, report);
+                    if (current.getProxyBook() != null){
+                        resolveProxies(current);
+                    }
+                }
+            } else {
+                for (int k = start; k < end; k++){
+                    int i = (int) keys[k];
+                    BidRejection reason = checkBid(current, batch.getBidder(i), batch.getValue(i));
+                    // The lot's deadline may have been pushed out since it was checked.
+                    metrics.bidRejected((reason != null) ? reason : BidRejection.LOT_CLOSED);
+                }
+            }
+            start = end;
+        }
+        return accepted;
+    }
+
+    /**
+     * Place a batch of bids given as parallel arrays. See
+     * bidForBatch(BidBatch).
+     *
+     * @param lotNumbers The lot number of each bid.
+     * @param people The person making each bid.
+     * @param values The value of each bid.
+     *
+     * @return A set holding the index of each bid that was accepted.
+     *
+     * @throws IllegalArgumentException If the arrays are not all the
+     *         same length. No bid is placed.
+     */
+    public BitSet bidForBatch(int[] lotNumbers, Person[] people, long[] values)
+    {
+        if ((people.length != lotNumbers.length) || (values.length != lotNumbers.length)){
+            throw new IllegalArgumentException("Batch arrays differ in length: " + lotNumbers.length
+                                               + " lot numbers, " + people.length + " people, "
+                                               + values.length + " values");
+        }
+        BidBatch batch = new BidBatch(lotNumbers.length);
+        for (int i = 0; i < lotNumbers.length; i++){
+            batch.add(lotNumbers[i], people[i], values[i]);
+        }
+        return bidForBatch(batch);
+    }
+
+    /**
+     * Place the bids of a batch that are for one lot. Only the first of
+     * the highest valid bids is placed on the lot. If it is accepted,
+     * each bid is accepted if it beats the lot's previous highest bid
+     * and the bids for the lot before it in the batch, as if they had
+     * all been placed one by one just before it. If it is not, every
+     * bid is rejected.
+     *
+     * @param current The lot.
+     * @param batch The batch.
+     * @param keys The batch sorted by lot, as returned by sortByLot.
+     * @param start The first key for this lot.
+     * @param end The key after the last one for this lot.
+     * @param accepted The set to add the accepted bids to.
+     * @param report True to report each bid to the listener.
+     */
+    private void placeLotBids(Lot current, BidBatch batch, long[] keys, int start, int end,
+                              BitSet accepted, boolean report)
+    {
+        int best = -1;
+        int valid = 0;
+        for (int k = start; k < end; k++){
+            int i = (int) keys[k];
+            if ((batch.getBidder(i) != null) && (batch.getValue(i) > 0)){
+                valid++;
+                if ((best < 0) || (batch.getValue(i) > batch.getValue(best))){
+                    best = i;
+                }
+            } else {
+                metrics.bidRejected(checkBid(current, batch.getBidder(i), batch.getValue(i)));
+            }
+        }
+        if (best < 0){
+            return;
+        }
+        current.countBids(valid);
+        lotChanged(current);
+        Bid placed = new Bid(batch.getBidder(best), batch.getValue(best));
+        Bid previous = current.placeUnrecorded(placed);
+        boolean won = (previous != placed);
+        if (won){
+            if (previous == null){
+                // This is the lot's first bid, so it is no longer unsold.
+                synchronized (unsoldLots) {
+                    unsoldLots.remove(current);
+                }
+            }
+            winners.update(current);
+            extendForLateBid(current);
+        }
+
+        Bid highest = won ? previous : current.getHighestBid();
+        long highestValue = (highest != null) ? highest.getValue() : 0;
+        BidHistory history = current.getHistory();
+        int successes = 0;
+        for (int k = start; k < end; k++){
+            int i = (int) keys[k];
+            Person bidder = batch.getBidder(i);
+            long value = batch.getValue(i);
+            if ((bidder == null) || (value <= 0)){
+                continue;
+            }
+            boolean success = won && (value > highestValue);
+            if (success){
+                accepted.set(i);
+                highestValue = value;
+                successes++;
+            }
+            if ((history != null) || (journal != null)){
+                int bidderId = bidders.idOf(bidder);
+                if (history != null){
+                    history.record(bidderId, value, success);
+                }
+                if (journal != null){
+                    journal.bid(current.getNumber(), bidderId, bidder, value, success);
+                }
+            }
+            if (report){
+                Bid bid = (i == best) ? placed : new Bid(bidder, value);
+                if (success){
+                    listener.bidAccepted(current, bid);
+                    highest = bid;
+                } else {
+                    listener.bidRejected(current, bid, highest);
+                }
+            }
+        }
+        metrics.bidsAccepted(successes);
+    }
+
+    /**
+     * Return the lots that a bidder currently has the highest bid for
+     * (or has won, if the auction has ended). This uses an index kept
+     * up to date by bidFor, so the cost depends only on the number of
+     * lots returned.
+     *
+     * @param bidder The bidder.
+     *
+     * @return an ArrayList of the Lots the bidder is winning
+     */
+    public ArrayList<Lot> getWinningLots(Person bidder)
+    {
+        return winners.getWinningLots(bidder);
+    }
+
+    /**
+     * Return a bidder's exposure: the total value of the bids they are
+     * currently winning with, which is what they would owe if the
+     * auction closed now.
+     *
+     * @param bidder The bidder.
+     *
+     * @return The total value of the bidder's winning bids.
+     */
+    public long getExposure(Person bidder)
+    {
+        return winners.getExposure(bidder);
+    }
+
+    /**
+     * Return the lot with the given number. 
+     * The lot is looked up in the lot index in constant time.
+     *   
+     * Returns null if the lot does not exist (it was never entered,
+     * or it has been removed).
+     *
+     * @param lotNumber The number of the lot to return.
+     *
+     * @return the Lot with the given number
+     */
+    public Lot getLot(int lotNumber)
+    {
+        long start = metrics.startLookup();
+        Lot lot = lots.get(lotNumber);
+        metrics.lookedUp(lot != null, start);
+        return lot;
+    }
+    
+    /**
+     * Work out the outcome of every lot as things stand, in parallel.
+     * The auction is not changed.
+     *
+     * @param pool The pool to do the work on.
+     *
+     * @return The settlement, with the lots in lot number order.
+     */
+    public Settlement settle(ForkJoinPool pool)
+    {
+        return Settlement.settle(lots.spliterator(), pool);
+    }
+
+    /**
+     * @return The settlement made when the auction closed, or null if
+     *         it has not closed.
+     */
+    public Settlement getSettlement()
+    {
+        return settlement;
+    }
+
+    /**
+     * Return the auction's metrics: the bids accepted and rejected, and
+     * why; the lots looked up, entered, removed and closed; and how long
+     * bids, lookups and closing took. See AuctionMetrics, which can also
+     * make them available through JMX or print them every so often.
+     *
+     * @return The metrics.
+     */
+    public AuctionMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Publish an immutable view of the lots as they are now. Any number
+     * of threads can read the view without locking while the auction
+     * goes on taking bids. The first view looks at every lot; after that
+     * only the lots that have changed since the last view are looked
+     * at, and the rest of the view is shared with the last one.
+     *
+     * @return The new view.
+     */
+    public AuctionView publishView()
+    {
+        ViewPublisher publisher = views;
+        if (publisher == null){
+            synchronized (this) {
+                if (views == null){
+                    views = new ViewPublisher(lots);
+                }
+                publisher = views;
+            }
+        }
+        return publisher.publish(isOpen);
+    }
+
+    /**
+     * Return the view publishView last published. This takes no lock,
+     * so readers on any thread can call it as often as they like.
+     *
+     * @return The latest view, or null if none has been published.
+     */
+    public AuctionView getView()
+    {
+        ViewPublisher publisher = views;
+        return (publisher != null) ? publisher.getView() : null;
+    }
+
+    /**
+     * List the lots with the highest bids. The lots are ranked as they
+     * are bid for, so this does not sort every lot.
+     *
+     * @param count The most lots to list.
+     *
+     * @return The lots with the highest bids, highest first.
+     */
+    public ArrayList<Lot> getTopLotsByHighestBid(int count)
+    {
+        return leaders.getTopByHighestBid(count);
+    }
+
+    /**
+     * List the lots that have had the most bids, accepted or not.
+     *
+     * @param count The most lots to list.
+     *
+     * @return The lots with the most bids, most first.
+     */
+    public ArrayList<Lot> getTopLotsByBidCount(int count)
+    {
+        return leaders.getTopByBidCount(count);
+    }
+
+    /**
+     * Closes the auction and reports each lot to the listener.
+     * For each lot the default listener prints a blank line, then
+     * its number and description.
+     * If it did sell, the high bidder and bid value are also printed.  
+     * If it didn't sell, it prints that it didn't sell.
+     * Lots already closed at their deadlines are not reported again.
+     *
+     * The winners and what each bidder owes are worked out in parallel,
+     * and kept as a Settlement that getSettlement returns. The winners
+     * of lots with sealed bids are found then too, and become those
+     * lots' highest bids.
+     *
+     * The auction stops taking bids as soon as close begins, and each
+     * lot is closed as it is settled, so a bid that had already got past
+     * the auction's check either reaches the lot first, and is settled,
+     * or is turned away. Only one call closes the auction, however many
+     * threads call close at once; the others return false.
+     *
+     * Returns false if the auction is already closed, true otherwise.
+     * 
+     * @return False is the auction is closed, true otherwise. 
+     */
+    public boolean close()
+    {
+        long start = System.nanoTime();
+        synchronized (this) {
+            // Claim the close, so that only one call settles the auction,
+            // and turn bids away before the lots are settled.
+            if (!(this.isOpen)){
+                return false;
+            }
+            this.isOpen = false;
+            if (clock != null){
+                clock.shutdown();
+            }
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        ArrayList<Lot> sealed;
+        synchronized (sealedLots) {
+            sealed = new ArrayList<Lot>(sealedLots);
+        }
+        sealed.addAll(carriedSealedLots);
+        for (Lot lot : sealed) {
+            if (lot.getSealedBids() != null){
+                lot.getSealedBids().close();
+            }
+        }
+        // The sealed lots' winners are worked out as they are settled, and
+        // the other lots are closed, so a bid still in flight is either
+        // settled or turned away.
+        Settlement settlement = Settlement.close(lots.spliterator(), pool);
+        for (Lot lot : sealed) {
+            if ((lot.getSealedBids() != null) && (lots.get(lot.getNumber()) == lot)){
+                installSealedWinner(lot);
+            }
+        }
+        if (views != null){
+            // The lots just closed are closed in the next view too.
+            for (int i = 0; i < settlement.getLotCount(); i++){
+                if (!settlement.isClosedEarly(i)){
+                    viewChanged(settlement.getLot(i));
+                }
+            }
+        }
+        // The console's text can be put together on several threads.
+        listener.lotsClosed(settlement, pool);
+        this.settlement = settlement;
+        noteUnsoldLots(sealed);
+        // Let go of the lots of any auction this one carried lots over from.
+        lots.compact();
+        if (spillHistories){
+            Iterator<Lot> it = lots.iterator();
+            while (it.hasNext()){
+                closeHistory(it.next());
+            }
+        }
+        if (journal != null){
+            journal.auctionClosed();
+        }
+        metrics.auctionClosed(System.nanoTime() - start, settlement);
+        return true;
+    }
+    
+    /**
+     * Note the lots that did not sell, for a later auction to carry
+     * over. They are all closed by one closure, which that auction
+     * opens to open them again; it also gives the sealed ones new
+     * sealed bids.
+     *
+     * @param sealed The lots that have been given sealed pricing.
+     */
+    private void noteUnsoldLots(List<Lot> sealed)
+    {
+        Lot.Closure closure = new Lot.Closure();
+        PostingList unsold = new PostingList();
+        for (Lot lot : getNoBids()) {
+            lot.carryOver(closure);
+            unsold.add(lot.getNumber());
+        }
+        // A lot may be in the list twice, if its pricing was set again.
+        LinkedHashSet<Lot> sealedUnsold = new LinkedHashSet<Lot>();
+        for (Lot lot : sealed) {
+            if ((lot.getSealedBids() != null) && unsold.contains(lot.getNumber())){
+                sealedUnsold.add(lot);
+            }
+        }
+        sealedUnsoldAtClose = new ArrayList<Lot>(sealedUnsold);
+        unsoldClosure = closure;
+        unsoldAtClose = unsold;
+    }
+
+    /**
+     * @param lot A lot.
+     *
+     * @return True if the lot has no bids, sealed or not.
+     */
+    private static boolean hasNoBids(Lot lot)
+    {
+        SealedBids sealed = lot.getSealedBids();
+        return (lot.getHighestBid() == null) && ((sealed == null) || (sealed.size() == 0));
+    }
+
+    /**
+     * Returns an ArrayList containing all the items that have no bids so far.
+     * (or have not sold if the auction has ended).
+     * Only the unsold lots, and the lots carried over from an earlier
+     * auction, are looked at, so the cost depends on how many of those
+     * there are rather than on the size of the auction.
+     * The lots carried over come first, in lot number order.
+     * 
+     * @return an ArrayList of the Lots which currently have no bids
+     */
+    public ArrayList<Lot> getNoBids()
+    {
+        synchronized (unsoldLots) {
+            ArrayList<Lot> noBids = new ArrayList<Lot>(unsoldLots.size());
+            if (carriedNumbers != null){
+                for (int number : carriedNumbers.toArray()) {
+                    Lot lot = lots.get(number);
+                    if ((lot != null) && hasNoBids(lot)){
+                        noBids.add(lot);
+                    }
+                }
+            }
+            for (Lot lot : unsoldLots) {
+                // A bid made through Lot.bidFor directly bypasses the set.
+                if (lot.getHighestBid() == null){
+                    noBids.add(lot);
+                }
+            }
+            return noBids;
+        }
+    }
+    
+    /**
+     * Remove the lot with the given lot number, as long as the lot has
+     * no bids, and the auction is open.  
+     * The lot is found through the lot index and its slot is left
+     * empty, so its number is never given to another lot.
+     *
+     * Returns true if successful, false otherwise (auction closed,
+     * lot does not exist, or lot has a bid, sealed or not).
+     *
+     * @param number The number of the lot to be removed. 
+     * 
+     * @return True if the lot was successfully removed, false otherwise.
+     */
+    public boolean removeLot(int number)
+    {
+        if (this.isOpen) {
+            Lot lot = lots.get(number);
+            if ((lot != null) && hasNoBids(lot)){
+                lots.remove(number);
+                synchronized (unsoldLots) {
+                    unsoldLots.remove(lot);
+                }
+                viewChanged(lot);
+                metrics.lotRemoved();
+                closeHistory(lot);
+                DescriptionIndex index = descriptions;
+                if (index != null){
+                    index.remove(lot);
+                }
+                if (journal != null){
+                    journal.lotRemoved(number);
+                }
+                return true;
+            }
+        }
         return false;
     }
           
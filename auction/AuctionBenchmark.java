@@ -0,0 +1,222 @@
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Benchmarks for the hot paths of Auction: bidding with uniform and
+ * skewed lot popularity, lot lookup, getNoBids over large catalogs,
+ * and closing a large auction.
+ *
+ * Run it from the command line, optionally giving the JSON file to
+ * write and the catalog sizes to try:
+ *     java AuctionBenchmark results.json 1000 100000 10000000
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class AuctionBenchmark
+{
+    // The catalog sizes tried when none are given.
+    private static final int[] DEFAULT_SIZES = { 1000, 100000, 1000000, 10000000 };
+    // The number of lots closed by the close benchmark.
+    private static final int CLOSE_SIZE = 1000000;
+    // The number of bids or lookups made in one iteration.
+    private static final int OPERATIONS = 1000000;
+    // The skew used for Zipf-distributed lot popularity.
+    private static final double ZIPF_EXPONENT = 1.0;
+    // The file results are written to when none is given.
+    private static final String DEFAULT_RESULTS = "auction-benchmark.json";
+
+    /**
+     * Run the benchmarks.
+     * @param args The JSON file to write, followed by the catalog sizes
+     *             to try. The defaults are used for anything left out.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String results = (args.length > 0) ? args[0] : DEFAULT_RESULTS;
+        int[] sizes = DEFAULT_SIZES;
+        if(args.length > 1) {
+            sizes = new int[args.length - 1];
+            for(int i = 1; i < args.length; i++) {
+                sizes[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        BenchmarkHarness harness = new BenchmarkHarness(2, 5);
+        for(int size : sizes) {
+            Auction auction = filledAuction(size);
+            harness.measure("bid.uniform", size, bids(auction, uniformLots(size)));
+            harness.measure("bid.zipf", size, bids(auction, zipfLots(size)));
+            harness.measure("getLot", size, lookups(auction, uniformLots(size)));
+            harness.measure("getNoBids", size, noBids(size));
+        }
+        harness.measure("close", CLOSE_SIZE, close(CLOSE_SIZE));
+        harness.writeJson(results);
+        System.out.println("Results written to " + results);
+    }
+
+    /**
+     * @param size The number of lots to enter.
+     * @return An open auction with the given number of lots, which
+     *         does not report its events anywhere.
+     */
+    private static Auction filledAuction(int size)
+    {
+        Auction auction = new Auction();
+        auction.setListener(new NullAuctionListener());
+        for(int i = 0; i < size; i++) {
+            auction.enterLot("Lot " + i);
+        }
+        return auction;
+    }
+
+    /**
+     * @param size The number of lots to enter.
+     * @return An open auction where every other lot has a bid.
+     */
+    private static Auction halfSoldAuction(int size)
+    {
+        Auction auction = filledAuction(size);
+        Person bidder = new Person("Benchmark");
+        for(int lot = 1; lot <= size; lot += 2) {
+            auction.bidFor(lot, bidder, 1);
+        }
+        return auction;
+    }
+
+    /**
+     * @param size The number of lots in the catalog.
+     * @return Lot numbers to use, each equally likely.
+     */
+    private static int[] uniformLots(int size)
+    {
+        Random random = new Random(42);
+        int[] lots = new int[OPERATIONS];
+        for(int i = 0; i < lots.length; i++) {
+            lots[i] = random.nextInt(size) + 1;
+        }
+        return lots;
+    }
+
+    /**
+     * @param size The number of lots in the catalog.
+     * @return Lot numbers to use, with Zipf-distributed popularity.
+     */
+    private static int[] zipfLots(int size)
+    {
+        Random random = new Random(42);
+        ZipfDistribution zipf = new ZipfDistribution(size, ZIPF_EXPONENT);
+        int[] lots = new int[OPERATIONS];
+        for(int i = 0; i < lots.length; i++) {
+            lots[i] = zipf.next(random);
+        }
+        return lots;
+    }
+
+    /**
+     * @param auction The auction to bid in.
+     * @param lots The lots to bid for, in order.
+     * @return A trial that bids rising values for the given lots.
+     */
+    private static BenchmarkHarness.Trial bids(final Auction auction, final int[] lots)
+    {
+        final Person bidder = new Person("Benchmark");
+        return new BenchmarkHarness.Trial()
+        {
+            private long value = 1;
+
+            public void setUp()
+            {
+            }
+
+            public long run()
+            {
+                for(int lot : lots) {
+                    auction.bidFor(lot, bidder, value++);
+                }
+                return lots.length;
+            }
+        };
+    }
+
+    /**
+     * @param auction The auction to search.
+     * @param lots The lots to look up, in order.
+     * @return A trial that looks up the given lots.
+     */
+    private static BenchmarkHarness.Trial lookups(final Auction auction, final int[] lots)
+    {
+        return new BenchmarkHarness.Trial()
+        {
+            // Keeps the lookups from being optimised away.
+            private long sink;
+
+            public void setUp()
+            {
+            }
+
+            public long run()
+            {
+                for(int lot : lots) {
+                    sink += auction.getLot(lot).getNumber();
+                }
+                return lots.length;
+            }
+        };
+    }
+
+    /**
+     * @param size The number of lots in the catalog.
+     * @return A trial that calls getNoBids on an auction where every
+     *         other lot has a bid. Small catalogs are queried many
+     *         times per iteration so that the timing is meaningful.
+     */
+    private static BenchmarkHarness.Trial noBids(final int size)
+    {
+        return new BenchmarkHarness.Trial()
+        {
+            private Auction auction;
+            private long sink;
+
+            public void setUp()
+            {
+                if(auction == null) {
+                    auction = halfSoldAuction(size);
+                }
+            }
+
+            public long run()
+            {
+                int calls = Math.max(1, OPERATIONS / size);
+                for(int i = 0; i < calls; i++) {
+                    sink += auction.getNoBids().size();
+                }
+                return calls;
+            }
+        };
+    }
+
+    /**
+     * @param size The number of lots in the auction being closed.
+     * @return A trial that closes a fresh auction where every other
+     *         lot has a bid, counting one operation per lot.
+     */
+    private static BenchmarkHarness.Trial close(final int size)
+    {
+        return new BenchmarkHarness.Trial()
+        {
+            private Auction auction;
+
+            public void setUp()
+            {
+                auction = halfSoldAuction(size);
+            }
+
+            public long run()
+            {
+                auction.close();
+                return size;
+            }
+        };
+    }
+}
@@ -0,0 +1,659 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+
+/**
+ * An append-only journal of everything that changes an auction:
+ * lots entered and removed, bids, and the auction closing. If the
+ * program stops part way through an auction, replay rebuilds the
+ * auction from its journal.
+ *
+ * Records are written in a compact binary format to a buffer, and the
+ * buffer is written to the file when it fills up or commit is called
+ * (a group commit), so many records share one write. How often the
+ * file is forced to disk is set by the SyncPolicy. A record too big
+ * for the buffer, such as a very long description, makes the buffer
+ * grow to fit it.
+ *
+ * The journal is locked while a record is added, so while an auction
+ * has a journal every bid it records takes the same lock, and bidders
+ * on different lots wait for each other there. Adding a record is
+ * only a few buffer writes, but a group commit, and with EVERY_RECORD
+ * a write and force for each record, is done while the lock is held.
+ * Unless all bids are recorded, rejected bids do not take the lock.
+ *
+ * The record formats are:
+ *     ENTER  lot number (int), description length (int), description (UTF-8)
+ *     BIDDER bidder id (int), name length (int, -1 for no name), name (UTF-8)
+ *     BID    lot number (int), value (long), accepted (byte), bidder id (int)
+ *     REMOVE lot number (int)
+ *     CLOSE
+ *     NEXT   next lot number (int)
+ *     DEADLINE lot number (int), deadline (long)
+ *     LOT_CLOSED lot number (int)
+ *     PROXY  lot number (int), maximum (long), bidder id (int)
+ *     PRICING lot number (int), pricing (byte, its LotPricing ordinal)
+ * each preceded by a one byte record type. Bidders are written as
+ * their id in the auction's BidderRegistry; the BIDDER record giving
+ * a bidder's name is written before the first bid or proxy that uses
+ * the id; replay makes one Person for each id, so bidders who share a
+ * name stay apart. The bids a proxy makes are recorded as BID records of their
+ * own, so replaying a PROXY record only registers the proxy. Sealed
+ * bids are BID records too, always marked accepted.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class AuctionJournal implements AutoCloseable
+{
+    /**
+     * When the journal file is forced to disk.
+     */
+    public enum SyncPolicy
+    {
+        /** Never; the operating system decides when to write to disk. */
+        NEVER,
+        /** Once per group commit, after the buffer has been written. */
+        GROUP,
+        /** After every record. The safest, and the slowest. */
+        EVERY_RECORD
+    }
+
+    // Identifies a journal file, and its format version.
+    private static final int MAGIC = 0x41554A33;
+    // The record types.
+    private static final byte ENTER = 1;
+    private static final byte BID = 2;
+    private static final byte REMOVE = 3;
+    private static final byte CLOSE = 4;
+    private static final byte NEXT = 5;
+    private static final byte BIDDER = 6;
+    private static final byte DEADLINE = 7;
+    private static final byte LOT_CLOSED = 8;
+    private static final byte PROXY = 9;
+    private static final byte PRICING = 10;
+    // The default size of the group commit buffer.
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    // The most of the journal mapped into memory at once during replay.
+    private static final long REPLAY_WINDOW = 1L << 30;
+
+    // The journal file.
+    private final FileChannel channel;
+    // Records waiting to be written.
+    private ByteBuffer buffer;
+    // When the file is forced to disk.
+    private final SyncPolicy policy;
+    // Whether rejected bids are recorded as well as accepted ones.
+    private final boolean allBids;
+    // The number of bytes written to the file, including the buffer.
+    private long position;
+    // The ids of the bidders whose names have been written.
+    private final BitSet biddersWritten;
+
+    /**
+     * Open a journal, creating the file if it does not exist and
+     * adding to it if it does.
+     * @param file The journal file.
+     * @param policy When the file is forced to disk.
+     * @param allBids True to record rejected bids too, false to
+     *                record only accepted bids.
+     */
+    public AuctionJournal(Path file, SyncPolicy policy, boolean allBids) throws IOException
+    {
+        this(file, policy, allBids, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Open a journal, creating the file if it does not exist and
+     * adding to it if it does. A record cut short at the end of the
+     * file, as happens if the program stops while writing it, is cut
+     * off first, so that the records added after it can be replayed.
+     * @param file The journal file.
+     * @param policy When the file is forced to disk.
+     * @param allBids True to record rejected bids too, false to
+     *                record only accepted bids.
+     * @param bufferSize The size of the group commit buffer, in bytes.
+     * @throws IOException If the file cannot be opened, is not a
+     *                     journal, or holds a record of an unknown type.
+     */
+    public AuctionJournal(Path file, SyncPolicy policy, boolean allBids, int bufferSize) throws IOException
+    {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                        StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.policy = policy;
+        this.allBids = allBids;
+        this.biddersWritten = new BitSet();
+        this.position = completeLength(channel, file);
+        if(position < channel.size()) {
+            channel.truncate(position);
+        }
+        channel.position(position);
+        if(position == 0) {
+            buffer.putInt(MAGIC);
+            position = 4;
+        }
+    }
+
+    /**
+     * @return The number of bytes in the journal, counting records
+     *         that have not been written to the file yet.
+     */
+    public synchronized long position()
+    {
+        return position;
+    }
+
+    /**
+     * Record the current state of an auction: its lots, their highest
+     * bids and its next lot number. This is done when the journal is
+     * given to an auction that already has lots, such as one that
+     * carried lots over from an earlier auction.
+     * @param auction The auction to record.
+     */
+    synchronized void recordState(Auction auction)
+    {
+        Iterator<Lot> lots = auction.lotIterator();
+        while(lots.hasNext()) {
+            Lot lot = lots.next();
+            lotEntered(lot.getNumber(), lot.getDescription());
+            Bid highest = lot.getHighestBid();
+            SealedBids sealed = lot.getSealedBids();
+            if(sealed != null) {
+                // The winner is worked out again from the sealed bids.
+                pricingSet(lot.getNumber(), sealed.getPricing());
+                for(int i = 0; i < sealed.size(); i++) {
+                    Person bidder = sealed.getBidder(i);
+                    bid(lot.getNumber(), auction.getBidderRegistry().idOf(bidder), bidder, sealed.getValue(i), true);
+                }
+            }
+            else if(highest != null) {
+                Person bidder = highest.getBidder();
+                bid(lot.getNumber(), auction.getBidderRegistry().idOf(bidder), bidder, highest.getValue(), true);
+            }
+            ProxyBook proxies = lot.getProxyBook();
+            if(proxies != null) {
+                // Best first, so that ties still go to the same proxy.
+                for(ProxyBook.Proxy proxy : proxies.getProxies()) {
+                    Person bidder = proxy.getBidder();
+                    proxyRegistered(lot.getNumber(), auction.getBidderRegistry().idOf(bidder), bidder,
+                                    proxy.getMaximum());
+                }
+            }
+            if(lot.getDeadline() != 0) {
+                deadlineSet(lot.getNumber(), lot.getDeadline());
+            }
+            if(lot.isClosed()) {
+                lotClosed(lot.getNumber());
+            }
+        }
+        ensureRoom(5);
+        buffer.put(NEXT).putInt(auction.getNextLotNumber());
+        recorded(5);
+    }
+
+    /**
+     * Record a lot being entered.
+     * @param number The lot number.
+     * @param description The lot's description.
+     */
+    synchronized void lotEntered(int number, String description)
+    {
+        byte[] text = description.getBytes(StandardCharsets.UTF_8);
+        int size = 9 + text.length;
+        ensureRoom(size);
+        buffer.put(ENTER).putInt(number).putInt(text.length).put(text);
+        recorded(size);
+    }
+
+    /**
+     * Record a bid. A rejected bid is only recorded if the journal
+     * was opened to record all bids.
+     * @param number The lot number.
+     * @param bidderId The bidder's id in the auction's BidderRegistry.
+     * @param bidder The person bidding.
+     * @param value The value of the bid.
+     * @param accepted Whether the bid was accepted.
+     */
+    void bid(int number, int bidderId, Person bidder, long value, boolean accepted)
+    {
+        if(!accepted && !allBids) {
+            return;
+        }
+        synchronized(this) {
+            bidderNamed(bidderId, bidder);
+            ensureRoom(18);
+            buffer.put(BID).putInt(number).putLong(value).put(accepted ? (byte) 1 : (byte) 0).putInt(bidderId);
+            recorded(18);
+        }
+    }
+
+    /**
+     * Record a proxy bid being registered or raised.
+     * @param number The lot number.
+     * @param bidderId The bidder's id in the auction's BidderRegistry.
+     * @param bidder The person bidding.
+     * @param maximum The most the bidder will pay.
+     */
+    synchronized void proxyRegistered(int number, int bidderId, Person bidder, long maximum)
+    {
+        bidderNamed(bidderId, bidder);
+        ensureRoom(17);
+        buffer.put(PROXY).putInt(number).putLong(maximum).putInt(bidderId);
+        recorded(17);
+    }
+
+    /**
+     * Record a bidder's name, unless it has been recorded already.
+     * @param bidderId The bidder's id in the auction's BidderRegistry.
+     * @param bidder The bidder.
+     */
+    private void bidderNamed(int bidderId, Person bidder)
+    {
+        if(!biddersWritten.get(bidderId)) {
+            String text = bidder.getName();
+            byte[] name = (text != null) ? text.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            int size = 9 + name.length;
+            ensureRoom(size);
+            buffer.put(BIDDER).putInt(bidderId).putInt((text != null) ? name.length : -1).put(name);
+            recorded(size);
+            biddersWritten.set(bidderId);
+        }
+    }
+
+    /**
+     * Record a lot's pricing being set.
+     * @param number The lot number.
+     * @param pricing The lot's new pricing.
+     */
+    synchronized void pricingSet(int number, LotPricing pricing)
+    {
+        ensureRoom(6);
+        buffer.put(PRICING).putInt(number).put((byte) pricing.ordinal());
+        recorded(6);
+    }
+
+    /**
+     * Record a lot being removed.
+     * @param number The lot number.
+     */
+    synchronized void lotRemoved(int number)
+    {
+        ensureRoom(5);
+        buffer.put(REMOVE).putInt(number);
+        recorded(5);
+    }
+
+    /**
+     * Record a lot's deadline being set or pushed out.
+     * @param number The lot number.
+     * @param deadline The new deadline, in milliseconds since 1970.
+     */
+    synchronized void deadlineSet(int number, long deadline)
+    {
+        ensureRoom(13);
+        buffer.put(DEADLINE).putInt(number).putLong(deadline);
+        recorded(13);
+    }
+
+    /**
+     * Record a lot closing at its deadline.
+     * @param number The lot number.
+     */
+    synchronized void lotClosed(int number)
+    {
+        ensureRoom(5);
+        buffer.put(LOT_CLOSED).putInt(number);
+        recorded(5);
+    }
+
+    /**
+     * Record the auction closing, and commit.
+     */
+    synchronized void auctionClosed()
+    {
+        ensureRoom(1);
+        buffer.put(CLOSE);
+        recorded(1);
+        commit();
+    }
+
+    /**
+     * Write every buffered record to the file, forcing it to disk
+     * unless the sync policy is NEVER.
+     */
+    public synchronized void commit()
+    {
+        try {
+            buffer.flip();
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+            if(policy != SyncPolicy.NEVER) {
+                channel.force(false);
+            }
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException("Could not write the auction journal", e);
+        }
+    }
+
+    /**
+     * Commit and close the journal file.
+     */
+    public synchronized void close() throws IOException
+    {
+        commit();
+        channel.close();
+    }
+
+    /**
+     * Rebuild an auction from its journal. A record cut short at the
+     * end of the file, as happens if the program stops while writing
+     * it, is ignored. The rebuilt auction prints to the console, like
+     * a new one, and has no journal.
+     * @param file The journal file.
+     * @return The auction as it was when the last complete record was written.
+     * @throws IOException If the file cannot be read, is not a journal,
+     *                     or holds a record of an unknown type.
+     */
+    public static Auction replay(Path file) throws IOException
+    {
+        Auction auction = new Auction();
+        replay(file, 0, auction);
+        return auction;
+    }
+
+    /**
+     * Apply the records of a journal to an auction, starting at the
+     * given position, and return where the last complete record ended.
+     * @param file The journal file.
+     * @param from The position of the first record to apply, or 0 to
+     *             start at the beginning of the journal.
+     * @param auction The auction to apply the records to.
+     * @return The position after the last complete record.
+     * @throws IOException If the file cannot be read, is not a journal,
+     *                     or holds a record of an unknown type.
+     */
+    static long replay(Path file, long from, Auction auction) throws IOException
+    {
+        try(FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            ByteBuffer header = ByteBuffer.allocate(4);
+            in.read(header, 0);
+            if((size < 4) || (header.getInt(0) != MAGIC)) {
+                throw new IOException(file + " is not an auction journal");
+            }
+            auction.setListener(null);
+            auction.setRestoring(true);
+            ArrayList<Person> bidders = new ArrayList<Person>();
+            // Bidders restored from a snapshot kept their ids.
+            int restored = auction.getBidderRegistry().size();
+            // The journal is mapped a window at a time, since a buffer
+            // cannot hold more than 2GB. A record cut off by the end of
+            // a window is read again at the start of the next one.
+            long end = Math.max(from, 4);
+            boolean more = true;
+            while(more && (end < size)) {
+                long length = Math.min(size - end, REPLAY_WINDOW);
+                ByteBuffer records = in.map(FileChannel.MapMode.READ_ONLY, end, length);
+                int applied = 0;
+                while(applyRecord(records, end, auction, bidders, restored)) {
+                    applied = records.position();
+                }
+                more = (applied > 0) && (end + length < size);
+                end += applied;
+            }
+            auction.setRestoring(false);
+            auction.setListener(new ConsoleAuctionListener());
+            return end;
+        }
+    }
+
+    /**
+     * Find where the last complete record of a journal ends.
+     * @param in The journal file, open for reading.
+     * @param file The journal file's path, for the error message.
+     * @return The position after the last complete record, or 0 if
+     *         the file is too short to hold the journal's header.
+     * @throws IOException If the file cannot be read, is not a journal,
+     *                     or holds a record of an unknown type.
+     */
+    private static long completeLength(FileChannel in, Path file) throws IOException
+    {
+        long size = in.size();
+        if(size < 4) {
+            // Cut short before the header was written.
+            return 0;
+        }
+        ByteBuffer header = ByteBuffer.allocate(4);
+        in.read(header, 0);
+        if(header.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not an auction journal");
+        }
+        // Read a window at a time, as replay does.
+        long end = 4;
+        boolean more = true;
+        while(more && (end < size)) {
+            long length = Math.min(size - end, REPLAY_WINDOW);
+            ByteBuffer records = in.map(FileChannel.MapMode.READ_ONLY, end, length);
+            int skipped = 0;
+            while(skipRecord(records, end)) {
+                skipped = records.position();
+            }
+            more = (skipped > 0) && (end + length < size);
+            end += skipped;
+        }
+        return end;
+    }
+
+    /**
+     * Move past the next record without applying it.
+     * @param records The journal, positioned at the start of a record.
+     * @param offset Where in the journal file records starts.
+     * @return True if a whole record was passed, false at the end of
+     *         the journal or if the last record was cut short.
+     * @throws IOException If the record is of an unknown type.
+     */
+    private static boolean skipRecord(ByteBuffer records, long offset) throws IOException
+    {
+        if(!records.hasRemaining()) {
+            return false;
+        }
+        int start = records.position();
+        byte type = records.get();
+        int length;
+        try {
+            switch(type) {
+                case ENTER:
+                    records.getInt();
+                    length = records.getInt();
+                    break;
+                case BIDDER:
+                    records.getInt();
+                    length = Math.max(records.getInt(), 0);
+                    break;
+                case BID:
+                    length = 17;
+                    break;
+                case PROXY:
+                    length = 16;
+                    break;
+                case DEADLINE:
+                    length = 12;
+                    break;
+                case PRICING:
+                    length = 5;
+                    break;
+                case REMOVE:
+                case NEXT:
+                case LOT_CLOSED:
+                    length = 4;
+                    break;
+                case CLOSE:
+                    length = 0;
+                    break;
+                default:
+                    throw new IOException("Unknown journal record type " + type + " at position "
+                                          + (offset + start));
+            }
+        }
+        catch(BufferUnderflowException e) {
+            // The last record was cut short.
+            return false;
+        }
+        if(records.remaining() < length) {
+            return false;
+        }
+        records.position(records.position() + length);
+        return true;
+    }
+
+    /**
+     * Apply the next record to an auction.
+     * @param records The journal, positioned at the start of a record.
+     * @param offset Where in the journal file records starts.
+     * @param auction The auction being rebuilt.
+     * @param bidders The bidders named so far, by their id in the journal.
+     * @param restored The number of bidders the auction had, with their
+     *                 journal ids, before replay started.
+     * @return True if a record was applied, false at the end of the journal.
+     * @throws IOException If the record is of an unknown type.
+     */
+    private static boolean applyRecord(ByteBuffer records, long offset, Auction auction,
+                                       ArrayList<Person> bidders, int restored) throws IOException
+    {
+        try {
+            if(!records.hasRemaining()) {
+                return false;
+            }
+            int start = records.position();
+            byte type = records.get();
+            switch(type) {
+                case ENTER:
+                    int number = records.getInt();
+                    String description = readString(records, records.getInt());
+                    // A snapshot taken after this record may already hold the lot.
+                    if(auction.getLot(number) == null) {
+                        auction.enterLot(number, description);
+                    }
+                    return true;
+                case BIDDER:
+                    int id = records.getInt();
+                    int length = records.getInt();
+                    String name = (length >= 0) ? readString(records, length) : null;
+                    // A bidder named after the snapshot's journal position
+                    // may be in the snapshot already.
+                    Person named = (id < restored) ? auction.getBidderRegistry().getPerson(id) : new Person(name);
+                    while(bidders.size() <= id) {
+                        bidders.add(null);
+                    }
+                    bidders.set(id, named);
+                    return true;
+                case BID:
+                    int lot = records.getInt();
+                    long value = records.getLong();
+                    records.get();
+                    int bidderId = records.getInt();
+                    auction.bidFor(lot, bidderFor(bidderId, auction, bidders), value);
+                    return true;
+                case PROXY:
+                    int proxied = records.getInt();
+                    long maximum = records.getLong();
+                    auction.proxyBidFor(proxied, bidderFor(records.getInt(), auction, bidders), maximum);
+                    return true;
+                case PRICING:
+                    int priced = records.getInt();
+                    auction.setLotPricing(priced, LotPricing.values()[records.get()]);
+                    return true;
+                case REMOVE:
+                    auction.removeLot(records.getInt());
+                    return true;
+                case CLOSE:
+                    auction.close();
+                    return true;
+                case NEXT:
+                    auction.setNextLotNumber(records.getInt());
+                    return true;
+                case DEADLINE:
+                    int timed = records.getInt();
+                    auction.setLotDeadline(timed, records.getLong());
+                    return true;
+                case LOT_CLOSED:
+                    auction.closeLot(records.getInt());
+                    return true;
+                default:
+                    throw new IOException("Unknown journal record type " + type + " at position "
+                                          + (offset + start));
+            }
+        }
+        catch(BufferUnderflowException e) {
+            // The last record was cut short.
+            return false;
+        }
+    }
+
+    /**
+     * @param id A bidder id from the journal.
+     * @param auction The auction being rebuilt.
+     * @param bidders The bidders named so far, by their id in the journal.
+     * @return The bidder with that id.
+     */
+    private static Person bidderFor(int id, Auction auction, ArrayList<Person> bidders)
+    {
+        Person bidder = (id < bidders.size()) ? bidders.get(id) : null;
+        if(bidder == null) {
+            // Named before a snapshot, which kept the bidder's id.
+            bidder = auction.getBidderRegistry().getPerson(id);
+        }
+        return bidder;
+    }
+
+    /**
+     * @param records The journal.
+     * @param length The number of bytes in the string.
+     * @return The UTF-8 string at the journal's position.
+     */
+    private static String readString(ByteBuffer records, int length)
+    {
+        byte[] bytes = new byte[length];
+        records.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Make room in the buffer for a record, committing if necessary,
+     * and growing the buffer if the record is bigger than it.
+     * @param size The size of the record, in bytes.
+     */
+    private void ensureRoom(int size)
+    {
+        if(buffer.remaining() < size) {
+            commit();
+            if(buffer.capacity() < size) {
+                buffer = ByteBuffer.allocateDirect(size);
+            }
+        }
+    }
+
+    /**
+     * Note that a record has been added to the buffer.
+     * @param size The size of the record, in bytes.
+     */
+    private void recorded(int size)
+    {
+        position += size;
+        if(policy == SyncPolicy.EVERY_RECORD) {
+            commit();
+        }
+    }
+}
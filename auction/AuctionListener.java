@@ -0,0 +1,52 @@
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Receives the events of an auction: bids that were accepted or
+ * rejected, and lots that were closed.
+ *
+ * An auction reports to exactly one listener. Listeners are called on
+ * the thread that made the bid or closed the auction, so they should
+ * be quick; BatchingAuctionListener can be used to move slow work,
+ * such as printing, onto a thread of its own.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public interface AuctionListener
+{
+    /**
+     * A bid was accepted and is now the highest bid for its lot.
+     * @param lot The lot that was bid for.
+     * @param bid The accepted bid.
+     */
+    void bidAccepted(Lot lot, Bid bid);
+
+    /**
+     * A bid was made for a lot but was not high enough.
+     * @param lot The lot that was bid for.
+     * @param bid The rejected bid.
+     * @param highestBid The bid that beat it. This could be null if
+     *                   the lot does not accept open bids.
+     */
+    void bidRejected(Lot lot, Bid bid, Bid highestBid);
+
+    /**
+     * A lot was closed.
+     * @param lot The lot that was closed.
+     * @param winningBid The bid that won the lot, or null if the lot
+     *                   did not sell.
+     */
+    void lotClosed(Lot lot, Bid winningBid);
+
+    /**
+     * An auction closed. By default, lotClosed is called for each lot
+     * that was still open, in lot number order; a listener can override
+     * this to handle the whole settlement at once, using the pool.
+     * @param settlement The settlement of the auction.
+     * @param pool The pool the auction was settled on.
+     */
+    default void lotsClosed(Settlement settlement, ForkJoinPool pool)
+    {
+        settlement.report(this);
+    }
+}
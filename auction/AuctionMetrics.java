@@ -0,0 +1,631 @@
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counts what an auction does and how long it takes: bids accepted and
+ * rejected, with the reason for each rejection; lookups that found no
+ * lot; lots entered, removed and closed; and the time taken by bids,
+ * lookups and closing.
+ *
+ * Bids that are accepted, and bids that bidFor or bidForBatch turns
+ * away before they reach a lot, are counted in LongAdders, which spread updates from many
+ * threads over several cells so that counting never makes threads wait
+ * for each other. Bids that reach a lot but are outbid, which in a busy
+ * auction are most of them, are not counted at all as they are made.
+ * Every lot already counts the bids made for it, so the bids outbid are
+ * worked out when read, as the bids the lots counted less those
+ * accepted; this takes time in proportion to the number of lots. Bids
+ * placed in batches and by proxies are included. When the auction
+ * closes the lots' total is kept, so bids on lots carried over to a
+ * later auction are not counted in this one.
+ *
+ * The times are kept in LatencyHistograms, which need no lock either.
+ * Closing the auction is always timed. Bids and lookups are only timed
+ * once setTimingEnabled is called, since reading the clock takes longer
+ * than a whole bid for a lot that is in the cache; even then only one
+ * in SAMPLE_RATE is timed. Lookups are chosen at random. Bids are
+ * chosen by the lot's bid count, offset by the lot number so that lots
+ * with few bids are timed too. Only bids that reach a lot are timed.
+ *
+ * The metrics can be read through JMX once registered, or printed as
+ * text or JSON, now or every so often.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class AuctionMetrics implements AuctionMetricsMBean
+{
+    /** One bid or lookup in this many is timed. */
+    public static final int SAMPLE_RATE = 64;
+    // Picks out one value in SAMPLE_RATE.
+    private static final int SAMPLE_MASK = SAMPLE_RATE - 1;
+    // An odd number that spreads the lot numbers over the samples.
+    private static final int SAMPLE_SPREAD = 0x9E3779B9;
+    // Stands for the start time of an operation that is not being timed.
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+    // Stands for the lots' bid count before the auction has closed.
+    private static final long NOT_CLOSED = -1;
+
+    // The auction's lots, to count them and their bids.
+    private final LotIndex lots;
+    // The bids accepted, however they were made.
+    private final LongAdder accepted;
+    // The bids rejected before they reached a lot, for each reason.
+    private final LongAdder[] rejected;
+    // The bids the lots had counted when the auction closed, or
+    // NOT_CLOSED if it has not closed.
+    private volatile long closedBids = NOT_CLOSED;
+    // The bids the lots had counted when reset was last called.
+    private volatile long resetBids;
+    // The lookups that found nothing.
+    private final LongAdder lookupMisses;
+    // The lots entered, removed and closed at their deadlines.
+    private final LongAdder entered;
+    private final LongAdder removed;
+    private final LongAdder closedAtDeadline;
+    // How long sampled bids and lookups took, and closing the auction.
+    private final LatencyHistogram bidTime;
+    private final LatencyHistogram lookupTime;
+    private final LatencyHistogram closeTime;
+    // The lots settled when the auction closed, and how many sold.
+    private volatile int settled;
+    private volatile int sold;
+    // True if bids and lookups are being timed.
+    private volatile boolean timing;
+    // Prints the metrics every so often, or null if nothing does.
+    private ScheduledExecutorService reporter;
+
+    /**
+     * Create metrics with every count at zero.
+     * @param lots The lots of the auction being measured.
+     */
+    public AuctionMetrics(LotIndex lots)
+    {
+        this.lots = lots;
+        this.accepted = new LongAdder();
+        this.rejected = new LongAdder[BidRejection.values().length];
+        for(int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+        this.lookupMisses = new LongAdder();
+        this.entered = new LongAdder();
+        this.removed = new LongAdder();
+        this.closedAtDeadline = new LongAdder();
+        this.bidTime = new LatencyHistogram();
+        this.lookupTime = new LatencyHistogram();
+        this.closeTime = new LatencyHistogram();
+    }
+
+    /**
+     * Start a bid that has reached a lot, deciding whether to time it.
+     * @param lot The lot, before the bid is counted.
+     * @return The time the bid started, by System.nanoTime, if it is
+     *         being timed, or NOT_TIMED.
+     */
+    long startBid(Lot lot)
+    {
+        if(!timing) {
+            return NOT_TIMED;
+        }
+        int turn = lot.getBidCount() + lot.getNumber() * SAMPLE_SPREAD;
+        return ((turn & SAMPLE_MASK) == 0) ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Start a lookup, deciding whether to time it.
+     * @return The time it started, by System.nanoTime, if it is being
+     *         timed, or NOT_TIMED.
+     */
+    long startLookup()
+    {
+        if(!timing) {
+            return NOT_TIMED;
+        }
+        return ((ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) == 0) ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Note that a bid has been placed on a lot, which counts it,
+     * whether or not it was accepted.
+     * @param start What startBid returned.
+     */
+    void bidPlaced(long start)
+    {
+        if(start != NOT_TIMED) {
+            bidTime.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Count bids accepted.
+     * @param count The number of bids.
+     */
+    void bidsAccepted(int count)
+    {
+        accepted.add(count);
+    }
+
+    /**
+     * Count a bid that was rejected before it was counted by a lot.
+     * @param reason Why it was rejected; not OUTBID.
+     */
+    void bidRejected(BidRejection reason)
+    {
+        rejected[reason.ordinal()].increment();
+    }
+
+    /**
+     * Count bids that were all rejected for the same reason before they
+     * were counted by a lot.
+     * @param reason Why they were rejected; not OUTBID.
+     * @param count The number of bids.
+     */
+    void bidsRejected(BidRejection reason, int count)
+    {
+        rejected[reason.ordinal()].add(count);
+    }
+
+    /**
+     * Note a lookup.
+     * @param found True if it found a lot.
+     * @param start What startLookup returned.
+     */
+    void lookedUp(boolean found, long start)
+    {
+        if(!found) {
+            lookupMisses.increment();
+        }
+        if(start != NOT_TIMED) {
+            lookupTime.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Count a lot entered.
+     */
+    void lotEntered()
+    {
+        entered.increment();
+    }
+
+    /**
+     * Count a lot removed.
+     */
+    void lotRemoved()
+    {
+        removed.increment();
+    }
+
+    /**
+     * Count a lot closed at its deadline.
+     */
+    void lotClosed()
+    {
+        closedAtDeadline.increment();
+    }
+
+    /**
+     * Note that the auction has closed.
+     * @param nanos How long closing it took, in nanoseconds.
+     * @param settlement The outcome of the auction.
+     */
+    void auctionClosed(long nanos, Settlement settlement)
+    {
+        closedBids = countLotBids();
+        closeTime.record(nanos);
+        settled = settlement.getLotCount();
+        sold = settlement.getSoldCount();
+    }
+
+    /**
+     * @return True if bids and lookups are being timed.
+     */
+    public boolean isTimingEnabled()
+    {
+        return timing;
+    }
+
+    /**
+     * Start or stop timing bids and lookups. One in SAMPLE_RATE is
+     * timed while timing is on.
+     * @param enabled True to time them.
+     */
+    public void setTimingEnabled(boolean enabled)
+    {
+        timing = enabled;
+    }
+
+    /**
+     * @return The number of bids the lots have counted since the
+     *         metrics were last reset.
+     */
+    private long getLotBids()
+    {
+        long bids = closedBids;
+        if(bids == NOT_CLOSED) {
+            bids = countLotBids();
+        }
+        return bids - resetBids;
+    }
+
+    /**
+     * @return The number of bids the lots have counted, added up over
+     *         the lots.
+     */
+    private long countLotBids()
+    {
+        long bids = 0;
+        for(Lot lot : lots) {
+            bids += lot.getBidCount();
+        }
+        return bids;
+    }
+
+    /**
+     * @param reason A reason for rejecting a bid.
+     * @return The number of bids rejected for that reason.
+     */
+    public long getRejected(BidRejection reason)
+    {
+        if(reason == BidRejection.OUTBID) {
+            // A lot counts a bid before it can be accepted, so reading
+            // the bids accepted first never gives fewer than none outbid.
+            long acceptedBids = accepted.sum();
+            return getLotBids() - acceptedBids;
+        }
+        return rejected[reason.ordinal()].sum();
+    }
+
+    /**
+     * @return The number of bids accepted for the lots, however they
+     *         were made.
+     */
+    public long getBidsAccepted()
+    {
+        return accepted.sum();
+    }
+
+    /**
+     * @return The number of bids not accepted: those bidFor turned away,
+     *         and those that were not high enough.
+     */
+    public long getBidsRejected()
+    {
+        long total = getRejectedOutbid();
+        for(LongAdder count : rejected) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    /**
+     * @return The number of bids rejected because the auction had closed.
+     */
+    public long getRejectedAuctionClosed()
+    {
+        return getRejected(BidRejection.AUCTION_CLOSED);
+    }
+
+    /**
+     * @return The number of bids rejected because there was no such lot.
+     */
+    public long getRejectedUnknownLot()
+    {
+        return getRejected(BidRejection.UNKNOWN_LOT);
+    }
+
+    /**
+     * @return The number of bids rejected because no bidder was given.
+     */
+    public long getRejectedNullBidder()
+    {
+        return getRejected(BidRejection.NULL_BIDDER);
+    }
+
+    /**
+     * @return The number of bids rejected because their value was not positive.
+     */
+    public long getRejectedNotPositive()
+    {
+        return getRejected(BidRejection.NOT_POSITIVE);
+    }
+
+    /**
+     * @return The number of bids rejected because the lot had closed.
+     */
+    public long getRejectedLotClosed()
+    {
+        return getRejected(BidRejection.LOT_CLOSED);
+    }
+
+    /**
+     * @return The number of bids rejected because they were not high enough.
+     */
+    public long getRejectedOutbid()
+    {
+        return getRejected(BidRejection.OUTBID);
+    }
+
+    /**
+     * @return The number of lookups through getLot that found no lot.
+     */
+    public long getLookupMisses()
+    {
+        return lookupMisses.sum();
+    }
+
+    /**
+     * @return The number of lots in the auction now.
+     */
+    public int getLotCount()
+    {
+        return lots.size();
+    }
+
+    /**
+     * @return The number of lots entered.
+     */
+    public long getLotsEntered()
+    {
+        return entered.sum();
+    }
+
+    /**
+     * @return The number of lots removed.
+     */
+    public long getLotsRemoved()
+    {
+        return removed.sum();
+    }
+
+    /**
+     * @return The number of lots closed at their deadlines.
+     */
+    public long getLotsClosedAtDeadline()
+    {
+        return closedAtDeadline.sum();
+    }
+
+    /**
+     * @return The number of lots settled when the auction closed, or 0
+     *         if it has not closed.
+     */
+    public int getLotsSettled()
+    {
+        return settled;
+    }
+
+    /**
+     * @return The number of those lots that sold.
+     */
+    public int getLotsSold()
+    {
+        return sold;
+    }
+
+    /**
+     * @return The median time a sampled bid took, in nanoseconds.
+     */
+    public long getBidMedianNanos()
+    {
+        return bidTime.getPercentile(50);
+    }
+
+    /**
+     * @return The 99th percentile of the time a sampled bid took, in nanoseconds.
+     */
+    public long getBid99thPercentileNanos()
+    {
+        return bidTime.getPercentile(99);
+    }
+
+    /**
+     * @return The median time a sampled lookup took, in nanoseconds.
+     */
+    public long getLookupMedianNanos()
+    {
+        return lookupTime.getPercentile(50);
+    }
+
+    /**
+     * @return The 99th percentile of the time a sampled lookup took, in nanoseconds.
+     */
+    public long getLookup99thPercentileNanos()
+    {
+        return lookupTime.getPercentile(99);
+    }
+
+    /**
+     * @return The longest time closing the auction took, in nanoseconds.
+     */
+    public long getCloseNanos()
+    {
+        return closeTime.getMax();
+    }
+
+    /**
+     * @return The histogram of how long sampled bids took, in nanoseconds.
+     */
+    public LatencyHistogram getBidTime()
+    {
+        return bidTime;
+    }
+
+    /**
+     * @return The histogram of how long sampled lookups took, in nanoseconds.
+     */
+    public LatencyHistogram getLookupTime()
+    {
+        return lookupTime;
+    }
+
+    /**
+     * @return The histogram of how long closing the auction took, in nanoseconds.
+     */
+    public LatencyHistogram getCloseTime()
+    {
+        return closeTime;
+    }
+
+    /**
+     * @return Every metric by name, in the order they are printed.
+     */
+    public Map<String, Long> getValues()
+    {
+        LinkedHashMap<String, Long> values = new LinkedHashMap<String, Long>();
+        // The lots are only added up once.
+        long acceptedBids = accepted.sum();
+        long outbid = getLotBids() - acceptedBids;
+        long rejectedEarly = 0;
+        for(LongAdder count : rejected) {
+            rejectedEarly += count.sum();
+        }
+        values.put("bidsAccepted", acceptedBids);
+        values.put("bidsRejected", rejectedEarly + outbid);
+        values.put("rejectedAuctionClosed", getRejectedAuctionClosed());
+        values.put("rejectedUnknownLot", getRejectedUnknownLot());
+        values.put("rejectedNullBidder", getRejectedNullBidder());
+        values.put("rejectedNotPositive", getRejectedNotPositive());
+        values.put("rejectedLotClosed", getRejectedLotClosed());
+        values.put("rejectedOutbid", outbid);
+        values.put("lookupMisses", getLookupMisses());
+        values.put("lotCount", (long) getLotCount());
+        values.put("lotsEntered", getLotsEntered());
+        values.put("lotsRemoved", getLotsRemoved());
+        values.put("lotsClosedAtDeadline", getLotsClosedAtDeadline());
+        values.put("lotsSettled", (long) getLotsSettled());
+        values.put("lotsSold", (long) getLotsSold());
+        putLatency(values, "bid", bidTime);
+        putLatency(values, "lookup", lookupTime);
+        putLatency(values, "close", closeTime);
+        return values;
+    }
+
+    /**
+     * @param values The metrics to add to.
+     * @param name The name of the operation.
+     * @param latency How long it took.
+     */
+    private static void putLatency(Map<String, Long> values, String name, LatencyHistogram latency)
+    {
+        values.put(name + "Samples", latency.getCount());
+        values.put(name + "P50Nanos", latency.getPercentile(50));
+        values.put(name + "P99Nanos", latency.getPercentile(99));
+        values.put(name + "P999Nanos", latency.getPercentile(99.9));
+        values.put(name + "MaxNanos", latency.getMax());
+    }
+
+    /**
+     * @return Every metric, one per line.
+     */
+    public String toText()
+    {
+        StringBuilder text = new StringBuilder();
+        for(Map.Entry<String, Long> value : getValues().entrySet()) {
+            text.append(value.getKey()).append(' ').append(value.getValue()).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return Every metric, as a JSON object.
+     */
+    public String toJson()
+    {
+        StringBuilder json = new StringBuilder("{");
+        for(Map.Entry<String, Long> value : getValues().entrySet()) {
+            if(json.length() > 1) {
+                json.append(", ");
+            }
+            json.append('"').append(value.getKey()).append("\": ").append(value.getValue());
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Set every counter and histogram back to zero.
+     */
+    public void reset()
+    {
+        long bids = closedBids;
+        resetBids = (bids != NOT_CLOSED) ? bids : countLotBids();
+        accepted.reset();
+        for(LongAdder count : rejected) {
+            count.reset();
+        }
+        lookupMisses.reset();
+        entered.reset();
+        removed.reset();
+        closedAtDeadline.reset();
+        bidTime.reset();
+        lookupTime.reset();
+        closeTime.reset();
+        settled = 0;
+        sold = 0;
+    }
+
+    /**
+     * Register the metrics with the platform MBean server, so JMX
+     * clients such as jconsole can read them.
+     * @param name The name to show them under, such as the auction's name.
+     * @return The name they were registered with.
+     * @throws JMException If they could not be registered, for example
+     *                     because the name is in use.
+     */
+    public ObjectName register(String name) throws JMException
+    {
+        ObjectName objectName = new ObjectName("Auction:type=AuctionMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Print the metrics every so often on a background thread, until
+     * stopReporting is called. Any earlier reporting is stopped.
+     * @param out Where to print.
+     * @param periodMillis How often to print, in milliseconds.
+     * @param json True to print JSON, one object per line, or false
+     *             to print text.
+     */
+    public synchronized void startReporting(final PrintStream out, long periodMillis, final boolean json)
+    {
+        stopReporting();
+        reporter = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+        {
+            public Thread newThread(Runnable task)
+            {
+                Thread thread = new Thread(task, "auction-metrics");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        reporter.scheduleAtFixedRate(new Runnable()
+        {
+            public void run()
+            {
+                out.println(json ? toJson() : toText());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop printing the metrics.
+     */
+    public synchronized void stopReporting()
+    {
+        if(reporter != null) {
+            reporter.shutdown();
+            reporter = null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * The metrics of an auction, as JMX shows them. See AuctionMetrics.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public interface AuctionMetricsMBean
+{
+    /**
+     * @return The number of bids accepted for the lots, however they
+     *         were made.
+     */
+    long getBidsAccepted();
+
+    /**
+     * @return The number of bids not accepted: those bidFor turned away,
+     *         and those that were not high enough.
+     */
+    long getBidsRejected();
+
+    /**
+     * @return The number of bids rejected because the auction had closed.
+     */
+    long getRejectedAuctionClosed();
+
+    /**
+     * @return The number of bids rejected because there was no such lot.
+     */
+    long getRejectedUnknownLot();
+
+    /**
+     * @return The number of bids rejected because no bidder was given.
+     */
+    long getRejectedNullBidder();
+
+    /**
+     * @return The number of bids rejected because their value was not positive.
+     */
+    long getRejectedNotPositive();
+
+    /**
+     * @return The number of bids rejected because the lot had closed.
+     */
+    long getRejectedLotClosed();
+
+    /**
+     * @return The number of bids rejected because they were not high enough.
+     */
+    long getRejectedOutbid();
+
+    /**
+     * @return The number of lookups through getLot that found no lot.
+     */
+    long getLookupMisses();
+
+    /**
+     * @return The number of lots in the auction now.
+     */
+    int getLotCount();
+
+    /**
+     * @return The number of lots entered.
+     */
+    long getLotsEntered();
+
+    /**
+     * @return The number of lots removed.
+     */
+    long getLotsRemoved();
+
+    /**
+     * @return The number of lots closed at their deadlines.
+     */
+    long getLotsClosedAtDeadline();
+
+    /**
+     * @return The number of lots settled when the auction closed, or 0
+     *         if it has not closed.
+     */
+    int getLotsSettled();
+
+    /**
+     * @return The number of those lots that sold.
+     */
+    int getLotsSold();
+
+    /**
+     * @return True if bids and lookups are being timed.
+     */
+    boolean isTimingEnabled();
+
+    /**
+     * Start or stop timing bids and lookups.
+     * @param enabled True to time them.
+     */
+    void setTimingEnabled(boolean enabled);
+
+    /**
+     * @return The median time a sampled bid took, in nanoseconds.
+     */
+    long getBidMedianNanos();
+
+    /**
+     * @return The 99th percentile of the time a sampled bid took, in nanoseconds.
+     */
+    long getBid99thPercentileNanos();
+
+    /**
+     * @return The median time a sampled lookup took, in nanoseconds.
+     */
+    long getLookupMedianNanos();
+
+    /**
+     * @return The 99th percentile of the time a sampled lookup took, in nanoseconds.
+     */
+    long getLookup99thPercentileNanos();
+
+    /**
+     * @return The longest time closing the auction took, in nanoseconds.
+     */
+    long getCloseNanos();
+
+    /**
+     * @return Every metric, one per line.
+     */
+    String toText();
+
+    /**
+     * @return Every metric, as a JSON object.
+     */
+    String toJson();
+
+    /**
+     * Set every counter and histogram back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,375 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A front end that lets many threads use one Auction while only one
+ * thread ever touches it. Producer threads publish commands (bid,
+ * enter a lot, remove a lot, close) into a ring buffer of commands
+ * that are made once and reused; a single writer thread takes them
+ * out in order and applies them to the auction. The result of each
+ * command is handed to a callback, on the writer thread. A command
+ * that throws is handed to the callback's failed method instead, and
+ * the writer goes on to the next command.
+ *
+ * Because only the writer changes the auction, its locks and
+ * compare-and-set loops are never contended and its lots stay in the
+ * writer's cache. Producers only contend for the next sequence number,
+ * which is handed out by a compare-and-set. Closing the pipeline takes
+ * the last sequence number and marks the pipeline closed in the same
+ * compare-and-set, so no command can be submitted after the one that
+ * stops the writer.
+ *
+ * Each slot of the ring holds the sequence number of the command last
+ * published into it. A producer takes a sequence number, waits until
+ * the writer has finished with the command that used the slot one lap
+ * earlier, fills in the slot, and then publishes it by storing its
+ * sequence number. The writer applies commands in sequence order,
+ * waiting for each to be published. Neither side takes a lock.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class AuctionPipeline implements AutoCloseable
+{
+    /**
+     * Receives the result of a command, on the writer thread. It
+     * should return quickly, since the next command waits for it.
+     */
+    public interface Callback
+    {
+        /**
+         * @param tag The tag given when the command was submitted.
+         * @param result The result the Auction method returned.
+         */
+        void completed(long tag, boolean result);
+
+        /**
+         * @param tag The tag given when the command was submitted.
+         * @param exception What the Auction method threw.
+         */
+        void failed(long tag, RuntimeException exception);
+    }
+
+    // The kinds of command.
+    private static final int BID = 0;
+    private static final int ENTER = 1;
+    private static final int REMOVE = 2;
+    private static final int CLOSE = 3;
+    // Published to tell the writer to stop.
+    private static final int STOP = 4;
+    // The number of times a waiting thread spins before it yields.
+    private static final int SPINS = 100;
+    // Set in nextSequence once the pipeline is closed.
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    /**
+     * One slot of the ring. Its fields are written by one producer and
+     * then read by the writer, with the slot's sequence number in
+     * between, so they need not be volatile.
+     */
+    private static class Command
+    {
+        private int kind;
+        private int lotNumber;
+        private Person bidder;
+        private long value;
+        private String description;
+        private long tag;
+        private Callback callback;
+    }
+
+    // The auction the commands are applied to.
+    private final Auction auction;
+    // The commands, made once. Sequence number s uses slot s & mask.
+    private final Command[] ring;
+    private final int mask;
+    // The sequence number of the command last published in each slot,
+    // or -1 if none has been.
+    private final AtomicLongArray published;
+    // The next sequence number to be handed to a producer, with the
+    // CLOSED bit set once the pipeline is closed.
+    private final AtomicLong nextSequence;
+    // The sequence number of the last command the writer has finished.
+    private final AtomicLong finished;
+    // The thread that applies the commands.
+    private final Thread writer;
+
+    /**
+     * Create a pipeline and start its writer thread. From now on the
+     * auction should only be used through the pipeline.
+     * @param auction The auction to apply commands to.
+     * @param capacity The most commands that can wait in the ring.
+     *                 It is rounded up to a power of two.
+     */
+    public AuctionPipeline(Auction auction, int capacity)
+    {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.auction = auction;
+        this.ring = new Command[size];
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for(int slot = 0; slot < size; slot++) {
+            ring[slot] = new Command();
+            published.set(slot, -1);
+        }
+        this.nextSequence = new AtomicLong(0);
+        this.finished = new AtomicLong(-1);
+        this.writer = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                applyCommands();
+            }
+        }, "auction-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Submit a bid, as Auction.bidFor.
+     * @param lotNumber The lot number being bid for.
+     * @param bidder The person bidding for the lot.
+     * @param value The value of the bid.
+     * @param tag A number handed back to the callback, such as a
+     *            request id or the time the bid arrived.
+     * @param callback Receives the result, or null if it is not wanted.
+     */
+    public void submitBid(int lotNumber, Person bidder, long value, long tag, Callback callback)
+    {
+        long sequence = claim();
+        Command command = ring[(int) sequence & mask];
+        command.kind = BID;
+        command.lotNumber = lotNumber;
+        command.bidder = bidder;
+        command.value = value;
+        command.tag = tag;
+        command.callback = callback;
+        publish(sequence);
+    }
+
+    /**
+     * Submit a new lot, as Auction.enterLot.
+     * @param description A description of the lot.
+     * @param tag A number handed back to the callback.
+     * @param callback Receives the result, or null if it is not wanted.
+     */
+    public void submitEnterLot(String description, long tag, Callback callback)
+    {
+        long sequence = claim();
+        Command command = ring[(int) sequence & mask];
+        command.kind = ENTER;
+        command.description = description;
+        command.tag = tag;
+        command.callback = callback;
+        publish(sequence);
+    }
+
+    /**
+     * Submit the removal of a lot, as Auction.removeLot.
+     * @param lotNumber The number of the lot to be removed.
+     * @param tag A number handed back to the callback.
+     * @param callback Receives the result, or null if it is not wanted.
+     */
+    public void submitRemoveLot(int lotNumber, long tag, Callback callback)
+    {
+        long sequence = claim();
+        Command command = ring[(int) sequence & mask];
+        command.kind = REMOVE;
+        command.lotNumber = lotNumber;
+        command.tag = tag;
+        command.callback = callback;
+        publish(sequence);
+    }
+
+    /**
+     * Submit the closing of the auction, as Auction.close.
+     * @param tag A number handed back to the callback.
+     * @param callback Receives the result, or null if it is not wanted.
+     */
+    public void submitClose(long tag, Callback callback)
+    {
+        long sequence = claim();
+        Command command = ring[(int) sequence & mask];
+        command.kind = CLOSE;
+        command.tag = tag;
+        command.callback = callback;
+        publish(sequence);
+    }
+
+    /**
+     * Apply every command submitted so far and stop the writer thread.
+     * Submitting a command after this throws IllegalStateException.
+     * Closing again does nothing. If the calling thread is interrupted
+     * it stops waiting for the writer, and is left interrupted.
+     */
+    public void close()
+    {
+        long sequence = claim(true);
+        if(sequence < 0) {
+            return;
+        }
+        ring[(int) sequence & mask].kind = STOP;
+        publish(sequence);
+        try {
+            writer.join();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Take the next sequence number, waiting until its slot is free.
+     * @return The sequence number.
+     * @throws IllegalStateException If the pipeline is closed.
+     */
+    private long claim()
+    {
+        long sequence = claim(false);
+        if(sequence < 0) {
+            throw new IllegalStateException("The auction pipeline is closed");
+        }
+        return sequence;
+    }
+
+    /**
+     * Take the next sequence number, unless the pipeline is closed,
+     * and wait until its slot is free.
+     * @param last True to take the last sequence number there will be,
+     *             closing the pipeline.
+     * @return The sequence number, or -1 if the pipeline is closed.
+     */
+    private long claim(boolean last)
+    {
+        long sequence;
+        do {
+            sequence = nextSequence.get();
+            if((sequence & CLOSED) != 0) {
+                return -1;
+            }
+        } while(!nextSequence.compareAndSet(sequence, last ? ((sequence + 1) | CLOSED) : (sequence + 1)));
+        long wrapPoint = sequence - ring.length;
+        int spins = 0;
+        while(finished.get() < wrapPoint) {
+            spins = backOff(spins);
+        }
+        return sequence;
+    }
+
+    /**
+     * Make a filled-in command visible to the writer.
+     * @param sequence The command's sequence number.
+     */
+    private void publish(long sequence)
+    {
+        published.set((int) sequence & mask, sequence);
+        LockSupport.unpark(writer);
+    }
+
+    /**
+     * Apply commands in sequence order until told to stop.
+     */
+    private void applyCommands()
+    {
+        long sequence = 0;
+        while(true) {
+            int slot = (int) sequence & mask;
+            int spins = 0;
+            while(published.get(slot) != sequence) {
+                if(spins < SPINS) {
+                    spins++;
+                    Thread.onSpinWait();
+                }
+                else {
+                    LockSupport.parkNanos(this, 50000);
+                }
+            }
+            Command command = ring[slot];
+            if(command.kind == STOP) {
+                finished.set(sequence);
+                return;
+            }
+            boolean result = false;
+            RuntimeException failure = null;
+            try {
+                result = apply(command);
+            }
+            catch(RuntimeException e) {
+                failure = e;
+            }
+            Callback callback = command.callback;
+            long tag = command.tag;
+            // Let the people and descriptions be collected.
+            command.bidder = null;
+            command.description = null;
+            command.callback = null;
+            if(callback != null) {
+                report(callback, tag, result, failure);
+            }
+            else if(failure != null) {
+                writer.getUncaughtExceptionHandler().uncaughtException(writer, failure);
+            }
+            finished.lazySet(sequence);
+            sequence++;
+        }
+    }
+
+    /**
+     * Hand the outcome of a command to its callback. If the callback
+     * throws, the exception is passed to the writer thread's uncaught
+     * exception handler, which prints it by default.
+     * @param callback The callback.
+     * @param tag The command's tag.
+     * @param result The command's result, if it did not throw.
+     * @param failure What the command threw, or null.
+     */
+    private void report(Callback callback, long tag, boolean result, RuntimeException failure)
+    {
+        try {
+            if(failure != null) {
+                callback.failed(tag, failure);
+            }
+            else {
+                callback.completed(tag, result);
+            }
+        }
+        catch(RuntimeException e) {
+            writer.getUncaughtExceptionHandler().uncaughtException(writer, e);
+        }
+    }
+
+    /**
+     * @param command A command.
+     * @return The result of applying it to the auction.
+     */
+    private boolean apply(Command command)
+    {
+        switch(command.kind) {
+            case BID:
+                return auction.bidFor(command.lotNumber, command.bidder, command.value);
+            case ENTER:
+                return auction.enterLot(command.description);
+            case REMOVE:
+                return auction.removeLot(command.lotNumber);
+            default:
+                return auction.close();
+        }
+    }
+
+    /**
+     * Wait a little, spinning at first and then giving up the processor.
+     * @param spins The number of times this thread has waited so far.
+     * @return The new number of times.
+     */
+    private static int backOff(int spins)
+    {
+        if(spins < SPINS) {
+            Thread.onSpinWait();
+        }
+        else {
+            Thread.yield();
+        }
+        return spins + 1;
+    }
+}
@@ -0,0 +1,474 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * A point-in-time snapshot of an auction, stored in a memory-mapped
+ * file. Starting from a snapshot and replaying only the part of the
+ * journal written after it is much faster than replaying the whole
+ * journal.
+ *
+ * The file is laid out in columns, so that one field of every lot can
+ * be read without touching the others:
+ *     header       magic, version, next lot number, open flag, lot count,
+ *                  bidder count, journal position, proxy count,
+ *                  sealed bid count
+ *     numbers      int per lot
+ *     values       long per lot, the highest bid or 0 if there is none
+ *     bidders      int per lot, the high bidder's id or -1
+ *     deadlines    long per lot, the lot's deadline or 0
+ *     descriptions int per lot, where its description ends in the text
+ *     names        int per bidder id, where its name ends in the text,
+ *                  complemented (~end) if the bidder has no name
+ *     closed       byte per lot, 1 if the lot has closed at its deadline
+ *     pricing      byte per lot, its LotPricing ordinal
+ *     text         the UTF-8 descriptions, then the UTF-8 bidder names
+ *     proxies      lot number (int), bidder id (int) and maximum (long)
+ *                  per proxy bid, each lot's best first
+ *     sealed bids  lot number (int), bidder id (int) and value (long)
+ *                  per sealed bid, in the order they were made
+ *
+ * A lot with sealed bids has its winner worked out again from them,
+ * so the values and bidders columns are not used for it.
+ *
+ * Bidder ids are those of the auction's BidderRegistry, and the
+ * rebuilt auction gives every bidder the same id again, so that the
+ * journal written after the snapshot can still be replayed.
+ *
+ * Opening a snapshot maps the file and reads nothing else; the
+ * accessors read straight from the mapped file. toAuction builds a
+ * full Auction when one is needed.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class AuctionSnapshotFile
+{
+    // Identifies a snapshot file.
+    private static final int MAGIC = 0x41555331;
+    // The version of the file format.
+    private static final int VERSION = 5;
+    // The size of the header, in bytes.
+    private static final int HEADER_SIZE = 40;
+
+    // The mapped file.
+    private final ByteBuffer file;
+    // The number of lots and bidders in the snapshot.
+    private final int lotCount;
+    private final int bidderCount;
+    private final int proxyCount;
+    private final int sealedCount;
+    // Where each column starts.
+    private final int numbersStart;
+    private final int valuesStart;
+    private final int biddersStart;
+    private final int deadlinesStart;
+    private final int descriptionsStart;
+    private final int namesStart;
+    private final int closedStart;
+    private final int pricingStart;
+    private final int textStart;
+    private final int nameTextStart;
+    private final int proxiesStart;
+    private final int sealedStart;
+
+    /**
+     * Wrap a mapped snapshot file.
+     * @param file The mapped file.
+     */
+    private AuctionSnapshotFile(ByteBuffer file) throws IOException
+    {
+        if((file.capacity() < HEADER_SIZE) || (file.getInt(0) != MAGIC)) {
+            throw new IOException("Not an auction snapshot");
+        }
+        if(file.getInt(4) != VERSION) {
+            throw new IOException("Auction snapshot version " + file.getInt(4) + " is not supported");
+        }
+        this.file = file;
+        lotCount = file.getInt(16);
+        bidderCount = file.getInt(20);
+        proxyCount = file.getInt(32);
+        sealedCount = file.getInt(36);
+        numbersStart = HEADER_SIZE;
+        valuesStart = numbersStart + 4 * lotCount;
+        biddersStart = valuesStart + 8 * lotCount;
+        deadlinesStart = biddersStart + 4 * lotCount;
+        descriptionsStart = deadlinesStart + 8 * lotCount;
+        namesStart = descriptionsStart + 4 * lotCount;
+        closedStart = namesStart + 4 * bidderCount;
+        pricingStart = closedStart + lotCount;
+        textStart = pricingStart + lotCount;
+        nameTextStart = textStart + ((lotCount == 0) ? 0 : file.getInt(descriptionsStart + 4 * (lotCount - 1)));
+        proxiesStart = nameTextStart + ((bidderCount == 0) ? 0 : nameEnd(bidderCount - 1));
+        sealedStart = proxiesStart + 16 * proxyCount;
+    }
+
+    /**
+     * Write a snapshot of an auction. The auction should not change
+     * while this runs; if it might, the auction's journal position is
+     * taken first, so that replaying the journal from there covers
+     * anything the snapshot missed.
+     *
+     * The snapshot is written to a file beside the target, which is
+     * forced to disk with its magic number written last, then renamed
+     * over the target in one step. If the program stops part way, the
+     * previous snapshot is left as it was.
+     * @param auction The auction to save.
+     * @param path The file to write. Any existing file is replaced.
+     * @param journalPosition The position in the auction's journal that
+     *                        the snapshot is up to date with, or 0.
+     */
+    public static void write(Auction auction, Path path, long journalPosition) throws IOException
+    {
+        ArrayList<Lot> lots = new ArrayList<Lot>();
+        Iterator<Lot> it = auction.lotIterator();
+        while(it.hasNext()) {
+            lots.add(it.next());
+        }
+        // Each lot's highest bid is read once, so every column agrees.
+        Bid[] bids = new Bid[lots.size()];
+        int[] descriptionEnds = new int[lots.size()];
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        for(int i = 0; i < lots.size(); i++) {
+            text.write(lots.get(i).getDescription().getBytes(StandardCharsets.UTF_8));
+            descriptionEnds[i] = text.size();
+            bids[i] = lots.get(i).getHighestBid();
+        }
+        BidderRegistry registry = auction.getBidderRegistry();
+        int[] bidderIds = new int[lots.size()];
+        for(int i = 0; i < lots.size(); i++) {
+            bidderIds[i] = (bids[i] != null) ? registry.idOf(bids[i].getBidder()) : -1;
+        }
+        ArrayList<ProxyBook.Proxy> proxies = new ArrayList<ProxyBook.Proxy>();
+        ArrayList<Integer> proxyLots = new ArrayList<Integer>();
+        for(Lot lot : lots) {
+            ProxyBook book = lot.getProxyBook();
+            if(book != null) {
+                for(ProxyBook.Proxy proxy : book.getProxies()) {
+                    proxies.add(proxy);
+                    proxyLots.add(lot.getNumber());
+                }
+            }
+        }
+        int[] proxyBidders = new int[proxies.size()];
+        for(int i = 0; i < proxies.size(); i++) {
+            proxyBidders[i] = registry.idOf(proxies.get(i).getBidder());
+        }
+        // Sealed bids are only ever added, so the first sealedSizes[i]
+        // of them stay the same while they are written.
+        int[] sealedSizes = new int[lots.size()];
+        int sealedCount = 0;
+        for(int i = 0; i < lots.size(); i++) {
+            SealedBids sealed = lots.get(i).getSealedBids();
+            if(sealed != null) {
+                sealedSizes[i] = sealed.size();
+                sealedCount += sealedSizes[i];
+                for(int b = 0; b < sealedSizes[i]; b++) {
+                    registry.idOf(sealed.getBidder(b));
+                }
+            }
+        }
+        // Read after the bids, so every bidder they name is included.
+        int[] nameEnds = new int[registry.size()];
+        ByteArrayOutputStream names = new ByteArrayOutputStream();
+        for(int id = 0; id < nameEnds.length; id++) {
+            String name = registry.getPerson(id).getName();
+            if(name != null) {
+                names.write(name.getBytes(StandardCharsets.UTF_8));
+            }
+            nameEnds[id] = (name != null) ? names.size() : ~names.size();
+        }
+
+        long size = HEADER_SIZE + 30L * lots.size() + 4L * nameEnds.length + text.size() + names.size()
+                    + 16L * proxies.size() + 16L * sealedCount;
+        if(size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot of " + size + " bytes is too large to map");
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        boolean written = false;
+        try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                   StandardOpenOption.WRITE,
+                                                   StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            // The magic number is written once everything else is on disk.
+            out.putInt(0).putInt(VERSION).putInt(auction.getNextLotNumber())
+               .putInt(auction.isOpen() ? 1 : 0).putInt(lots.size()).putInt(nameEnds.length)
+               .putLong(journalPosition).putInt(proxies.size()).putInt(sealedCount);
+            for(Lot lot : lots) {
+                out.putInt(lot.getNumber());
+            }
+            for(Bid bid : bids) {
+                out.putLong((bid != null) ? bid.getValue() : 0);
+            }
+            for(int id : bidderIds) {
+                out.putInt(id);
+            }
+            for(Lot lot : lots) {
+                out.putLong(lot.getDeadline());
+            }
+            for(int end : descriptionEnds) {
+                out.putInt(end);
+            }
+            for(int end : nameEnds) {
+                out.putInt(end);
+            }
+            for(Lot lot : lots) {
+                out.put(lot.isClosed() ? (byte) 1 : (byte) 0);
+            }
+            for(Lot lot : lots) {
+                out.put((byte) lot.getPricing().ordinal());
+            }
+            out.put(text.toByteArray());
+            out.put(names.toByteArray());
+            for(int i = 0; i < proxies.size(); i++) {
+                out.putInt(proxyLots.get(i)).putInt(proxyBidders[i]).putLong(proxies.get(i).getMaximum());
+            }
+            for(int i = 0; i < lots.size(); i++) {
+                SealedBids sealed = lots.get(i).getSealedBids();
+                for(int b = 0; b < sealedSizes[i]; b++) {
+                    out.putInt(lots.get(i).getNumber()).putInt(registry.idOf(sealed.getBidder(b)))
+                       .putLong(sealed.getValue(b));
+                }
+            }
+            out.force();
+            out.putInt(0, MAGIC);
+            out.force();
+            written = true;
+        }
+        finally {
+            if(!written) {
+                Files.deleteIfExists(temporary);
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Open a snapshot by mapping its file. Nothing is read until the
+     * accessors are used.
+     * @param path The snapshot file.
+     * @return The snapshot.
+     */
+    public static AuctionSnapshotFile open(Path path) throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new AuctionSnapshotFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Rebuild an auction from a snapshot and the part of its journal
+     * written after the snapshot was taken.
+     * @param snapshot The snapshot file.
+     * @param journal The journal file, or null if there is none.
+     * @return The auction as it was when the last journal record was written.
+     */
+    public static Auction recover(Path snapshot, Path journal) throws IOException
+    {
+        AuctionSnapshotFile file = open(snapshot);
+        Auction auction = file.toAuction();
+        if(journal != null) {
+            AuctionJournal.replay(journal, file.getJournalPosition(), auction);
+        }
+        return auction;
+    }
+
+    /**
+     * @return The number that the auction would give its next lot.
+     */
+    public int getNextLotNumber()
+    {
+        return file.getInt(8);
+    }
+
+    /**
+     * @return True if the auction was open.
+     */
+    public boolean isOpen()
+    {
+        return file.getInt(12) != 0;
+    }
+
+    /**
+     * @return The number of lots in the snapshot.
+     */
+    public int getLotCount()
+    {
+        return lotCount;
+    }
+
+    /**
+     * @return The journal position the snapshot is up to date with.
+     */
+    public long getJournalPosition()
+    {
+        return file.getLong(24);
+    }
+
+    /**
+     * @param index The position of a lot in the snapshot, from 0.
+     * @return The lot's number.
+     */
+    public int getLotNumber(int index)
+    {
+        return file.getInt(numbersStart + 4 * index);
+    }
+
+    /**
+     * @param index The position of a lot in the snapshot, from 0.
+     * @return The value of the lot's highest bid, or 0 if it had none.
+     */
+    public long getHighestValue(int index)
+    {
+        return file.getLong(valuesStart + 8 * index);
+    }
+
+    /**
+     * @param index The position of a lot in the snapshot, from 0.
+     * @return The name of the lot's high bidder, or null if it had no bid.
+     */
+    public String getBidderName(int index)
+    {
+        int bidder = file.getInt(biddersStart + 4 * index);
+        if(bidder < 0) {
+            return null;
+        }
+        return getBidderNameById(bidder);
+    }
+
+    /**
+     * @param id A bidder id, from 0 to the number of bidders - 1.
+     * @return The name of the bidder with that id, or null if it has none.
+     */
+    private String getBidderNameById(int id)
+    {
+        if(file.getInt(namesStart + 4 * id) < 0) {
+            return null;
+        }
+        int start = (id == 0) ? 0 : nameEnd(id - 1);
+        return readString(nameTextStart + start, nameEnd(id) - start);
+    }
+
+    /**
+     * @param id A bidder id, from 0 to the number of bidders - 1.
+     * @return Where the bidder's name ends in the text.
+     */
+    private int nameEnd(int id)
+    {
+        int end = file.getInt(namesStart + 4 * id);
+        return (end < 0) ? ~end : end;
+    }
+
+    /**
+     * @param index The position of a lot in the snapshot, from 0.
+     * @return The lot's deadline, in milliseconds since 1970, or 0 if it had none.
+     */
+    public long getDeadline(int index)
+    {
+        return file.getLong(deadlinesStart + 8 * index);
+    }
+
+    /**
+     * @param index The position of a lot in the snapshot, from 0.
+     * @return True if the lot had closed at its deadline.
+     */
+    public boolean isLotClosed(int index)
+    {
+        return file.get(closedStart + index) != 0;
+    }
+
+    /**
+     * @param index The position of a lot in the snapshot, from 0.
+     * @return How the lot's winner and price were decided.
+     */
+    public LotPricing getPricing(int index)
+    {
+        return LotPricing.values()[file.get(pricingStart + index)];
+    }
+
+    /**
+     * @param index The position of a lot in the snapshot, from 0.
+     * @return The lot's description.
+     */
+    public String getDescription(int index)
+    {
+        int start = (index == 0) ? 0 : file.getInt(descriptionsStart + 4 * (index - 1));
+        int end = file.getInt(descriptionsStart + 4 * index);
+        return readString(textStart + start, end - start);
+    }
+
+    /**
+     * Build an auction holding the lots and bids of this snapshot.
+     * Each bidder is one Person, with the same id as before. The auction
+     * prints to the console, like a new one.
+     * @return The auction.
+     */
+    public Auction toAuction()
+    {
+        Auction auction = new Auction();
+        auction.setListener(null);
+        auction.setRestoring(true);
+        BidderRegistry registry = auction.getBidderRegistry();
+        // Registered in id order, so each bidder gets its old id back.
+        for(int id = 0; id < bidderCount; id++) {
+            registry.idOf(new Person(getBidderNameById(id)));
+        }
+        for(int i = 0; i < lotCount; i++) {
+            int number = getLotNumber(i);
+            auction.enterLot(number, getDescription(i));
+            int bidder = file.getInt(biddersStart + 4 * i);
+            if(getPricing(i) != LotPricing.ASCENDING) {
+                auction.setLotPricing(number, getPricing(i));
+            }
+            else if(bidder >= 0) {
+                auction.bidFor(number, registry.getPerson(bidder), getHighestValue(i));
+            }
+            if(getDeadline(i) != 0) {
+                auction.setLotDeadline(number, getDeadline(i));
+            }
+        }
+        for(int i = 0; i < sealedCount; i++) {
+            int at = sealedStart + 16 * i;
+            auction.bidFor(file.getInt(at), registry.getPerson(file.getInt(at + 4)), file.getLong(at + 8));
+        }
+        // In the order written, so that ties still go to the same proxy.
+        for(int i = 0; i < proxyCount; i++) {
+            int at = proxiesStart + 16 * i;
+            auction.proxyBidFor(file.getInt(at), registry.getPerson(file.getInt(at + 4)), file.getLong(at + 8));
+        }
+        // Closed last, so that sealed lots are won as they were before.
+        for(int i = 0; i < lotCount; i++) {
+            if(isLotClosed(i)) {
+                auction.closeLot(getLotNumber(i));
+            }
+        }
+        auction.setNextLotNumber(getNextLotNumber());
+        if(!isOpen()) {
+            auction.close();
+        }
+        auction.setRestoring(false);
+        auction.setListener(new ConsoleAuctionListener());
+        return auction;
+    }
+
+    /**
+     * @param position Where the string starts in the file.
+     * @param length The length of the string, in bytes.
+     * @return The UTF-8 string at that position.
+     */
+    private String readString(int position, int length)
+    {
+        byte[] bytes = new byte[length];
+        file.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
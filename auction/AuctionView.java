@@ -0,0 +1,118 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * An immutable view of an auction's lots, as published by
+ * Auction.publishView. Any number of threads may read a view without
+ * locking while the auction goes on taking bids; the view does not
+ * change, and a newer one can be published alongside it.
+ *
+ * Views are numbered in the order they were published, from 1.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class AuctionView implements Iterable<LotView>
+{
+    // Which view this is, counting from 1.
+    private final long version;
+    // Every lot, and the lots with no bids.
+    private final PersistentLotMap lots;
+    private final PersistentLotMap unsold;
+    // True if the auction was open.
+    private final boolean open;
+
+    /**
+     * Create a view.
+     * @param version Which view this is, counting from 1.
+     * @param lots Every lot.
+     * @param unsold The lots with no bids.
+     * @param open True if the auction was open.
+     */
+    AuctionView(long version, PersistentLotMap lots, PersistentLotMap unsold, boolean open)
+    {
+        this.version = version;
+        this.lots = lots;
+        this.unsold = unsold;
+        this.open = open;
+    }
+
+    /**
+     * @return Which view this is, counting from 1. A later view has a
+     *         higher number.
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * @return True if the auction was open.
+     */
+    public boolean isOpen()
+    {
+        return open;
+    }
+
+    /**
+     * @return The number of lots.
+     */
+    public int getLotCount()
+    {
+        return lots.size();
+    }
+
+    /**
+     * @param lotNumber The number of a lot.
+     * @return The lot with that number, or null if there was none.
+     */
+    public LotView getLot(int lotNumber)
+    {
+        return lots.get(lotNumber);
+    }
+
+    /**
+     * @return The number of lots with no bids.
+     */
+    public int getNoBidsCount()
+    {
+        return unsold.size();
+    }
+
+    /**
+     * @return The lots that had no bids, in lot number order. Only
+     *         those lots are looked at.
+     */
+    public ArrayList<LotView> getNoBids()
+    {
+        ArrayList<LotView> noBids = new ArrayList<LotView>(unsold.size());
+        for(LotView lot : unsold) {
+            noBids.add(lot);
+        }
+        return noBids;
+    }
+
+    /**
+     * @return Every lot, for the next view to be made from.
+     */
+    PersistentLotMap lots()
+    {
+        return lots;
+    }
+
+    /**
+     * @return The lots with no bids, for the next view to be made from.
+     */
+    PersistentLotMap unsold()
+    {
+        return unsold;
+    }
+
+    /**
+     * @return An iterator over the lots, in lot number order.
+     */
+    public Iterator<LotView> iterator()
+    {
+        return lots.iterator();
+    }
+}
@@ -0,0 +1,172 @@
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Compares placing bids one at a time with bidFor against placing them
+ * in batches with bidForBatch, for several batch sizes, with uniform
+ * and Zipf-distributed lot popularity. Filling the batch is counted as
+ * part of the work, as a gateway would have to do it.
+ *
+ * Run it from the command line, optionally giving the JSON file to
+ * write and the batch sizes to try:
+ *     java BatchBenchmark results.json 100 1000 10000
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class BatchBenchmark
+{
+    // The batch sizes tried when none are given.
+    private static final int[] DEFAULT_SIZES = { 10, 100, 1000, 10000 };
+    // The number of lots in the auction.
+    private static final int LOTS = 100000;
+    // The number of bids placed in one iteration.
+    private static final int OPERATIONS = 1000000;
+    // The number of different bidders.
+    private static final int BIDDERS = 1000;
+    // The skew used for Zipf-distributed lot popularity.
+    private static final double ZIPF_EXPONENT = 1.0;
+    // The file results are written to when none is given.
+    private static final String DEFAULT_RESULTS = "batch-benchmark.json";
+
+    /**
+     * Run the benchmarks.
+     * @param args The JSON file to write, followed by the batch sizes
+     *             to try. The defaults are used for anything left out.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String results = (args.length > 0) ? args[0] : DEFAULT_RESULTS;
+        int[] sizes = DEFAULT_SIZES;
+        if(args.length > 1) {
+            sizes = new int[args.length - 1];
+            for(int i = 1; i < args.length; i++) {
+                sizes[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        Person[] bidders = new Person[BIDDERS];
+        for(int i = 0; i < bidders.length; i++) {
+            bidders[i] = new Person("Bidder " + i);
+        }
+        int[] uniform = uniformLots();
+        int[] zipf = zipfLots();
+
+        BenchmarkHarness harness = new BenchmarkHarness(2, 5);
+        harness.measure("single.uniform", 1, single(uniform, bidders));
+        harness.measure("single.zipf", 1, single(zipf, bidders));
+        for(int size : sizes) {
+            harness.measure("batch.uniform", size, batched(uniform, bidders, size));
+            harness.measure("batch.zipf", size, batched(zipf, bidders, size));
+        }
+        harness.writeJson(results);
+        System.out.println("Results written to " + results);
+    }
+
+    /**
+     * @return An open auction with LOTS lots, which does not report its
+     *         events anywhere.
+     */
+    private static Auction filledAuction()
+    {
+        Auction auction = new Auction();
+        auction.setListener(new NullAuctionListener());
+        for(int i = 0; i < LOTS; i++) {
+            auction.enterLot("Lot " + i);
+        }
+        return auction;
+    }
+
+    /**
+     * @return Lot numbers to use, each equally likely.
+     */
+    private static int[] uniformLots()
+    {
+        Random random = new Random(42);
+        int[] lots = new int[OPERATIONS];
+        for(int i = 0; i < lots.length; i++) {
+            lots[i] = random.nextInt(LOTS) + 1;
+        }
+        return lots;
+    }
+
+    /**
+     * @return Lot numbers to use, with Zipf-distributed popularity.
+     */
+    private static int[] zipfLots()
+    {
+        Random random = new Random(42);
+        ZipfDistribution zipf = new ZipfDistribution(LOTS, ZIPF_EXPONENT);
+        int[] lots = new int[OPERATIONS];
+        for(int i = 0; i < lots.length; i++) {
+            lots[i] = zipf.next(random);
+        }
+        return lots;
+    }
+
+    /**
+     * @param lots The lots to bid for, in order.
+     * @param bidders The bidders, taken in turn.
+     * @return A trial that bids rising values with bidFor.
+     */
+    private static BenchmarkHarness.Trial single(final int[] lots, final Person[] bidders)
+    {
+        return new BenchmarkHarness.Trial()
+        {
+            private Auction auction;
+            private long value;
+
+            public void setUp()
+            {
+                auction = filledAuction();
+                value = 1;
+            }
+
+            public long run()
+            {
+                for(int i = 0; i < lots.length; i++) {
+                    auction.bidFor(lots[i], bidders[i % bidders.length], value++);
+                }
+                return lots.length;
+            }
+        };
+    }
+
+    /**
+     * @param lots The lots to bid for, in order.
+     * @param bidders The bidders, taken in turn.
+     * @param size The number of bids in each batch.
+     * @return A trial that bids rising values with bidForBatch.
+     */
+    private static BenchmarkHarness.Trial batched(final int[] lots, final Person[] bidders, final int size)
+    {
+        return new BenchmarkHarness.Trial()
+        {
+            private Auction auction;
+            private final BidBatch batch = new BidBatch(size);
+            private long value;
+            // Keeps the results from being optimised away.
+            private long sink;
+
+            public void setUp()
+            {
+                auction = filledAuction();
+                value = 1;
+            }
+
+            public long run()
+            {
+                for(int i = 0; i < lots.length; i++) {
+                    batch.add(lots[i], bidders[i % bidders.length], value++);
+                    if(batch.size() == size) {
+                        sink += auction.bidForBatch(batch).cardinality();
+                        batch.clear();
+                    }
+                }
+                sink += auction.bidForBatch(batch).cardinality();
+                batch.clear();
+                return lots.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,229 @@
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A listener that hands events to another listener on a background
+ * thread, in batches. The thread making a bid only puts a small event
+ * on a queue; all formatting and printing is done by the background
+ * thread, which flushes the other listener once per batch.
+ *
+ * Events are delivered in the order they were queued. If the queue is
+ * full, the thread reporting an event waits for room, so no event is
+ * dropped while the listener is open. Call close to deliver the
+ * remaining events and stop the background thread; events reported
+ * after that are dropped, and a thread waiting for room gives up.
+ *
+ * If the other listener throws an exception, it is passed to the
+ * background thread's uncaught exception handler, which prints it by
+ * default, and delivery carries on with the next event.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class BatchingAuctionListener implements AuctionListener, AutoCloseable
+{
+    // How long a thread waiting for room in the queue waits before
+    // checking whether the listener has been closed, in milliseconds.
+    private static final long CLOSED_CHECK_MILLIS = 100;
+    // The kinds of event that can be queued.
+    private static final int ACCEPTED = 0;
+    private static final int REJECTED = 1;
+    private static final int CLOSED = 2;
+    // Queued to tell the background thread to stop.
+    private static final int STOP = 3;
+
+    /**
+     * One queued event.
+     */
+    private static class Event
+    {
+        private final int kind;
+        private final Lot lot;
+        private final Bid bid;
+        private final Bid otherBid;
+
+        private Event(int kind, Lot lot, Bid bid, Bid otherBid)
+        {
+            this.kind = kind;
+            this.lot = lot;
+            this.bid = bid;
+            this.otherBid = otherBid;
+        }
+    }
+
+    // The listener that events are delivered to.
+    private final AuctionListener delegate;
+    // Events waiting to be delivered.
+    private final BlockingQueue<Event> queue;
+    // The most events delivered in one batch.
+    private final int batchSize;
+    // The thread that delivers the events.
+    private final Thread worker;
+    // True once close has been called.
+    private volatile boolean closed;
+
+    /**
+     * Create a listener and start its background thread.
+     * @param delegate The listener to deliver events to.
+     * @param capacity The most events that can wait in the queue.
+     * @param batchSize The most events delivered before flushing.
+     */
+    public BatchingAuctionListener(AuctionListener delegate, int capacity, int batchSize)
+    {
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<Event>(capacity);
+        this.batchSize = batchSize;
+        this.worker = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                deliver();
+            }
+        }, "auction-events");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Queue an accepted bid.
+     * @param lot The lot that was bid for.
+     * @param bid The accepted bid.
+     */
+    public void bidAccepted(Lot lot, Bid bid)
+    {
+        enqueue(new Event(ACCEPTED, lot, bid, null));
+    }
+
+    /**
+     * Queue a rejected bid.
+     * @param lot The lot that was bid for.
+     * @param bid The rejected bid.
+     * @param highestBid The bid that beat it.
+     */
+    public void bidRejected(Lot lot, Bid bid, Bid highestBid)
+    {
+        enqueue(new Event(REJECTED, lot, bid, highestBid));
+    }
+
+    /**
+     * Queue a closed lot.
+     * @param lot The lot that was closed.
+     * @param winningBid The bid that won the lot, or null.
+     */
+    public void lotClosed(Lot lot, Bid winningBid)
+    {
+        enqueue(new Event(CLOSED, lot, winningBid, null));
+    }
+
+    /**
+     * Deliver every event queued so far and stop the background thread.
+     * Events reported after this are dropped. Closing again does nothing.
+     * If the calling thread is interrupted it stops waiting for the
+     * events to be delivered, and is left interrupted.
+     */
+    public synchronized void close()
+    {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(new Event(STOP, null, null, null));
+            worker.join();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Put an event on the queue, waiting for room if necessary, unless
+     * the listener has been closed.
+     * @param event The event to queue.
+     */
+    private void enqueue(Event event)
+    {
+        try {
+            while(!closed) {
+                if(queue.offer(event, CLOSED_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Deliver events in batches until told to stop.
+     */
+    private void deliver()
+    {
+        ArrayList<Event> batch = new ArrayList<Event>(batchSize);
+        boolean stopping = false;
+        while(!stopping) {
+            try {
+                batch.add(queue.take());
+            }
+            catch(InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            for(Event event : batch) {
+                if(event.kind == STOP) {
+                    stopping = true;
+                }
+                else {
+                    deliver(event);
+                }
+            }
+            batch.clear();
+            flushDelegate();
+        }
+    }
+
+    /**
+     * Deliver one event to the delegate. If the delegate throws, the
+     * exception is reported and the event is dropped.
+     * @param event The event to deliver.
+     */
+    private void deliver(Event event)
+    {
+        try {
+            switch(event.kind) {
+                case ACCEPTED:
+                    delegate.bidAccepted(event.lot, event.bid);
+                    break;
+                case REJECTED:
+                    delegate.bidRejected(event.lot, event.bid, event.otherBid);
+                    break;
+                default:
+                    delegate.lotClosed(event.lot, event.bid);
+                    break;
+            }
+        }
+        catch(RuntimeException e) {
+            worker.getUncaughtExceptionHandler().uncaughtException(worker, e);
+        }
+    }
+
+    /**
+     * Flush the delegate, if it can be flushed.
+     */
+    private void flushDelegate()
+    {
+        if(delegate instanceof Flushable) {
+            try {
+                ((Flushable) delegate).flush();
+            }
+            catch(IOException e) {
+                // The delegate reports its own errors; keep delivering.
+            }
+        }
+    }
+}
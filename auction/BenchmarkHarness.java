@@ -0,0 +1,143 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * A small benchmark runner. Each benchmark is run for a number of
+ * warm-up iterations, which are thrown away, and then for a number of
+ * measured iterations. A summary line is printed for every benchmark,
+ * and all results can be written out as JSON so that runs from
+ * different releases can be compared by a script.
+ *
+ * Console output is switched off while a benchmark runs, so that
+ * printing done by the auction itself does not distort the timing.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class BenchmarkHarness
+{
+    /**
+     * One benchmark. setUp is called before every iteration and is not
+     * timed; run is timed and returns the number of operations it did.
+     */
+    public interface Trial
+    {
+        /**
+         * Prepare for one iteration.
+         */
+        void setUp();
+
+        /**
+         * Do the work being measured.
+         * @return The number of operations done.
+         */
+        long run();
+    }
+
+    /**
+     * The measurements of one benchmark.
+     */
+    private static class Result
+    {
+        // The name of the benchmark.
+        private final String name;
+        // The value of its parameter, such as a catalog size.
+        private final long param;
+        // The time per operation of each measured iteration, in nanoseconds.
+        private final double[] nanosPerOp;
+
+        private Result(String name, long param, double[] nanosPerOp)
+        {
+            this.name = name;
+            this.param = param;
+            this.nanosPerOp = nanosPerOp;
+        }
+
+        private double mean()
+        {
+            double total = 0;
+            for(double score : nanosPerOp) {
+                total += score;
+            }
+            return total / nanosPerOp.length;
+        }
+    }
+
+    // The number of iterations run before measuring.
+    private final int warmups;
+    // The number of iterations measured.
+    private final int iterations;
+    // The results so far, in the order the benchmarks were run.
+    private final ArrayList<Result> results;
+
+    /**
+     * Create a harness.
+     * @param warmups The number of iterations run before measuring.
+     * @param iterations The number of iterations measured.
+     */
+    public BenchmarkHarness(int warmups, int iterations)
+    {
+        this.warmups = warmups;
+        this.iterations = iterations;
+        this.results = new ArrayList<Result>();
+    }
+
+    /**
+     * Run one benchmark and print a summary line.
+     * @param name The name of the benchmark.
+     * @param param The value of its parameter, such as a catalog size.
+     * @param trial The work to measure.
+     * @return The mean time per operation, in nanoseconds.
+     */
+    public double measure(String name, long param, Trial trial)
+    {
+        double[] scores = new double[iterations];
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for(int i = 0; i < warmups + iterations; i++) {
+                trial.setUp();
+                long start = System.nanoTime();
+                long operations = trial.run();
+                long elapsed = System.nanoTime() - start;
+                if(i >= warmups) {
+                    scores[i - warmups] = elapsed / (double) Math.max(1, operations);
+                }
+            }
+        }
+        finally {
+            System.setOut(console);
+        }
+        Result result = new Result(name, param, scores);
+        results.add(result);
+        System.out.printf(Locale.ROOT, "%-24s %,12d %14.1f ns/op %,16.0f ops/s%n",
+                          name, param, result.mean(), 1e9 / result.mean());
+        return result.mean();
+    }
+
+    /**
+     * Write every result so far as a JSON array.
+     * @param file The name of the file to write.
+     */
+    public void writeJson(String file) throws IOException
+    {
+        try(PrintWriter out = new PrintWriter(file, "UTF-8")) {
+            out.println("[");
+            for(int i = 0; i < results.size(); i++) {
+                Result result = results.get(i);
+                out.print("  {\"benchmark\": \"" + result.name + "\", \"param\": " + result.param);
+                out.printf(Locale.ROOT, ", \"mode\": \"avgt\", \"unit\": \"ns/op\", \"score\": %.3f", result.mean());
+                out.print(", \"iterations\": [");
+                for(int j = 0; j < result.nanosPerOp.length; j++) {
+                    out.printf(Locale.ROOT, "%s%.3f", (j == 0) ? "" : ", ", result.nanosPerOp[j]);
+                }
+                out.println("]}" + ((i < results.size() - 1) ? "," : ""));
+            }
+            out.println("]");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of bids, to be placed all at once with
+ * Auction.bidForBatch. Each bid is a lot number, a bidder and a value,
+ * held in parallel arrays; no Bid object is made until a bid is placed.
+ * Clearing the batch keeps its arrays, so a gateway can fill and place
+ * the same batch over and over without creating garbage.
+ *
+ * A batch is meant to be used by one thread at a time.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class BidBatch
+{
+    // The first number of bids there is room for.
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // The lot, bidder and value of each bid, in the order they were added.
+    private int[] lots;
+    private Person[] bidders;
+    private long[] values;
+    // The number of bids in the batch.
+    private int size;
+    // Working space for sorting the bids by lot.
+    private long[] keys;
+
+    /**
+     * Create an empty batch.
+     */
+    public BidBatch()
+    {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create an empty batch with room for a number of bids. It grows
+     * if more are added.
+     * @param capacity The number of bids there is room for.
+     */
+    public BidBatch(int capacity)
+    {
+        capacity = Math.max(capacity, 1);
+        lots = new int[capacity];
+        bidders = new Person[capacity];
+        values = new long[capacity];
+        keys = new long[capacity];
+        size = 0;
+    }
+
+    /**
+     * Add a bid to the batch.
+     * @param lotNumber The lot number being bid for.
+     * @param bidder The person bidding for the lot.
+     * @param value The value of the bid.
+     */
+    public void add(int lotNumber, Person bidder, long value)
+    {
+        if(size == lots.length) {
+            int capacity = lots.length * 2;
+            lots = Arrays.copyOf(lots, capacity);
+            bidders = Arrays.copyOf(bidders, capacity);
+            values = Arrays.copyOf(values, capacity);
+            keys = new long[capacity];
+        }
+        lots[size] = lotNumber;
+        bidders[size] = bidder;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Remove every bid from the batch, keeping the space they used.
+     */
+    public void clear()
+    {
+        // Let the bidders be collected.
+        Arrays.fill(bidders, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * @return The number of bids in the batch.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @param index The position of a bid in the batch, from 0.
+     * @return The lot number the bid is for.
+     */
+    public int getLotNumber(int index)
+    {
+        return lots[index];
+    }
+
+    /**
+     * @param index The position of a bid in the batch, from 0.
+     * @return The person making the bid.
+     */
+    public Person getBidder(int index)
+    {
+        return bidders[index];
+    }
+
+    /**
+     * @param index The position of a bid in the batch, from 0.
+     * @return The value of the bid.
+     */
+    public long getValue(int index)
+    {
+        return values[index];
+    }
+
+    /**
+     * Sort the positions of the bids by lot number, keeping the bids
+     * for each lot in the order they were added. Each entry of the
+     * result is a lot number in the high 32 bits and a position in the
+     * low 32 bits. The array is reused by the next call.
+     * @return The sorted keys. Only the first size() entries are used.
+     */
+    long[] sortByLot()
+    {
+        for(int i = 0; i < size; i++) {
+            keys[i] = ((long) lots[i] << 32) | i;
+        }
+        Arrays.sort(keys, 0, size);
+        return keys;
+    }
+}
@@ -0,0 +1,276 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The history of the bids made for one lot, accepted or not, in the
+ * order they were recorded.
+ *
+ * The most recent bids are kept in a ring buffer of primitive arrays:
+ * for each bid, the bidder's id in a BidderRegistry, its value, the
+ * time it was made and whether it was accepted. No Bid object is kept,
+ * so a long history costs 21 bytes a bid. When the buffer is full the
+ * oldest bid is either forgotten or, if a spill file was given,
+ * appended to that file first, so that nothing is lost. Spilled bids
+ * are written a batch at a time, and the spill file is only open while
+ * a batch is written or the history is read, so however many lots
+ * spill, none of them holds a file open in between.
+ *
+ * forEach visits the history without creating a Bid for each entry.
+ * A history may be recorded into from several threads at once; it is
+ * locked while in use.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class BidHistory implements AutoCloseable
+{
+    /**
+     * Receives the entries of a bid history, one call per bid.
+     */
+    public interface Visitor
+    {
+        /**
+         * @param bidderId The bidder's id in the auction's BidderRegistry.
+         * @param value The value of the bid.
+         * @param time When the bid was made, in milliseconds since 1970.
+         * @param accepted Whether the bid was accepted.
+         */
+        void bid(int bidderId, long value, long time, boolean accepted);
+    }
+
+    // The size of one entry in the spill file, in bytes.
+    private static final int ENTRY_SIZE = 21;
+    // The number of entries written to the spill file at a time.
+    private static final int SPILL_BATCH = 256;
+
+    // Gives each bidder the id stored in the bidders column.
+    private final BidderRegistry registry;
+    // The most recent entries, in columns. Entry i is at slot i % depth.
+    private final int[] bidders;
+    private final long[] values;
+    private final long[] times;
+    private final boolean[] accepted;
+    // The number of entries ever recorded.
+    private long total;
+    // The file older entries are moved to, or null to forget them.
+    private final Path spillFile;
+    // Entries waiting to be written to the spill file.
+    private final ByteBuffer spillBuffer;
+    // The number of entries moved out of the ring buffer.
+    private long spilled;
+
+    /**
+     * Create a history that forgets all but the most recent bids.
+     * @param registry The registry that gives each bidder an id.
+     * @param depth The number of bids to keep.
+     */
+    public BidHistory(BidderRegistry registry, int depth)
+    {
+        this.registry = registry;
+        if(depth < 1) {
+            throw new IllegalArgumentException("A bid history must hold at least one bid, not " + depth);
+        }
+        bidders = new int[depth];
+        values = new long[depth];
+        times = new long[depth];
+        accepted = new boolean[depth];
+        total = 0;
+        spillFile = null;
+        spillBuffer = null;
+        spilled = 0;
+    }
+
+    /**
+     * Create a history that keeps the most recent bids in memory and
+     * older ones in a file. Any existing file is replaced.
+     * @param registry The registry that gives each bidder an id.
+     * @param depth The number of bids to keep in memory.
+     * @param spillFile The file to move older bids to.
+     */
+    public BidHistory(BidderRegistry registry, int depth, Path spillFile) throws IOException
+    {
+        this.registry = registry;
+        if(depth < 1) {
+            throw new IllegalArgumentException("A bid history must hold at least one bid, not " + depth);
+        }
+        bidders = new int[depth];
+        values = new long[depth];
+        times = new long[depth];
+        accepted = new boolean[depth];
+        total = 0;
+        this.spillFile = spillFile;
+        // Created when the first bid spills.
+        Files.deleteIfExists(spillFile);
+        spillBuffer = ByteBuffer.allocate(ENTRY_SIZE * SPILL_BATCH);
+        spilled = 0;
+    }
+
+    /**
+     * Record a bid, moving the oldest entry out if the buffer is full.
+     * @param bid The bid.
+     * @param wasAccepted Whether the bid was accepted.
+     */
+    public void record(Bid bid, boolean wasAccepted)
+    {
+        record(registry.idOf(bid.getBidder()), bid.getValue(), wasAccepted);
+    }
+
+    /**
+     * Record a bid, moving the oldest entry out if the buffer is full.
+     * @param bidderId The bidder's id in the auction's BidderRegistry.
+     * @param value The value of the bid.
+     * @param wasAccepted Whether the bid was accepted.
+     */
+    public synchronized void record(int bidderId, long value, boolean wasAccepted)
+    {
+        int depth = values.length;
+        int slot = (int) (total % depth);
+        if(total >= depth) {
+            if(spillFile != null) {
+                spillEntry(slot);
+            }
+            spilled++;
+        }
+        bidders[slot] = bidderId;
+        values[slot] = value;
+        times[slot] = System.currentTimeMillis();
+        accepted[slot] = wasAccepted;
+        total++;
+    }
+
+    /**
+     * Visit every bid in the history, oldest first: those in the spill
+     * file, if there is one, then those in memory. The visitor must not
+     * bid for the lot.
+     * @param visitor Receives each bid.
+     */
+    public synchronized void forEach(Visitor visitor)
+    {
+        if(spillFile != null) {
+            visitSpilled(visitor);
+        }
+        visitRecent(visitor);
+    }
+
+    /**
+     * Visit the bids held in memory, oldest first.
+     * @param visitor Receives each bid.
+     */
+    public synchronized void visitRecent(Visitor visitor)
+    {
+        int depth = values.length;
+        for(long i = spilled; i < total; i++) {
+            int slot = (int) (i % depth);
+            visitor.bid(bidders[slot], values[slot], times[slot], accepted[slot]);
+        }
+    }
+
+    /**
+     * @return The number of bids recorded.
+     */
+    public synchronized long getTotal()
+    {
+        return total;
+    }
+
+    /**
+     * @return The number of bids held in memory.
+     */
+    public synchronized int size()
+    {
+        return (int) (total - spilled);
+    }
+
+    /**
+     * @return The number of bids moved out of memory, to the spill
+     *         file or forgotten.
+     */
+    public synchronized long getSpilled()
+    {
+        return spilled;
+    }
+
+    /**
+     * Write any bids waiting to be spilled. The whole history can still
+     * be visited, and more bids can still be recorded.
+     */
+    public synchronized void close() throws IOException
+    {
+        if(spillFile != null) {
+            flushSpill();
+        }
+    }
+
+    /**
+     * Add an entry to the spill buffer, writing the buffer if it is full.
+     * @param slot The slot of the entry in the ring buffer.
+     */
+    private void spillEntry(int slot)
+    {
+        if(!spillBuffer.hasRemaining()) {
+            flushSpill();
+        }
+        spillBuffer.putInt(bidders[slot]).putLong(values[slot]).putLong(times[slot])
+                   .put(accepted[slot] ? (byte) 1 : (byte) 0);
+    }
+
+    /**
+     * Write the spill buffer to the end of the spill file, opening the
+     * file for only as long as that takes.
+     */
+    private void flushSpill()
+    {
+        if(spillBuffer.position() == 0) {
+            return;
+        }
+        try(FileChannel spill = FileChannel.open(spillFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                 StandardOpenOption.APPEND)) {
+            spillBuffer.flip();
+            while(spillBuffer.hasRemaining()) {
+                spill.write(spillBuffer);
+            }
+            spillBuffer.clear();
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException("Could not write the bid history", e);
+        }
+    }
+
+    /**
+     * Visit the bids in the spill file, oldest first.
+     * @param visitor Receives each bid.
+     */
+    private void visitSpilled(Visitor visitor)
+    {
+        flushSpill();
+        if(!Files.exists(spillFile)) {
+            // Nothing has spilled yet.
+            return;
+        }
+        try(FileChannel channel = FileChannel.open(spillFile, StandardOpenOption.READ)) {
+            ByteBuffer in = ByteBuffer.allocate(ENTRY_SIZE * SPILL_BATCH);
+            long position = 0;
+            long size = channel.size();
+            while(position < size) {
+                in.clear();
+                in.limit((int) Math.min(in.capacity(), size - position));
+                while(in.hasRemaining()) {
+                    channel.read(in, position + in.position());
+                }
+                in.flip();
+                while(in.hasRemaining()) {
+                    visitor.bid(in.getInt(), in.getLong(), in.getLong(), in.get() != 0);
+                }
+                position += in.limit();
+            }
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException("Could not read the bid history", e);
+        }
+    }
+}
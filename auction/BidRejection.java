@@ -0,0 +1,24 @@
+/**
+ * Why a bid made through Auction.bidFor or bidForBatch was not accepted.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public enum BidRejection
+{
+    /** The auction had closed. */
+    AUCTION_CLOSED,
+    /** There was no lot with the number given. */
+    UNKNOWN_LOT,
+    /** No bidder was given. */
+    NULL_BIDDER,
+    /** The value of the bid was zero or less. */
+    NOT_POSITIVE,
+    /** The lot had closed, or its deadline had passed. */
+    LOT_CLOSED,
+    /**
+     * The bid reached the lot but was not higher than its highest bid,
+     * or the lot closed just as the bid was placed.
+     */
+    OUTBID
+}
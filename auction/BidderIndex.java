@@ -0,0 +1,189 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * An index of the lots each bidder is currently winning, and of each
+ * bidder's exposure: the total value of the bids they are winning
+ * with, which is what they will owe if the auction closed now.
+ *
+ * The auction tells the index about a lot whenever a bid for it is
+ * accepted. The index then compares the lot's highest bid with the
+ * bid it last credited for that lot and, if they differ, moves the
+ * lot from the old winner to the new one. Because it always looks at
+ * the lot's current highest bid, updates from concurrent bidders may
+ * arrive in any order and the index still ends up right.
+ *
+ * The credited bid, and where the lot is in its winner's list, are
+ * kept in the Lot itself, so an update is a few array operations and
+ * creates no objects. A lot is taken out of a list by moving the
+ * list's last lot into its place. Each query takes time proportional
+ * to the size of its answer, never to the number of lots in the
+ * auction.
+ *
+ * There is no lock on the whole index. Updates for one lot take turns
+ * on the lot's lock, and each bidder's entry has a lock of its own, so
+ * updates for different lots only wait for each other when they move
+ * lots to or from the same bidder. The lot's lock is always taken
+ * before an entry's, and at most one entry is locked at a time.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class BidderIndex
+{
+    /**
+     * The lots one bidder is winning and the bidder's exposure. Locked
+     * while in use.
+     */
+    private static final class Entry
+    {
+        // The lots the bidder is winning.
+        private final ArrayList<Lot> lots = new ArrayList<Lot>();
+        // The total value of the bidder's winning bids.
+        private long exposure;
+    }
+
+    // Gives each bidder the id used to find their entry.
+    private final BidderRegistry registry;
+    // Each bidder's entry, by bidder id, or null until needed. Replaced,
+    // not changed, when it grows.
+    private volatile Entry[] entries;
+
+    /**
+     * Create an empty index.
+     * @param registry The registry that gives each bidder an id.
+     */
+    public BidderIndex(BidderRegistry registry)
+    {
+        this.registry = registry;
+        this.entries = new Entry[16];
+    }
+
+    /**
+     * Bring the index up to date with a lot's highest bid. Called after
+     * a bid for the lot has been accepted.
+     * @param lot The lot.
+     */
+    public void update(Lot lot)
+    {
+        synchronized(lot) {
+            Bid current = lot.getHighestBid();
+            Bid previous = lot.getCredited();
+            if((current == previous) || (current == null)) {
+                return;
+            }
+            int winner = registry.idOf(current.getBidder());
+            if(previous != null) {
+                int loser = lot.getWinnerId();
+                Entry entry = entryFor(loser);
+                synchronized(entry) {
+                    entry.exposure -= previous.getValue();
+                    if(loser == winner) {
+                        // The winner raised their own bid; the lot stays where it is.
+                        entry.exposure += current.getValue();
+                        lot.setCredited(current, loser, lot.getWinnerSlot());
+                        return;
+                    }
+                    removeLot(entry, lot);
+                }
+            }
+            Entry entry = entryFor(winner);
+            synchronized(entry) {
+                entry.lots.add(lot);
+                entry.exposure += current.getValue();
+                lot.setCredited(current, winner, entry.lots.size() - 1);
+            }
+        }
+    }
+
+    /**
+     * @param bidder A bidder.
+     * @return The lots the bidder currently has the highest bid for,
+     *         in no particular order.
+     */
+    public ArrayList<Lot> getWinningLots(Person bidder)
+    {
+        Entry entry = find(bidder);
+        if(entry == null) {
+            return new ArrayList<Lot>();
+        }
+        synchronized(entry) {
+            return new ArrayList<Lot>(entry.lots);
+        }
+    }
+
+    /**
+     * @param bidder A bidder.
+     * @return The total value of the bids the bidder is winning with.
+     */
+    public long getExposure(Person bidder)
+    {
+        Entry entry = find(bidder);
+        if(entry == null) {
+            return 0;
+        }
+        synchronized(entry) {
+            return entry.exposure;
+        }
+    }
+
+    /**
+     * Take a lot out of a bidder's list by moving the last lot in the
+     * list into its place. The entry must be locked.
+     * @param entry The bidder's entry.
+     * @param lot A lot the bidder was winning.
+     */
+    private static void removeLot(Entry entry, Lot lot)
+    {
+        ArrayList<Lot> lots = entry.lots;
+        Lot last = lots.remove(lots.size() - 1);
+        if(last != lot) {
+            int slot = lot.getWinnerSlot();
+            lots.set(slot, last);
+            last.setWinnerSlot(slot);
+        }
+    }
+
+    /**
+     * @param bidder A bidder, or null.
+     * @return The bidder's entry, or null if the bidder has none.
+     */
+    private Entry find(Person bidder)
+    {
+        int id = (bidder != null) ? registry.findId(bidder) : -1;
+        if(id < 0) {
+            return null;
+        }
+        Entry[] entries = this.entries;
+        return (id < entries.length) ? entries[id] : null;
+    }
+
+    /**
+     * @param id A bidder id.
+     * @return The bidder's entry, made if necessary.
+     */
+    private Entry entryFor(int id)
+    {
+        Entry[] entries = this.entries;
+        Entry entry = (id < entries.length) ? entries[id] : null;
+        return (entry != null) ? entry : addEntry(id);
+    }
+
+    /**
+     * Make a bidder's entry, unless another thread has already made it.
+     * @param id A bidder id.
+     * @return The bidder's entry.
+     */
+    private synchronized Entry addEntry(int id)
+    {
+        if(id >= entries.length) {
+            entries = Arrays.copyOf(entries, Math.max(entries.length * 2, id + 1));
+        }
+        Entry entry = entries[id];
+        if(entry == null) {
+            entry = new Entry();
+            entries[id] = entry;
+        }
+        return entry;
+    }
+}
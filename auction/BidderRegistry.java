@@ -0,0 +1,109 @@
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A registry of the people bidding in an auction. Each bidder is
+ * given a small whole number, its id, when first seen: the first
+ * bidder is 0, the next is 1, and so on. A bidder is a Person object,
+ * not a name: two people with the same name, or with no name, are two
+ * bidders with two ids, just as the rest of the auction tells them
+ * apart.
+ *
+ * Ids let indexes and files store a bidder as an int instead of a
+ * reference or a name, and let per-bidder totals be kept in arrays.
+ * Finding the Person for an id takes constant time.
+ *
+ * A registry may be used from several threads at once.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class BidderRegistry
+{
+    // The first number of bidders there is room for.
+    private static final int INITIAL_CAPACITY = 64;
+
+    // The id of each bidder. Person does not override equals, so the
+    // bidders are told apart by identity.
+    private final ConcurrentHashMap<Person, Integer> ids;
+    // The bidders, by id. Replaced, not changed, when it grows.
+    private volatile Person[] people;
+    // The number of bidders registered.
+    private volatile int size;
+
+    /**
+     * Create an empty registry.
+     */
+    public BidderRegistry()
+    {
+        ids = new ConcurrentHashMap<Person, Integer>();
+        people = new Person[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Return the id of a bidder, registering it if it has not been
+     * seen before.
+     * @param bidder The bidder.
+     * @return The bidder's id.
+     */
+    public int idOf(Person bidder)
+    {
+        Integer id = ids.get(bidder);
+        return (id != null) ? id : register(bidder);
+    }
+
+    /**
+     * Return the id of a bidder without registering it.
+     * @param bidder The bidder.
+     * @return The bidder's id, or -1 if it has not been registered.
+     */
+    public int findId(Person bidder)
+    {
+        Integer id = ids.get(bidder);
+        return (id != null) ? id : -1;
+    }
+
+    /**
+     * @param id A bidder's id.
+     * @return The bidder with that id, or null if there is none.
+     */
+    public Person getPerson(int id)
+    {
+        Person[] people = this.people;
+        return ((id >= 0) && (id < people.length)) ? people[id] : null;
+    }
+
+    /**
+     * @return The number of bidders registered. Their ids are 0 to size - 1.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Register a bidder, unless another thread has registered it in
+     * the meantime.
+     * @param bidder The bidder.
+     * @return The bidder's id.
+     */
+    private synchronized int register(Person bidder)
+    {
+        Integer existing = ids.get(bidder);
+        if(existing != null) {
+            return existing;
+        }
+        int id = size;
+        Person[] people = this.people;
+        if(id == people.length) {
+            people = Arrays.copyOf(people, people.length * 2);
+        }
+        people[id] = bidder;
+        this.people = people;
+        size = id + 1;
+        // Published last, so anyone who finds the id also finds the Person.
+        ids.put(bidder, id);
+        return id;
+    }
+}
@@ -0,0 +1,79 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Measures a chain of auctions, each carrying the unsold lots of the
+ * last over, as in weekly relisting. Each week new lots are entered,
+ * a share of all the lots sell, and the auction closes. Most lots
+ * never sell, so the tail of unsold lots grows week by week. The time
+ * to carry the lots over and the heap in use after each week are
+ * reported, first keeping only the latest auction and then keeping
+ * every auction, as an archive would.
+ *
+ * Run it from the command line, optionally giving the number of weeks,
+ * the number of new lots each week and the share of lots that sell:
+ *     java -Xmx4g CarryOverBenchmark 20 200000 0.1
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class CarryOverBenchmark
+{
+    /**
+     * Run the benchmark.
+     * @param args The number of weeks, the number of new lots each week
+     *             and the share of lots that sell.
+     */
+    public static void main(String[] args)
+    {
+        int weeks = (args.length > 0) ? Integer.parseInt(args[0]) : 20;
+        int newLots = (args.length > 1) ? Integer.parseInt(args[1]) : 200000;
+        double sellRate = (args.length > 2) ? Double.parseDouble(args[2]) : 0.1;
+        run("latest auction kept", weeks, newLots, sellRate, false);
+        run("every auction kept", weeks, newLots, sellRate, true);
+    }
+
+    /**
+     * Run the chain of auctions.
+     * @param name The name to print.
+     * @param weeks The number of weeks.
+     * @param newLots The number of new lots each week.
+     * @param sellRate The share of lots that sell.
+     * @param keepAll True to keep every auction reachable.
+     */
+    private static void run(String name, int weeks, int newLots, double sellRate, boolean keepAll)
+    {
+        System.out.println(name);
+        ArrayList<Auction> archive = new ArrayList<Auction>();
+        Person bidder = new Person("Bidder");
+        Random random = new Random(42);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        Auction auction = null;
+        for(int week = 1; week <= weeks; week++) {
+            long start = System.nanoTime();
+            Auction next = new Auction(auction);
+            long carryTime = System.nanoTime() - start;
+            next.setListener(new NullAuctionListener());
+            int carried = next.getNoBids().size();
+            for(int i = 0; i < newLots; i++) {
+                next.enterLot("Week " + week + " lot " + i);
+            }
+            for(Lot lot : next.getNoBids()) {
+                if(random.nextDouble() < sellRate) {
+                    next.bidFor(lot.getNumber(), bidder, 1 + random.nextInt(1000));
+                }
+            }
+            next.close();
+            if(keepAll) {
+                archive.add(next);
+            }
+            auction = next;
+            System.gc();
+            long used = memory.getHeapMemoryUsage().getUsed();
+            System.out.printf("week %3d  %,10d lots carried in %,10.1f us  heap %,8.1f MB%n",
+                              week, carried, carryTime / 1e3, used / 1e6);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * An auction that stores its lots in parallel arrays of primitives
+ * instead of as Lot, Bid and String objects. It offers the same
+ * operations as Auction, for catalogs of tens of millions of lots
+ * where the object-per-lot layout costs too much memory and garbage
+ * collection time.
+ *
+ * For each lot only the value of the highest bid (a long), the high
+ * bidder (an int id from a BidderRegistry) and where its
+ * description is kept (a long) are stored. Descriptions are held as
+ * UTF-8 bytes in blocks of memory outside the Java heap, so the
+ * garbage collector never has to look at them. A description may be
+ * at most MAX_DESCRIPTION bytes long in UTF-8. Lot objects are only
+ * created when asked for, by getLot, getNoBids and close; they are
+ * copies, and bidding on them does not change the auction.
+ *
+ * A CompactAuction is meant to be used by one thread at a time.
+ * By default it reports nothing; setListener can be used to receive
+ * its events, at the cost of creating Lot and Bid objects for them.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class CompactAuction
+{
+    // The first number of lots there is room for.
+    private static final int INITIAL_CAPACITY = 1024;
+    // The size of each block of description text.
+    private static final int BLOCK_SIZE = 1 << 20;
+    /** The most bytes a description may take in UTF-8. */
+    public static final int MAX_DESCRIPTION = BLOCK_SIZE;
+    // The bidder stored for a lot with no bids.
+    private static final int NO_BIDDER = -1;
+    // The bidder stored for a lot that has been removed.
+    private static final int REMOVED = -2;
+
+    // The value of the highest bid of lot number (index + 1), or 0.
+    private long[] values;
+    // The id of the high bidder of lot number (index + 1), NO_BIDDER or REMOVED.
+    private int[] bidders;
+    // Where the description of lot number (index + 1) is: its
+    // position in the text blocks, shifted left by 24 bits, plus its length.
+    private long[] descriptions;
+    // The blocks of description text.
+    private final ArrayList<ByteBuffer> text;
+    // Where the next description will be written in the text blocks.
+    private long textEnd;
+    // Gives each bidder the id stored in the bidders column.
+    private final BidderRegistry registry;
+    // The number that will be given to the next lot entered.
+    private int nextLotNumber;
+    // Whether the auction is open.
+    private boolean isOpen;
+    // Receives the events of this auction, or null.
+    private AuctionListener listener;
+
+    /**
+     * Create a new auction.
+     */
+    public CompactAuction()
+    {
+        values = new long[INITIAL_CAPACITY];
+        bidders = new int[INITIAL_CAPACITY];
+        descriptions = new long[INITIAL_CAPACITY];
+        text = new ArrayList<ByteBuffer>();
+        textEnd = 0;
+        registry = new BidderRegistry();
+        nextLotNumber = 1;
+        isOpen = true;
+        listener = null;
+    }
+
+    /**
+     * Set the listener that receives the bids and closed lots of this
+     * auction.
+     * @param listener The new listener, or null to report nothing.
+     */
+    public void setListener(AuctionListener listener)
+    {
+        this.listener = listener;
+    }
+
+    /**
+     * Enter a new lot into the auction. Returns false if the
+     * auction is not open, if the description is null, or if it is
+     * longer than MAX_DESCRIPTION bytes in UTF-8.
+     * @param description A description of the lot.
+     * @return True if a new lot was entered into the auction, false otherwise.
+     */
+    public boolean enterLot(String description)
+    {
+        if(!isOpen || (description == null)) {
+            return false;
+        }
+        byte[] text = description.getBytes(StandardCharsets.UTF_8);
+        if(text.length > MAX_DESCRIPTION) {
+            return false;
+        }
+        int slot = nextLotNumber - 1;
+        if(slot == values.length) {
+            int capacity = values.length * 2;
+            values = Arrays.copyOf(values, capacity);
+            bidders = Arrays.copyOf(bidders, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+        }
+        values[slot] = 0;
+        bidders[slot] = NO_BIDDER;
+        descriptions[slot] = storeText(text);
+        nextLotNumber++;
+        return true;
+    }
+
+    /**
+     * Bid for a lot.
+     * Returns false if the auction is closed, the lot doesn't
+     * exist, the bidder is null, the bid was not positive, or
+     * the bid was not high enough.
+     * @param lotNumber The lot number being bid for.
+     * @param bidder The person bidding for the lot.
+     * @param value The value of the bid.
+     * @return True if the bid was successful, false otherwise.
+     */
+    public boolean bidFor(int lotNumber, Person bidder, long value)
+    {
+        if(!isOpen || !exists(lotNumber) || (bidder == null) || (value <= 0)) {
+            return false;
+        }
+        int slot = lotNumber - 1;
+        if((bidders[slot] != NO_BIDDER) && (value <= values[slot])) {
+            if(listener != null) {
+                listener.bidRejected(lotView(lotNumber), new Bid(bidder, value), highestBid(slot));
+            }
+            return false;
+        }
+        values[slot] = value;
+        bidders[slot] = registry.idOf(bidder);
+        if(listener != null) {
+            listener.bidAccepted(lotView(lotNumber), highestBid(slot));
+        }
+        return true;
+    }
+
+    /**
+     * Return a copy of the lot with the given number, or null if it
+     * does not exist. Bidding on the copy does not change the auction.
+     * @param lotNumber The number of the lot to return.
+     * @return A copy of the Lot with the given number
+     */
+    public Lot getLot(int lotNumber)
+    {
+        return exists(lotNumber) ? lotView(lotNumber) : null;
+    }
+
+    /**
+     * Remove the lot with the given lot number, as long as the lot has
+     * no bids, and the auction is open.
+     * @param number The number of the lot to be removed.
+     * @return True if the lot was successfully removed, false otherwise.
+     */
+    public boolean removeLot(int number)
+    {
+        if(!isOpen || !exists(number) || (bidders[number - 1] != NO_BIDDER)) {
+            return false;
+        }
+        bidders[number - 1] = REMOVED;
+        return true;
+    }
+
+    /**
+     * Returns an ArrayList containing copies of all the items that have
+     * no bids so far (or have not sold if the auction has ended).
+     * @return an ArrayList of the Lots which currently have no bids
+     */
+    public ArrayList<Lot> getNoBids()
+    {
+        ArrayList<Lot> noBids = new ArrayList<Lot>();
+        for(int slot = 0; slot < nextLotNumber - 1; slot++) {
+            if(bidders[slot] == NO_BIDDER) {
+                noBids.add(lotView(slot + 1));
+            }
+        }
+        return noBids;
+    }
+
+    /**
+     * Close the auction and report each lot to the listener.
+     * Returns false if the auction is already closed, true otherwise.
+     * @return False if the auction is closed, true otherwise.
+     */
+    public boolean close()
+    {
+        if(!isOpen) {
+            return false;
+        }
+        isOpen = false;
+        if(listener != null) {
+            for(int slot = 0; slot < nextLotNumber - 1; slot++) {
+                if(bidders[slot] != REMOVED) {
+                    listener.lotClosed(lotView(slot + 1), highestBid(slot));
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The registry that gives each bidder in this auction a number.
+     */
+    public BidderRegistry getBidderRegistry()
+    {
+        return registry;
+    }
+
+    /**
+     * @return The number of bytes of description text held outside the heap.
+     */
+    public long getTextSize()
+    {
+        return textEnd;
+    }
+
+    /**
+     * @param number A lot number.
+     * @return True if there is a lot with that number.
+     */
+    private boolean exists(int number)
+    {
+        return (number >= 1) && (number < nextLotNumber) && (bidders[number - 1] != REMOVED);
+    }
+
+    /**
+     * @param number The number of an existing lot.
+     * @return A new Lot holding the lot's description and highest bid.
+     */
+    private Lot lotView(int number)
+    {
+        Lot lot = new Lot(number, loadText(descriptions[number - 1]));
+        Bid highest = highestBid(number - 1);
+        if(highest != null) {
+            lot.bidFor(highest);
+        }
+        return lot;
+    }
+
+    /**
+     * @param slot The slot of an existing lot.
+     * @return A new Bid equal to the lot's highest bid, or null if it has none.
+     */
+    private Bid highestBid(int slot)
+    {
+        int bidder = bidders[slot];
+        return (bidder >= 0) ? new Bid(registry.getPerson(bidder), values[slot]) : null;
+    }
+
+    /**
+     * Copy a description into the text blocks.
+     * @param bytes The description in UTF-8, at most MAX_DESCRIPTION bytes.
+     * @return Where the description was stored.
+     */
+    private long storeText(byte[] bytes)
+    {
+        int length = bytes.length;
+        if((long) text.size() * BLOCK_SIZE - textEnd < length) {
+            // Start a new block rather than split a description.
+            text.add(ByteBuffer.allocateDirect(BLOCK_SIZE));
+            textEnd = (long) (text.size() - 1) * BLOCK_SIZE;
+        }
+        if(length > 0) {
+            ByteBuffer block = text.get((int) (textEnd / BLOCK_SIZE));
+            block.put((int) (textEnd % BLOCK_SIZE), bytes, 0, length);
+        }
+        long position = textEnd;
+        textEnd += length;
+        return (position << 24) | length;
+    }
+
+    /**
+     * @param reference Where a description was stored.
+     * @return The description.
+     */
+    private String loadText(long reference)
+    {
+        long position = reference >>> 24;
+        int length = (int) (reference & 0xFFFFFF);
+        byte[] bytes = new byte[length];
+        if(length == 0) {
+            return "";
+        }
+        text.get((int) (position / BLOCK_SIZE)).get((int) (position % BLOCK_SIZE), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,145 @@
+import java.io.Flushable;
+import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A listener that prints each event, in exactly the format the
+ * auction has always printed to the console.
+ *
+ * Only the lot number, the description and the bids passed with the
+ * event are printed, so the output is correct even when it is
+ * written some time after the event, by a BatchingAuctionListener.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class ConsoleAuctionListener implements AuctionListener, Flushable
+{
+    // Where to print, or null to print to whatever System.out is at the time.
+    private final PrintStream out;
+
+    /**
+     * Create a listener that prints to System.out.
+     */
+    public ConsoleAuctionListener()
+    {
+        this(null);
+    }
+
+    /**
+     * Create a listener that prints to the given stream.
+     * @param out The stream to print to.
+     */
+    public ConsoleAuctionListener(PrintStream out)
+    {
+        this.out = out;
+    }
+
+    /**
+     * Print that the bid was successful, with the lot number, its
+     * description, the bid value and the high bidder's name.
+     * @param lot The lot that was bid for.
+     * @param bid The accepted bid.
+     */
+    public void bidAccepted(Lot lot, Bid bid)
+    {
+        PrintStream out = stream();
+        out.println();
+        out.println("Bid Successful.");
+        out.println(describe(lot, bid) + "    Bidder Name: " + bid.getBidder().getName());
+    }
+
+    /**
+     * Print that the bid was unsuccessful, with the lot number, its
+     * description and the high bid (but not the high bidder's name).
+     * @param lot The lot that was bid for.
+     * @param bid The rejected bid.
+     * @param highestBid The bid that beat it.
+     */
+    public void bidRejected(Lot lot, Bid bid, Bid highestBid)
+    {
+        PrintStream out = stream();
+        out.println();
+        out.println("Bid unsuccessful.");
+        out.println(describe(lot, highestBid));
+    }
+
+    /**
+     * Print the lot number and description, and either the high
+     * bidder and bid value or that the lot did not sell.
+     * @param lot The lot that was closed.
+     * @param winningBid The bid that won the lot, or null.
+     */
+    public void lotClosed(Lot lot, Bid winningBid)
+    {
+        StringBuilder text = new StringBuilder();
+        appendClosed(text, lot, winningBid);
+        stream().print(text);
+    }
+
+    /**
+     * Print every lot of a settlement that was still open when the
+     * auction closed, as lotClosed would, putting the text together
+     * on several threads. A subclass that overrides lotClosed should
+     * override this too.
+     * @param settlement The settlement of the auction.
+     * @param pool The pool to put the text together on.
+     */
+    public void lotsClosed(Settlement settlement, ForkJoinPool pool)
+    {
+        settlement.print(stream(), pool);
+    }
+
+    /**
+     * Add the text lotClosed prints for a lot to a buffer.
+     * @param text The buffer.
+     * @param lot The lot that was closed.
+     * @param winningBid The bid that won the lot, or null.
+     */
+    static void appendClosed(StringBuilder text, Lot lot, Bid winningBid)
+    {
+        String newLine = System.lineSeparator();
+        text.append(newLine);
+        if(winningBid != null) {
+            text.append(describe(lot, winningBid)).append("    Bidder: ").append(winningBid.getBidder().getName());
+        }
+        else {
+            text.append(lot.getNumber()).append(": ").append(lot.getDescription()).append(". This lot did not sell.");
+        }
+        text.append(newLine);
+    }
+
+    /**
+     * Flush the stream being printed to.
+     */
+    public void flush()
+    {
+        stream().flush();
+    }
+
+    /**
+     * @param lot A lot.
+     * @param bid The lot's highest bid, or null.
+     * @return The lot described as Lot.toString would describe it
+     *         with the given highest bid.
+     */
+    private static String describe(Lot lot, Bid bid)
+    {
+        String details = lot.getNumber() + ": " + lot.getDescription();
+        if(bid != null) {
+            details += "    Bid: " + bid.getValue();
+        }
+        else {
+            details += "    (No bid)";
+        }
+        return details;
+    }
+
+    /**
+     * @return The stream to print to.
+     */
+    private PrintStream stream()
+    {
+        return (out != null) ? out : System.out;
+    }
+}
@@ -0,0 +1,116 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A stress test for concurrent bidding on a single hot lot.
+ *
+ * Every thread bids for the same lot, taking each value from a counter
+ * they share, so the values bid for the lot keep rising. Nearly every
+ * bid is then higher than the lot's highest bid when it is made, and
+ * must race the other threads to replace it rather than being turned
+ * away by a read. When all threads have finished, the lot's highest
+ * bid must equal the largest value submitted; if a bid was lost the
+ * run stops with an error. The bid throughput, and the share of bids
+ * accepted, are reported for 1, 8 and 64 threads.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class ContentionBenchmark
+{
+    // The thread counts tried.
+    private static final int[] THREADS = { 1, 8, 64 };
+    // The total number of bids made in each run, shared between the threads.
+    private static final int BIDS = 4000000;
+
+    /**
+     * Run the stress test.
+     * @param args Not used.
+     */
+    public static void main(String[] args) throws InterruptedException
+    {
+        for(int threads : THREADS) {
+            runHotLot(threads);
+        }
+    }
+
+    /**
+     * Have several threads bid for one lot and check the outcome.
+     * @param threads The number of bidding threads.
+     */
+    private static void runHotLot(int threads) throws InterruptedException
+    {
+        final Auction auction = new Auction();
+        auction.setListener(new NullAuctionListener());
+        auction.enterLot("Hot lot");
+        final int bidsPerThread = BIDS / threads;
+        final AtomicLong nextValue = new AtomicLong(1);
+        final int[] accepted = new int[threads];
+        final CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> bidders = new ArrayList<Thread>();
+        for(int t = 0; t < threads; t++) {
+            final int id = t;
+            final Person bidder = new Person("Bidder " + t);
+            Thread thread = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    awaitQuietly(start);
+                    for(int i = 0; i < bidsPerThread; i++) {
+                        if(auction.bidFor(1, bidder, nextValue.getAndIncrement())) {
+                            accepted[id]++;
+                        }
+                    }
+                }
+            });
+            bidders.add(thread);
+            thread.start();
+        }
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long elapsed;
+        try {
+            long begin = System.nanoTime();
+            start.countDown();
+            for(Thread thread : bidders) {
+                thread.join();
+            }
+            elapsed = System.nanoTime() - begin;
+        }
+        finally {
+            System.setOut(console);
+        }
+
+        long expected = nextValue.get() - 1;
+        long actual = auction.getLot(1).getHighestBid().getValue();
+        if(actual != expected) {
+            throw new IllegalStateException("Lost update with " + threads + " threads: highest bid "
+                                            + actual + " but " + expected + " was submitted");
+        }
+        long acceptedCount = 0;
+        for(int count : accepted) {
+            acceptedCount += count;
+        }
+        double bids = bidsPerThread * (double) threads;
+        System.out.printf("%3d threads: %,14.0f bids/s  %5.1f%% accepted  (highest bid kept)%n", threads,
+                          bids / (elapsed / 1e9), 100 * acceptedCount / bids);
+    }
+
+    /**
+     * Wait for the latch, ignoring interruptions.
+     * @param latch The latch to wait for.
+     */
+    private static void awaitQuietly(CountDownLatch latch)
+    {
+        try {
+            latch.await();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * An inverted index of lot descriptions, for finding lots by keyword.
+ * For every word that appears in a description it keeps a PostingList
+ * of the numbers of the lots whose descriptions contain it.
+ *
+ * A description is split into words at every character that is not a
+ * letter or a digit, and words are compared without regard to case.
+ * Finding the lots that have all of some words intersects their
+ * posting lists, starting with the shortest; finding the lots that
+ * have any of them takes their union. Neither looks at any lot.
+ *
+ * The index is locked while in use.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class DescriptionIndex
+{
+    // The lots whose descriptions contain each word.
+    private final HashMap<String, PostingList> postings;
+
+    /**
+     * Create an empty index.
+     */
+    public DescriptionIndex()
+    {
+        postings = new HashMap<String, PostingList>();
+    }
+
+    /**
+     * Index a lot's description.
+     * @param lot The lot.
+     */
+    public synchronized void add(Lot lot)
+    {
+        for(String word : words(lot.getDescription())) {
+            PostingList lots = postings.get(word);
+            if(lots == null) {
+                lots = new PostingList();
+                postings.put(word, lots);
+            }
+            lots.add(lot.getNumber());
+        }
+    }
+
+    /**
+     * Take a lot out of the index. Words no other lot has are forgotten.
+     * @param lot The lot.
+     */
+    public synchronized void remove(Lot lot)
+    {
+        for(String word : words(lot.getDescription())) {
+            PostingList lots = postings.get(word);
+            if((lots != null) && lots.remove(lot.getNumber()) && lots.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    /**
+     * @param query Some words.
+     * @return The lots whose descriptions contain every one of the
+     *         words, or none if there are no words.
+     */
+    public synchronized PostingList findAll(String query)
+    {
+        ArrayList<PostingList> lists = new ArrayList<PostingList>();
+        for(String word : words(query)) {
+            PostingList lots = postings.get(word);
+            if(lots == null) {
+                return new PostingList();
+            }
+            lists.add(lots);
+        }
+        if(lists.isEmpty()) {
+            return new PostingList();
+        }
+        // Start with the shortest list, so every intersection is small.
+        int shortest = 0;
+        for(int i = 1; i < lists.size(); i++) {
+            if(lists.get(i).getCardinality() < lists.get(shortest).getCardinality()) {
+                shortest = i;
+            }
+        }
+        PostingList result = lists.get(shortest);
+        for(int i = 0; (i < lists.size()) && !result.isEmpty(); i++) {
+            if(i != shortest) {
+                // Each intersection is a new list, so the index's own is never changed.
+                result = result.and(lists.get(i));
+            }
+        }
+        return (lists.size() == 1) ? result.copy() : result;
+    }
+
+    /**
+     * @param query Some words.
+     * @return The lots whose descriptions contain at least one of the words.
+     */
+    public synchronized PostingList findAny(String query)
+    {
+        PostingList result = new PostingList();
+        for(String word : words(query)) {
+            PostingList lots = postings.get(word);
+            if(lots != null) {
+                result = result.or(lots);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of different words indexed.
+     */
+    public synchronized int getWordCount()
+    {
+        return postings.size();
+    }
+
+    /**
+     * Split text into words.
+     * @param text Some text.
+     * @return The different words in the text, in lower case, in the
+     *         order they first appear.
+     */
+    static ArrayList<String> words(String text)
+    {
+        ArrayList<String> words = new ArrayList<String>();
+        int length = text.length();
+        int start = -1;
+        for(int i = 0; i <= length; i++) {
+            boolean inWord = (i < length) && Character.isLetterOrDigit(text.charAt(i));
+            if(inWord && (start < 0)) {
+                start = i;
+            }
+            else if(!inWord && (start >= 0)) {
+                String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if(!words.contains(word)) {
+                    words.add(word);
+                }
+                start = -1;
+            }
+        }
+        return words;
+    }
+}
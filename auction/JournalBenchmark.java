@@ -0,0 +1,81 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Measure how fast bids can be journaled, and how fast a journal can
+ * be replayed into a new auction.
+ *
+ * Run it from the command line, optionally giving the number of bids,
+ * the number of lots and the sync policy:
+ *     java JournalBenchmark 10000000 100000 GROUP
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class JournalBenchmark
+{
+    /**
+     * Run the benchmark.
+     * @param args The number of bids, the number of lots and the sync policy.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int bids = (args.length > 0) ? Integer.parseInt(args[0]) : 10000000;
+        int lots = (args.length > 1) ? Integer.parseInt(args[1]) : 100000;
+        AuctionJournal.SyncPolicy policy = (args.length > 2) ? AuctionJournal.SyncPolicy.valueOf(args[2])
+                                                             : AuctionJournal.SyncPolicy.GROUP;
+        Path file = Files.createTempFile("auction", ".journal");
+        try {
+            Auction auction = new Auction();
+            auction.setListener(new NullAuctionListener());
+            AuctionJournal journal = new AuctionJournal(file, policy, true, 1 << 20);
+            auction.setJournal(journal);
+            for(int i = 0; i < lots; i++) {
+                auction.enterLot("Lot " + i);
+            }
+            Person[] bidders = new Person[100];
+            for(int i = 0; i < bidders.length; i++) {
+                bidders[i] = new Person("Bidder " + i);
+            }
+            Random random = new Random(42);
+            long start = System.nanoTime();
+            for(int i = 0; i < bids; i++) {
+                auction.bidFor(random.nextInt(lots) + 1, bidders[i % bidders.length], i + 1);
+            }
+            journal.close();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("journaled %,d bids in %.2f s: %,.0f bids/s (%s, %,d bytes)%n",
+                              bids, seconds, bids / seconds, policy, Files.size(file));
+
+            start = System.nanoTime();
+            Auction replayed = AuctionJournal.replay(file);
+            seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("replayed %,d records in %.2f s: %,.0f records/s%n",
+                              bids + lots, seconds, (bids + lots) / seconds);
+            checkSame(auction, replayed, lots);
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Check that the replayed auction matches the original.
+     * @param original The auction that was journaled.
+     * @param replayed The auction rebuilt from the journal.
+     * @param lots The number of lots.
+     */
+    private static void checkSame(Auction original, Auction replayed, int lots)
+    {
+        for(int number = 1; number <= lots; number++) {
+            Bid expected = original.getLot(number).getHighestBid();
+            Bid actual = replayed.getLot(number).getHighestBid();
+            if((expected == null) != (actual == null)
+               || ((expected != null) && (expected.getValue() != actual.getValue()))) {
+                throw new IllegalStateException("Replay differs at lot " + number);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies, for reporting percentiles such as the
+ * median and the 99th percentile. Any number of threads may record
+ * into it at once without locking.
+ *
+ * Values are counted in log-linear buckets: each power of two is split
+ * into 16 buckets of equal width, so a value is reported to within
+ * about 6% of its true size, whatever its magnitude. Values below 32
+ * are counted exactly. The histogram takes a fixed 8KB, however many
+ * values are recorded.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class LatencyHistogram
+{
+    // The number of buckets each power of two is split into, and its log.
+    private static final int SUB_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 4;
+    // Enough buckets for any non-negative long.
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    // The number of values in each bucket.
+    private final AtomicLongArray counts;
+    // The number of values recorded, their total and the largest.
+    private final AtomicLong count;
+    private final AtomicLong total;
+    private final AtomicLong max;
+
+    /**
+     * Create an empty histogram.
+     */
+    public LatencyHistogram()
+    {
+        counts = new AtomicLongArray(BUCKETS);
+        count = new AtomicLong();
+        total = new AtomicLong();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Record a value. Negative values are counted as 0.
+     * @param value The value, such as a latency in nanoseconds.
+     */
+    public void record(long value)
+    {
+        value = Math.max(value, 0);
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+        long largest = max.get();
+        while((value > largest) && !max.compareAndSet(largest, value)) {
+            largest = max.get();
+        }
+    }
+
+    /**
+     * @return The number of values recorded.
+     */
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * @return The largest value recorded, or 0 if there are none.
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * @return The mean of the values recorded, or 0 if there are none.
+     */
+    public double getMean()
+    {
+        long n = count.get();
+        return (n == 0) ? 0 : (double) total.get() / n;
+    }
+
+    /**
+     * Return the value below which a given percentage of the recorded
+     * values fall. The answer is the top of the bucket holding that
+     * value, so it may be up to about 6% too high.
+     * @param percentile The percentage, from 0 to 100, such as 99.9.
+     * @return The value at that percentile, or 0 if there are none.
+     */
+    public long getPercentile(double percentile)
+    {
+        long n = count.get();
+        if(n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for(int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if(seen >= rank) {
+                return Math.min(highestValueIn(bucket), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Forget every value recorded. Values recorded while this runs
+     * may or may not be kept.
+     */
+    public void reset()
+    {
+        for(int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts.set(bucket, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    /**
+     * @param value A non-negative value.
+     * @return The bucket the value is counted in.
+     */
+    private static int bucketOf(long value)
+    {
+        if(value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * @param bucket A bucket.
+     * @return The largest value counted in the bucket.
+     */
+    private static long highestValueIn(int bucket)
+    {
+        if(bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long top = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
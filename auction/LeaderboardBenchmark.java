@@ -0,0 +1,122 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * Compares listing the top lots from the auction's leaderboard with
+ * sorting every lot each time the top lots are asked for. Between
+ * queries a burst of bids is made, with lots chosen by a Zipf
+ * distribution as real traffic is, so each query finds some lots
+ * changed. The time per query and the time per bid are reported.
+ *
+ * Run it from the command line, optionally giving the number of lots,
+ * the number of bids between queries and the number of lots listed:
+ *     java LeaderboardBenchmark 1000000 10000 10
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class LeaderboardBenchmark
+{
+    // The number of queries made in each measurement.
+    private static final int QUERIES = 20;
+    // The Zipf exponent for choosing lots.
+    private static final double ZIPF_EXPONENT = 1.0;
+
+    // Highest bid first, as the leaderboard ranks lots.
+    private static final Comparator<Lot> BY_VALUE = new Comparator<Lot>()
+    {
+        public int compare(Lot a, Lot b)
+        {
+            int order = Long.compare(b.getHighestBid().getValue(), a.getHighestBid().getValue());
+            return (order != 0) ? order : Integer.compare(a.getNumber(), b.getNumber());
+        }
+    };
+
+    /**
+     * Run the benchmark.
+     * @param args The number of lots, the number of bids between
+     *             queries and the number of lots listed.
+     */
+    public static void main(String[] args)
+    {
+        int lotCount = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        int burst = (args.length > 1) ? Integer.parseInt(args[1]) : 10000;
+        int top = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+        // Once to warm up, then again to measure.
+        run(lotCount, burst, top, false);
+        run(lotCount, burst, top, true);
+    }
+
+    /**
+     * Bid and query, first using the leaderboard and then sorting.
+     * @param lotCount The number of lots.
+     * @param burst The number of bids between queries.
+     * @param top The number of lots listed.
+     * @param print Whether to print the results.
+     */
+    private static void run(int lotCount, int burst, int top, boolean print)
+    {
+        Auction auction = new Auction();
+        auction.setListener(new NullAuctionListener());
+        for(int i = 0; i < lotCount; i++) {
+            auction.enterLot("Lot " + i);
+        }
+        Person bidder = new Person("Bidder");
+        ZipfDistribution popularity = new ZipfDistribution(lotCount, ZIPF_EXPONENT);
+        Random random = new Random(42);
+        // Give every lot a first bid, so all of them are ranked.
+        for(int number = 1; number <= lotCount; number++) {
+            auction.bidFor(number, bidder, 1 + random.nextInt(1000));
+        }
+        auction.getTopLotsByHighestBid(top);
+
+        long bidTime = 0;
+        long leaderboardTime = 0;
+        long sortTime = 0;
+        long value = 1000;
+        for(int query = 0; query < QUERIES; query++) {
+            long start = System.nanoTime();
+            for(int i = 0; i < burst; i++) {
+                auction.bidFor(popularity.next(random), bidder, value++);
+            }
+            bidTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            ArrayList<Lot> ranked = auction.getTopLotsByHighestBid(top);
+            leaderboardTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            ArrayList<Lot> sorted = sortAll(auction, top);
+            sortTime += System.nanoTime() - start;
+
+            if(!ranked.equals(sorted)) {
+                throw new IllegalStateException("The leaderboard and the sort disagree");
+            }
+        }
+        if(print) {
+            System.out.printf("%,d lots, %,d bids between queries, top %d%n", lotCount, burst, top);
+            System.out.printf("bid                %,12.1f ns/bid%n", (double) bidTime / (QUERIES * (long) burst));
+            System.out.printf("leaderboard query  %,12.1f us/query%n", leaderboardTime / 1e3 / QUERIES);
+            System.out.printf("sort on query      %,12.1f us/query%n", sortTime / 1e3 / QUERIES);
+        }
+    }
+
+    /**
+     * @param auction An auction where every lot has a bid.
+     * @param top The number of lots to list.
+     * @return The lots with the highest bids, found by sorting them all.
+     */
+    private static ArrayList<Lot> sortAll(Auction auction, int top)
+    {
+        ArrayList<Lot> lots = new ArrayList<Lot>();
+        Iterator<Lot> it = auction.lotIterator();
+        while(it.hasNext()) {
+            lots.add(it.next());
+        }
+        Collections.sort(lots, BY_VALUE);
+        return new ArrayList<Lot>(lots.subList(0, Math.min(top, lots.size())));
+    }
+}
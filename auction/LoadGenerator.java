@@ -0,0 +1,346 @@
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A load generator for capacity planning. It simulates a crowd of
+ * bidders, each a Person, bidding against one Auction for a fixed
+ * time, and reports the throughput achieved and the latency of the
+ * bids.
+ *
+ * Bids arrive as a Poisson process at a given total rate, shared
+ * evenly between the bidders. Each bidder picks a lot by a Zipf
+ * distribution, so a few lots are much more popular than the rest,
+ * and raises the lot's highest bid according to a BidStrategy.
+ *
+ * Two latencies are recorded for every bid: the service time, which
+ * is how long bidFor took, and the response time, which is measured
+ * from when the bid was due to arrive. If the auction falls behind,
+ * bids start late, and only the response time shows it.
+ *
+ * When the Java runtime has virtual threads, every bidder runs on a
+ * virtual thread of its own, sleeping between bids. Otherwise the
+ * bidders take turns on a small pool of ordinary threads, each bid
+ * being scheduled for when it is due.
+ *
+ * Run it from the command line, optionally giving the number of
+ * bidders, the number of lots, the number of seconds to run, the
+ * total bids per second, the Zipf exponent and the bid strategy:
+ *     java LoadGenerator 100000 10000 10 200000 1.0 FIXED
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class LoadGenerator
+{
+    /**
+     * How a bidder decides what to bid for a lot.
+     */
+    public enum BidStrategy
+    {
+        /** A fixed step above the highest bid. */
+        FIXED {
+            long nextBid(long highest, Random random)
+            {
+                return highest + 10;
+            }
+        },
+        /** Five percent above the highest bid. */
+        PERCENTAGE {
+            long nextBid(long highest, Random random)
+            {
+                return highest + Math.max(1, highest / 20);
+            }
+        },
+        /** A random step, up to 100, above the highest bid. */
+        RANDOM {
+            long nextBid(long highest, Random random)
+            {
+                return highest + 1 + random.nextInt(100);
+            }
+        };
+
+        /**
+         * @param highest The value of the lot's highest bid, or 0.
+         * @param random The bidder's source of randomness.
+         * @return The value to bid.
+         */
+        abstract long nextBid(long highest, Random random);
+    }
+
+    // The number of bidders when none is given.
+    private static final int DEFAULT_BIDDERS = 100000;
+    // The number of lots when none is given.
+    private static final int DEFAULT_LOTS = 10000;
+    // The number of seconds to run when none is given.
+    private static final int DEFAULT_SECONDS = 10;
+    // The total number of bids per second when none is given.
+    private static final double DEFAULT_RATE = 200000;
+    // The Zipf exponent when none is given.
+    private static final double DEFAULT_SKEW = 1.0;
+    // The number of ordinary threads per processor when virtual threads are not available.
+    private static final int THREADS_PER_PROCESSOR = 4;
+
+    /**
+     * One simulated bidder.
+     */
+    private class Bidder implements Runnable
+    {
+        // The person bidding.
+        private final Person person;
+        // The bidder's own source of randomness.
+        private final Random random;
+        // When the bidder's next bid is due, by System.nanoTime.
+        private long due;
+
+        private Bidder(Person person, long seed)
+        {
+            this.person = person;
+            this.random = new Random(seed);
+        }
+
+        /**
+         * Make the bid that is due, then wait for or schedule the next.
+         */
+        public void run()
+        {
+            if(scheduler == null) {
+                // On a virtual thread of its own.
+                due = start + nextInterval(random);
+                while(due < deadline) {
+                    LockSupport.parkNanos(due - System.nanoTime());
+                    bid(this);
+                    due += nextInterval(random);
+                }
+            }
+            else {
+                bid(this);
+                due += nextInterval(random);
+                schedule(this);
+            }
+        }
+    }
+
+    // The auction being bid in.
+    private final Auction auction;
+    // How popular each lot is.
+    private final ZipfDistribution popularity;
+    // The mean time between one bidder's bids, in nanoseconds.
+    private final double meanInterval;
+    // How bidders choose their bids.
+    private final BidStrategy strategy;
+    // Runs the bidders when there are no virtual threads, or null.
+    private ScheduledExecutorService scheduler;
+    // When the run started and ends, by System.nanoTime.
+    private long start;
+    private long deadline;
+    // How long bidFor took, and how long after it was due each bid finished.
+    private final LatencyHistogram serviceTime;
+    private final LatencyHistogram responseTime;
+    // The number of bids accepted and rejected.
+    private final LongAdder accepted;
+    private final LongAdder rejected;
+
+    /**
+     * Create a load generator for an auction.
+     * @param auction The auction to bid in. Its lots are numbered 1 to lots.
+     * @param lots The number of lots to bid for.
+     * @param bidders The number of bidders.
+     * @param rate The total number of bids per second.
+     * @param skew The Zipf exponent for lot popularity; 0 for uniform.
+     * @param strategy How bidders choose their bids.
+     */
+    public LoadGenerator(Auction auction, int lots, int bidders, double rate, double skew,
+                         BidStrategy strategy)
+    {
+        this.auction = auction;
+        this.popularity = new ZipfDistribution(lots, skew);
+        this.meanInterval = bidders * 1e9 / rate;
+        this.strategy = strategy;
+        this.serviceTime = new LatencyHistogram();
+        this.responseTime = new LatencyHistogram();
+        this.accepted = new LongAdder();
+        this.rejected = new LongAdder();
+    }
+
+    /**
+     * Run the load generator from the command line.
+     * @param args The number of bidders, lots, seconds, bids per second,
+     *             the Zipf exponent and the bid strategy. The defaults
+     *             are used for anything left out.
+     */
+    public static void main(String[] args) throws InterruptedException
+    {
+        int bidders = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_BIDDERS;
+        int lots = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_LOTS;
+        int seconds = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_SECONDS;
+        double rate = (args.length > 3) ? Double.parseDouble(args[3]) : DEFAULT_RATE;
+        double skew = (args.length > 4) ? Double.parseDouble(args[4]) : DEFAULT_SKEW;
+        BidStrategy strategy = (args.length > 5) ? BidStrategy.valueOf(args[5]) : BidStrategy.FIXED;
+
+        Auction auction = new Auction();
+        auction.setListener(new NullAuctionListener());
+        for(int i = 0; i < lots; i++) {
+            auction.enterLot("Lot " + i);
+        }
+        LoadGenerator generator = new LoadGenerator(auction, lots, bidders, rate, skew, strategy);
+        generator.run(bidders, seconds);
+        generator.report(System.out);
+    }
+
+    /**
+     * Simulate the bidders for a number of seconds.
+     * @param bidders The number of bidders.
+     * @param seconds How long to run.
+     */
+    public void run(int bidders, int seconds) throws InterruptedException
+    {
+        Bidder[] crowd = new Bidder[bidders];
+        for(int i = 0; i < bidders; i++) {
+            crowd[i] = new Bidder(new Person("Bidder " + i), i);
+        }
+        ExecutorService virtualThreads = newVirtualThreadExecutor();
+        if(virtualThreads == null) {
+            scheduler = Executors.newScheduledThreadPool(THREADS_PER_PROCESSOR
+                                                         * Runtime.getRuntime().availableProcessors());
+        }
+        start = System.nanoTime();
+        deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        if(virtualThreads != null) {
+            for(Bidder bidder : crowd) {
+                virtualThreads.execute(bidder);
+            }
+            virtualThreads.shutdown();
+            virtualThreads.awaitTermination(seconds + 60, TimeUnit.SECONDS);
+        }
+        else {
+            for(Bidder bidder : crowd) {
+                bidder.due = start + nextInterval(bidder.random);
+                schedule(bidder);
+            }
+            // Bidders stop scheduling themselves once the deadline has passed.
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, deadline - System.nanoTime()));
+            scheduler.shutdown();
+            scheduler.awaitTermination(60, TimeUnit.SECONDS);
+        }
+        deadline = Math.max(deadline, System.nanoTime());
+    }
+
+    /**
+     * Print the throughput and latencies of the last run.
+     * @param out Where to print.
+     */
+    public void report(PrintStream out)
+    {
+        long bids = accepted.sum() + rejected.sum();
+        double seconds = (deadline - start) / 1e9;
+        out.printf("%s, %s strategy: %,d bids in %.1f s = %,.0f bids/s (%,d accepted, %,d rejected)%n",
+                   (scheduler == null) ? "virtual threads" : "platform threads", strategy,
+                   bids, seconds, bids / seconds, accepted.sum(), rejected.sum());
+        printLatency(out, "service time", serviceTime);
+        printLatency(out, "response time", responseTime);
+    }
+
+    /**
+     * @return The histogram of how long bidFor took, in nanoseconds.
+     */
+    public LatencyHistogram getServiceTime()
+    {
+        return serviceTime;
+    }
+
+    /**
+     * @return The histogram of how long after it was due each bid
+     *         finished, in nanoseconds.
+     */
+    public LatencyHistogram getResponseTime()
+    {
+        return responseTime;
+    }
+
+    /**
+     * Make one bid for a bidder and record how it went.
+     * @param bidder The bidder.
+     */
+    private void bid(Bidder bidder)
+    {
+        int number = popularity.next(bidder.random);
+        Lot lot = auction.getLot(number);
+        Bid highest = (lot != null) ? lot.getHighestBid() : null;
+        long value = strategy.nextBid((highest != null) ? highest.getValue() : 0, bidder.random);
+        long begin = System.nanoTime();
+        boolean success = auction.bidFor(number, bidder.person, value);
+        long end = System.nanoTime();
+        serviceTime.record(end - begin);
+        responseTime.record(end - bidder.due);
+        if(success) {
+            accepted.increment();
+        }
+        else {
+            rejected.increment();
+        }
+    }
+
+    /**
+     * Schedule a bidder's next bid on the thread pool, unless it is due
+     * after the deadline.
+     * @param bidder The bidder.
+     */
+    private void schedule(Bidder bidder)
+    {
+        if(bidder.due >= deadline) {
+            return;
+        }
+        try {
+            scheduler.schedule(bidder, bidder.due - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+        catch(RejectedExecutionException e) {
+            // The run has ended.
+        }
+    }
+
+    /**
+     * @param random A source of randomness.
+     * @return A random time until a bidder's next bid, in nanoseconds,
+     *         exponentially distributed so that bids arrive as a
+     *         Poisson process.
+     */
+    private long nextInterval(Random random)
+    {
+        return (long) (-Math.log(1 - random.nextDouble()) * meanInterval);
+    }
+
+    /**
+     * @param out Where to print.
+     * @param name The name of the latency.
+     * @param latency The latency.
+     */
+    private static void printLatency(PrintStream out, String name, LatencyHistogram latency)
+    {
+        out.printf("  %-13s p50 %,12d ns  p99 %,12d ns  p999 %,12d ns  max %,14d ns%n", name,
+                   latency.getPercentile(50), latency.getPercentile(99), latency.getPercentile(99.9),
+                   latency.getMax());
+    }
+
+    /**
+     * @return An executor that starts a virtual thread for each task, or
+     *         null if this Java runtime does not have virtual threads.
+     */
+    private static ExecutorService newVirtualThreadExecutor()
+    {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        }
+        catch(ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -1,18 +1,120 @@
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * A class to model an item (or set of items) in an
  * auction: a lot.
  * 
+ * Bids may be made for a lot from many threads at once. The highest
+ * bid is held in an AtomicReference and replaced by compare-and-set,
+ * so a lower bid can never overwrite a higher one and bidders on
+ * the same lot do not block each other.
+ * 
+ * A lot may also be given a BidHistory, which records every bid made
+ * for it, accepted or not.
+ * 
+ * A lot counts the bids made for it, and a LotLeaderboard or a
+ * ViewPublisher can be told when the lot changes so that it can rank
+ * the lot again or publish a new view of it.
+ * 
+ * A lot may hold a ProxyBook of the proxy bids registered for it.
+ * 
+ * A lot is sold by ascending bids unless it is given another
+ * LotPricing, in which case its bids are sealed: they are kept in a
+ * SealedBids and the winner is only worked out when the lot closes.
+ * 
+ * A lot may have a deadline, after which its auction closes it. Once
+ * a lot is closed its highest bid is replaced by a marker that no bid
+ * can beat, so a bid racing with the close can never win the lot
+ * after its result has been reported. The unsold lots of a closed
+ * auction share one such marker, a Closure, so that an auction they
+ * are carried over to can open them all again at once.
+ * 
  * @author Riya Arora 101190033
  * @version 2016.02.29
  */
 public class Lot
 {
+    /**
+     * Takes the place of the highest bid of a closed lot. No bid is
+     * higher, until the closure is opened again; then the lots it
+     * closed are open and have no bid.
+     */
+    static final class Closure extends Bid
+    {
+        // True once the closure has been opened again.
+        private volatile boolean reopened;
+
+        Closure()
+        {
+            super(null, Long.MAX_VALUE);
+        }
+
+        /**
+         * Open every lot that this closes.
+         */
+        void reopen()
+        {
+            reopened = true;
+        }
+    }
+
+    // Closes a lot that is never opened again.
+    private static final Closure CLOSED = new Closure();
+    // Takes the place of the highest bid of a lot that takes sealed
+    // bids, until its winner is known. No ascending bid is higher, so
+    // one that was on its way when the pricing changed is turned away.
+    private static final Bid SEALED = new Bid(null, Long.MAX_VALUE);
+    // Lets a lot's deadline be pushed out from several threads at once.
+    private static final AtomicLongFieldUpdater<Lot> DEADLINE =
+        AtomicLongFieldUpdater.newUpdater(Lot.class, "deadline");
+    // Let bids be counted, and the lot be marked as changed, from
+    // several threads at once.
+    private static final AtomicIntegerFieldUpdater<Lot> BID_COUNT =
+        AtomicIntegerFieldUpdater.newUpdater(Lot.class, "bidCount");
+    private static final AtomicIntegerFieldUpdater<Lot> CHANGED =
+        AtomicIntegerFieldUpdater.newUpdater(Lot.class, "changed");
+    // The marks markChanged can make, one for each kind of watcher.
+    static final int RANKING = 1;
+    static final int PUBLISHING = 2;
+
     // A unique identifying number.
     private final int number;
     // A description of the lot.
     private String description;
     // The current highest bid for this lot.
-    private Bid highestBid;
+    private final AtomicReference<Bid> highestBid;
+    // Every bid made for this lot, or null if they are not recorded.
+    private volatile BidHistory history;
+    // The bid a BidderIndex has credited to this lot's winner, the
+    // winner's id, and where the lot is in the winner's list. Only used
+    // by the index: the first two under the lot's lock, and the slot
+    // under the lock of the winner's list.
+    private Bid credited;
+    private int winnerId;
+    private int winnerSlot;
+    // When bidding for the lot ends, in milliseconds since 1970, or 0 if
+    // it ends when the auction closes.
+    private volatile long deadline;
+    // The highest bid when the lot was closed. An unsold lot that has
+    // been carried over keeps its closure here instead, which saves a
+    // field in every lot.
+    private volatile Bid winningBid;
+    // The number of bids made for this lot, accepted or not.
+    private volatile int bidCount;
+    // Has the RANKING bit set if a LotLeaderboard has been told the lot
+    // changed and has not ranked it again yet, and the PUBLISHING bit
+    // if a ViewPublisher has been told and has not published it yet.
+    private volatile int changed;
+    // The highest bid value and bid count a LotLeaderboard ranks the
+    // lot by. Only used by the leaderboard, under its lock.
+    private long rankedValue;
+    private int rankedCount;
+    // The proxy bids for this lot, or null if none has been registered.
+    private volatile ProxyBook proxies;
+    // The sealed bids for this lot, or null if it takes ascending bids.
+    private volatile SealedBids sealed;
 
     /**
      * Construct a Lot, setting its number and description.
@@ -23,42 +125,294 @@ public class Lot
     {
         this.number = number;
         this.description = description;
-        this.highestBid = null;
+        this.highestBid = new AtomicReference<Bid>();
     }
 
     /**
      * Attempt to bid for this lot. A successful bid
      * must have a value higher than any existing bid.
+     * This method is safe to call from several threads at once.
      * @param bid A new bid.
      * @return true if successful, false otherwise
      */
     public boolean bidFor(Bid bid)
     {
-        if(highestBid == null) {
-            // There is no previous bid.
-            highestBid = bid;
-            return true;
+        SealedBids sealed = this.sealed;
+        if(sealed != null) {
+            return sealed.add(bid.getBidder(), bid.getValue()) >= 0;
+        }
+        return placeBid(bid) != bid;
+    }
+
+    /**
+     * Attempt to bid for this lot by ascending bids, and report which
+     * bid the new one displaced. Exactly one caller sees null for
+     * a lot, so this can be used to notice a lot's first bid.
+     * @param bid A new bid.
+     * @return The given bid if it was not high enough. Otherwise the
+     *         bid it replaced, which is null if it is the first bid.
+     */
+    Bid placeBid(Bid bid)
+    {
+        BID_COUNT.incrementAndGet(this);
+        Bid previous = placeUnrecorded(bid);
+        BidHistory history = this.history;
+        if(history != null) {
+            history.record(bid, previous != bid);
         }
-        else if(bid.getValue() > highestBid.getValue()) {
-            // The bid is better than the previous one.
-            highestBid = bid;
-            return true;
+        return previous;
+    }
+
+    /**
+     * Attempt to bid for this lot, as placeBid does, but without
+     * counting the bid or adding it to the lot's history. The caller
+     * counts and records it.
+     * @param bid A new bid.
+     * @return The given bid if it was not high enough. Otherwise the
+     *         bid it replaced, which is null if it is the first bid.
+     */
+    Bid placeUnrecorded(Bid bid)
+    {
+        Bid current = highestBid.get();
+        // Retry for as long as the bid is better than the one we saw,
+        // in case another bidder got in between the read and the swap.
+        // A closure opened again has no bid; like any closure, it is
+        // worth Long.MAX_VALUE, which keeps the check off the usual path.
+        while((current == null) || (bid.getValue() > current.getValue())
+              || ((current.getValue() == Long.MAX_VALUE) && isReopened(current))) {
+            if(highestBid.compareAndSet(current, bid)) {
+                return isReopened(current) ? null : current;
+            }
+            current = highestBid.get();
         }
-        else {
-            // The bid is not better.
+        // The bid is not better.
+        return bid;
+    }
+
+    /**
+     * Record every bid made for this lot from now on in a history.
+     * @param history The history, or null to stop recording bids.
+     */
+    public void setHistory(BidHistory history)
+    {
+        this.history = history;
+    }
+
+    /**
+     * @return The history of bids for this lot, or null if bids are
+     *         not being recorded.
+     */
+    public BidHistory getHistory()
+    {
+        return history;
+    }
+
+    /**
+     * @return The bid a BidderIndex last credited to this lot's winner,
+     *         or null if it has credited none.
+     */
+    Bid getCredited()
+    {
+        return credited;
+    }
+
+    /**
+     * @param bid The bid a BidderIndex has credited to this lot's winner.
+     * @param id The winner's id.
+     * @param slot Where the lot is in the winner's list.
+     */
+    void setCredited(Bid bid, int id, int slot)
+    {
+        credited = bid;
+        winnerId = id;
+        winnerSlot = slot;
+    }
+
+    /**
+     * @return The id of the bidder a BidderIndex has credited this lot to.
+     */
+    int getWinnerId()
+    {
+        return winnerId;
+    }
+
+    /**
+     * @return Where the lot is in the list of lots its winner is winning.
+     */
+    int getWinnerSlot()
+    {
+        return winnerSlot;
+    }
+
+    /**
+     * @param slot Where the lot now is in its winner's list.
+     */
+    void setWinnerSlot(int slot)
+    {
+        winnerSlot = slot;
+    }
+
+    /**
+     * @return The number of bids made for this lot, accepted or not.
+     */
+    public int getBidCount()
+    {
+        return bidCount;
+    }
+
+    /**
+     * Count bids that were placed with placeUnrecorded.
+     * @param count The number of bids.
+     */
+    void countBids(int count)
+    {
+        BID_COUNT.addAndGet(this, count);
+    }
+
+    /**
+     * Mark the lot as changed, unless it is already marked.
+     * @param mark RANKING or PUBLISHING.
+     * @return True if this call marked it.
+     */
+    boolean markChanged(int mark)
+    {
+        int current = changed;
+        while((current & mark) == 0) {
+            if(CHANGED.compareAndSet(this, current, current | mark)) {
+                return true;
+            }
+            current = changed;
+        }
+        return false;
+    }
+
+    /**
+     * Clear a mark made by markChanged.
+     * @param mark RANKING or PUBLISHING.
+     */
+    void clearChanged(int mark)
+    {
+        int current = changed;
+        while(!CHANGED.compareAndSet(this, current, current & ~mark)) {
+            current = changed;
+        }
+    }
+
+    /**
+     * @return The highest bid value a LotLeaderboard ranks this lot by.
+     */
+    long getRankedValue()
+    {
+        return rankedValue;
+    }
+
+    /**
+     * @return The bid count a LotLeaderboard ranks this lot by.
+     */
+    int getRankedCount()
+    {
+        return rankedCount;
+    }
+
+    /**
+     * @param value The highest bid value to rank this lot by.
+     * @param count The bid count to rank this lot by.
+     */
+    void setRanked(long value, int count)
+    {
+        rankedValue = value;
+        rankedCount = count;
+    }
+
+    /**
+     * @return The proxy bids registered for this lot, or null if there
+     *         have been none.
+     */
+    ProxyBook getProxyBook()
+    {
+        return proxies;
+    }
+
+    /**
+     * @return The proxy bids registered for this lot, made empty if
+     *         there have been none.
+     */
+    synchronized ProxyBook proxyBook()
+    {
+        if(proxies == null) {
+            proxies = new ProxyBook();
+        }
+        return proxies;
+    }
+
+    /**
+     * @return How the lot's winner and price are decided.
+     */
+    public LotPricing getPricing()
+    {
+        SealedBids sealed = this.sealed;
+        return (sealed != null) ? sealed.getPricing() : LotPricing.ASCENDING;
+    }
+
+    /**
+     * Set how the lot's winner and price are decided. This can only be
+     * done before the lot has any bids, and should be done before it
+     * is bid for at all. The switch is made by swapping the lot's
+     * highest bid, so an ascending bid racing with it either gets in
+     * first, and the pricing is not changed, or is turned away; the
+     * old sealed bids are closed, so a sealed bid racing with it is
+     * either taken first, or turned away.
+     * @param pricing The new pricing.
+     * @return True if the pricing was set, false if the lot has bids or
+     *         has closed.
+     */
+    synchronized boolean setPricing(LotPricing pricing)
+    {
+        SealedBids current = sealed;
+        Bid highest = highestBid.get();
+        boolean noBid = (highest == null) || (highest == SEALED) || isReopened(highest);
+        if(!noBid || ((current != null) && !current.closeIfEmpty())) {
             return false;
         }
+        boolean ascending = (pricing == LotPricing.ASCENDING);
+        if(!highestBid.compareAndSet(highest, ascending ? null : SEALED)) {
+            // A bid got in first, or the lot was closed.
+            return false;
+        }
+        sealed = ascending ? null : new SealedBids(pricing);
+        return true;
+    }
+
+    /**
+     * @return The sealed bids for this lot, or null if it takes
+     *         ascending bids.
+     */
+    SealedBids getSealedBids()
+    {
+        return sealed;
+    }
+
+    /**
+     * Make the winner of the lot's sealed bids its highest bid. The
+     * sealed bids should be closed first.
+     * @return True if there was a winner and it is now the highest bid.
+     */
+    boolean installSealedWinner()
+    {
+        Bid winner = sealed.getWinningBid();
+        return (winner != null) && highestBid.compareAndSet(SEALED, winner);
     }
-    
+
     /**
      * @return A string representation of this lot's details.
      */
     public String toString()
     {
         String details = number + ": " + description;
-        if(highestBid != null) {
+        Bid highest = getHighestBid();
+        if(highest != null) {
             details += "    Bid: " + 
-                       highestBid.getValue();
+                       highest.getValue();
         }
         else {
             details += "    (No bid)";
@@ -89,6 +443,103 @@ public class Lot
      */
     public Bid getHighestBid()
     {
-        return highestBid;
+        Bid highest = highestBid.get();
+        if(highest instanceof Closure) {
+            // A lot carried over has no bid while its closure is there.
+            return (highest == CLOSED) ? winningBid : null;
+        }
+        return (highest != SEALED) ? highest : null;
+    }
+
+    /**
+     * @return When bidding for the lot ends, in milliseconds since
+     *         1970, or 0 if it ends when the auction closes.
+     */
+    public long getDeadline()
+    {
+        return deadline;
+    }
+
+    /**
+     * Set when bidding for the lot ends. A deadline can only be set or
+     * made later, never earlier.
+     * @param deadline The new deadline, in milliseconds since 1970.
+     * @return True if the deadline was changed.
+     */
+    boolean extendDeadline(long deadline)
+    {
+        long current = this.deadline;
+        while(deadline > current) {
+            if(DEADLINE.compareAndSet(this, current, deadline)) {
+                return true;
+            }
+            current = this.deadline;
+        }
+        return false;
+    }
+
+    /**
+     * @return True if the lot has been closed, so no bid can be accepted.
+     */
+    public boolean isClosed()
+    {
+        return closes(highestBid.get());
+    }
+
+    /**
+     * @param bid The lot's highest bid.
+     * @return True if it is a closure that has not been opened again.
+     */
+    private static boolean closes(Bid bid)
+    {
+        return (bid instanceof Closure) && !((Closure) bid).reopened;
+    }
+
+    /**
+     * @param bid The lot's highest bid.
+     * @return True if it is a closure that has been opened again.
+     */
+    private static boolean isReopened(Bid bid)
+    {
+        return (bid instanceof Closure) && ((Closure) bid).reopened;
+    }
+
+    /**
+     * Close the lot, so that its highest bid becomes its winning bid
+     * and no later bid can be accepted.
+     * @return True if the lot was closed by this call, false if it
+     *         was already closed.
+     */
+    synchronized boolean close()
+    {
+        // Only one thread closes at a time, so winningBid always
+        // matches the bid that was replaced.
+        Bid highest = highestBid.get();
+        while(!closes(highest)) {
+            winningBid = ((highest == SEALED) || isReopened(highest)) ? null : highest;
+            if(highestBid.compareAndSet(highest, CLOSED)) {
+                return true;
+            }
+            highest = highestBid.get();
+        }
+        return false;
+    }
+
+    /**
+     * Make ready to carry over to another auction a lot that did not
+     * sell. Its deadline is removed and, if it is closed, it is closed
+     * by the given closure instead, to open again when the closure is.
+     * Any marks the closed auction's watchers left on it are cleared,
+     * so that the next auction's watchers are told when it changes.
+     * @param closure The closure shared by the lots carried over.
+     */
+    synchronized void carryOver(Closure closure)
+    {
+        clearChanged(RANKING | PUBLISHING);
+        deadline = 0;
+        if(isClosed() && (winningBid == null)) {
+            winningBid = closure;
+            highestBid.set(closure);
+        }
     }
 }
@@ -0,0 +1,405 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A dense index of lots keyed by lot number.
+ *
+ * Lot numbers are handed out in increasing order and are never
+ * reused, so a lot can be stored in the array slot for its number
+ * and found again without searching. A removed lot leaves an empty
+ * slot (a tombstone) behind, which keeps every other lot where it is.
+ *
+ * An index can also hold every n-th lot number only (a stride of n),
+ * as each shard of a ShardedAuction does. The lots are then still
+ * stored densely, without n - 1 empty slots between them.
+ *
+ * Lots are added by one thread at a time, but may be looked up from
+ * any number of threads while that happens.
+ *
+ * An index for an auction that carries lots over from a closed one
+ * (a successor) is made in constant time by sharing the closed
+ * auction's slots rather than copying them. Lot numbers carry on from
+ * where the closed auction stopped, so the successor only ever writes
+ * to slots the closed auction does not use. Below its first own
+ * number it sees only the carried lots, whose numbers it is given as
+ * a PostingList that nobody changes. The first time it must grow, or
+ * remove a carried lot, or when compact is called, it takes a copy of
+ * its own lots only; the closed auction's other lots are then no
+ * longer reachable from it.
+ *
+ * The lots can be walked in order with an iterator, or with a
+ * spliterator that splits the range of slots in half so that a
+ * parallel stream can share the walk between threads. Neither copies
+ * the slots.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class LotIndex implements Iterable<Lot>
+{
+    // The first capacity given to a new index.
+    private static final int INITIAL_CAPACITY = 16;
+    // The fewest slots a spliterator splits in two.
+    private static final int SPLIT_THRESHOLD = 1024;
+
+    // The distance between the lot numbers held by this index.
+    private final int stride;
+    // The lots, stored at index (lot number - 1) / stride. Removed lots leave null.
+    private volatile Lot[] slots;
+    // One more than the highest slot used so far. It is written last
+    // in put, so a reader that sees a slot in use also sees its lot.
+    private volatile int limit;
+    // The number of lots currently in the index.
+    private int size;
+    // The numbers of the lots carried over from a closed auction while
+    // the slots are shared with its index, otherwise null. Lots below
+    // firstNumber are only seen if they are in it. It is read before
+    // the slots, and cleared after private slots have been put in place.
+    private volatile PostingList carried;
+    // The number of the first lot that is this index's own.
+    private final int firstNumber;
+    // True once a successor has been given this index's slots.
+    private boolean handedOver;
+
+    /**
+     * Create an empty index.
+     */
+    public LotIndex()
+    {
+        this(1);
+    }
+
+    /**
+     * Create an empty index for lot numbers that are all the same
+     * distance apart, such as 1, 5, 9 and so on for a stride of 4.
+     * @param stride The distance between lot numbers.
+     */
+    public LotIndex(int stride)
+    {
+        this.stride = stride;
+        slots = new Lot[INITIAL_CAPACITY];
+        limit = 1;
+        size = 0;
+        firstNumber = 1;
+    }
+
+    /**
+     * Create the index of a successor, holding some of the lots of a
+     * closed auction's index.
+     * @param closed The closed auction's index.
+     * @param firstNumber The number of the successor's first own lot,
+     *                    higher than any in the closed index.
+     * @param carried The numbers of the lots to carry over. It must
+     *                not be changed afterwards.
+     * @param share True to share the closed index's slots, false to copy.
+     */
+    private LotIndex(LotIndex closed, int firstNumber, PostingList carried, boolean share)
+    {
+        this.stride = closed.stride;
+        this.firstNumber = firstNumber;
+        this.carried = carried;
+        slots = closed.slots;
+        limit = closed.limit;
+        size = carried.getCardinality();
+        if(!share) {
+            compact();
+        }
+    }
+
+    /**
+     * Make the index of an auction that carries lots over from this
+     * one, which must take no more lots. The first successor shares
+     * this index's slots, so it is made in constant time; any later
+     * one gets a copy, since two successors would write to the same
+     * slots.
+     * @param firstNumber The number of the successor's first own lot,
+     *                    higher than any in this index.
+     * @param carried The numbers of the lots to carry over. It must
+     *                not be changed afterwards.
+     * @return The successor's index.
+     */
+    public synchronized LotIndex successor(int firstNumber, PostingList carried)
+    {
+        boolean share = !handedOver;
+        handedOver = true;
+        return new LotIndex(this, firstNumber, carried, share);
+    }
+
+    /**
+     * Stop sharing slots with a closed auction's index, keeping only
+     * this index's own lots. This takes time in proportion to the
+     * number of slots, and does nothing if the slots are not shared.
+     */
+    public void compact()
+    {
+        PostingList shared = carried;
+        if(shared == null) {
+            return;
+        }
+        int end = limit - 1;
+        Lot[] own = new Lot[slots.length];
+        for(int slot = 0; slot < end; slot++) {
+            Lot lot = slots[slot];
+            if((lot != null) && ((lot.getNumber() >= firstNumber) || shared.contains(lot.getNumber()))) {
+                own[slot] = lot;
+            }
+        }
+        slots = own;
+        carried = null;
+    }
+
+    /**
+     * Add a lot to the index. Any lot already stored under the
+     * same number is replaced.
+     * @param lot The lot to add. Its number must be positive.
+     */
+    public void put(Lot lot)
+    {
+        int slot = (lot.getNumber() - 1) / stride + 1;
+        if(slot >= slots.length + 1) {
+            compact();
+            grow(slot);
+        }
+        if(slots[slot - 1] == null) {
+            size++;
+        }
+        slots[slot - 1] = lot;
+        if(slot >= limit) {
+            limit = slot + 1;
+        }
+    }
+
+    /**
+     * @param number The number of the lot to return.
+     * @return The lot with the given number, or null if there is none.
+     */
+    public Lot get(int number)
+    {
+        if(number < 1) {
+            return null;
+        }
+        int slot = (number - 1) / stride + 1;
+        if(slot >= limit) {
+            return null;
+        }
+        PostingList shared = carried;
+        if((shared != null) && (number < firstNumber) && !shared.contains(number)) {
+            return null;
+        }
+        Lot lot = slots[slot - 1];
+        // With a stride, other numbers share the slot of a lot.
+        return ((lot != null) && (lot.getNumber() == number)) ? lot : null;
+    }
+
+    /**
+     * Remove the lot with the given number, leaving its slot empty.
+     * @param number The number of the lot to remove.
+     * @return The lot that was removed, or null if there was none.
+     */
+    public Lot remove(int number)
+    {
+        Lot lot = get(number);
+        if(lot != null) {
+            // The closed auction still sees its slots.
+            if(number < firstNumber) {
+                compact();
+            }
+            slots[(number - 1) / stride] = null;
+            size--;
+        }
+        return lot;
+    }
+
+    /**
+     * @return The number of lots in the index.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return True if there are no lots in the index.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * @return An iterator over the lots in order of lot number.
+     */
+    public Iterator<Lot> iterator()
+    {
+        final PostingList shared = carried;
+        return new Iterator<Lot>()
+        {
+            // The slot after the next lot to return.
+            private int next = 0;
+            // The next lot to return, or null if there are no more. Kept
+            // as it was read, so a lot removed since is still returned.
+            private Lot lot = advance();
+
+            public boolean hasNext()
+            {
+                return lot != null;
+            }
+
+            public Lot next()
+            {
+                if(!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Lot found = lot;
+                lot = advance();
+                return found;
+            }
+
+            /**
+             * @return The next of the index's lots from the next slot on,
+             *         or null if there is none.
+             */
+            private Lot advance()
+            {
+                while(next < limit - 1) {
+                    Lot candidate = slots[next++];
+                    if(isVisible(candidate, shared, firstNumber)) {
+                        return candidate;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * @return A spliterator over the lots in order of lot number.
+     */
+    public Spliterator<Lot> spliterator()
+    {
+        return spliterator(0);
+    }
+
+    /**
+     * Return a spliterator over the lots numbered after a given number,
+     * in order of lot number. It reads the slots in place and splits by
+     * halving the slots it has left. It covers the lots in the index
+     * when it was made; lots removed after that may or may not be seen.
+     * @param afterNumber Only lots with higher numbers are included, so
+     *                    0 includes every lot.
+     * @return The spliterator.
+     */
+    public Spliterator<Lot> spliterator(int afterNumber)
+    {
+        // Read the carried lots, then the limit, then the slots: the
+        // slots the limit covers are then in the array.
+        PostingList shared = carried;
+        int end = limit - 1;
+        Lot[] lots = slots;
+        int start = Math.min(Math.max(afterNumber, 0) / stride, end);
+        // With a stride, the first slot may hold a lot at or below afterNumber.
+        if((start < end) && (lots[start] != null) && (lots[start].getNumber() <= afterNumber)) {
+            start++;
+        }
+        return new SlotSpliterator(lots, start, end, shared, firstNumber);
+    }
+
+    /**
+     * @param lot The lot in a slot, or null.
+     * @param shared The carried lots if the slots are shared, or null.
+     * @param firstNumber The number of the index's first own lot.
+     * @return True if the lot is one of the index's.
+     */
+    private static boolean isVisible(Lot lot, PostingList shared, int firstNumber)
+    {
+        return (lot != null)
+               && ((shared == null) || (lot.getNumber() >= firstNumber) || shared.contains(lot.getNumber()));
+    }
+
+    /**
+     * Walks a range of slots, skipping the empty ones and, while the
+     * slots are shared, the lots that were not carried over.
+     */
+    private static class SlotSpliterator implements Spliterator<Lot>
+    {
+        // The slots being walked.
+        private final Lot[] lots;
+        // The next slot to look at, and the slot after the last.
+        private int next;
+        private final int end;
+        // The carried lots if the slots are shared, and the first own number.
+        private final PostingList shared;
+        private final int firstNumber;
+
+        private SlotSpliterator(Lot[] lots, int next, int end, PostingList shared, int firstNumber)
+        {
+            this.lots = lots;
+            this.next = next;
+            this.end = end;
+            this.shared = shared;
+            this.firstNumber = firstNumber;
+        }
+
+        public boolean tryAdvance(Consumer<? super Lot> action)
+        {
+            while(next < end) {
+                Lot lot = lots[next++];
+                if(isVisible(lot, shared, firstNumber)) {
+                    action.accept(lot);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public void forEachRemaining(Consumer<? super Lot> action)
+        {
+            for(int slot = next; slot < end; slot++) {
+                Lot lot = lots[slot];
+                if(isVisible(lot, shared, firstNumber)) {
+                    action.accept(lot);
+                }
+            }
+            next = end;
+        }
+
+        public Spliterator<Lot> trySplit()
+        {
+            if(end - next < SPLIT_THRESHOLD) {
+                return null;
+            }
+            int middle = (next + end) >>> 1;
+            Spliterator<Lot> first = new SlotSpliterator(lots, next, middle, shared, firstNumber);
+            next = middle;
+            return first;
+        }
+
+        public long estimateSize()
+        {
+            // Removed lots make this an overestimate.
+            return end - next;
+        }
+
+        public int characteristics()
+        {
+            return ORDERED | DISTINCT | NONNULL;
+        }
+    }
+
+    /**
+     * Make room for a lot in the given slot.
+     * @param slot The slot, counting from 1, that must fit.
+     */
+    private void grow(int slot)
+    {
+        int capacity = slots.length;
+        while(capacity < slot) {
+            capacity *= 2;
+        }
+        Lot[] larger = new Lot[capacity];
+        System.arraycopy(slots, 0, larger, 0, limit - 1);
+        slots = larger;
+    }
+}
@@ -0,0 +1,138 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps the lots of an auction ranked by their highest bid and by the
+ * number of bids made for them, so that the top lots can be listed
+ * without sorting every lot.
+ *
+ * Bidding only marks a lot as changed: the first bid since the lot
+ * was last ranked puts it on a queue, and later bids see the mark and
+ * do nothing more. The lots on the queue are ranked again, in two
+ * sorted trees, when the top lots are next asked for. Listing the top
+ * k lots therefore takes O(d log n + k) time for d changed lots out of
+ * n, and a bid never waits for the trees.
+ *
+ * Lots with no bids are not ranked.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class LotLeaderboard
+{
+    // Highest bid first; lots with the same bid in lot number order.
+    private static final Comparator<Lot> BY_VALUE = new Comparator<Lot>()
+    {
+        public int compare(Lot a, Lot b)
+        {
+            int order = Long.compare(b.getRankedValue(), a.getRankedValue());
+            return (order != 0) ? order : Integer.compare(a.getNumber(), b.getNumber());
+        }
+    };
+    // Most bids first; lots with the same count in lot number order.
+    private static final Comparator<Lot> BY_COUNT = new Comparator<Lot>()
+    {
+        public int compare(Lot a, Lot b)
+        {
+            int order = Integer.compare(b.getRankedCount(), a.getRankedCount());
+            return (order != 0) ? order : Integer.compare(a.getNumber(), b.getNumber());
+        }
+    };
+
+    // The auction's lots, to tell whether a changed lot is still in it.
+    private final LotIndex lots;
+    // Lots that have changed since they were last ranked.
+    private final ConcurrentLinkedQueue<Lot> changed;
+    // The ranked lots.
+    private final TreeSet<Lot> byValue;
+    private final TreeSet<Lot> byCount;
+
+    /**
+     * Create an empty leaderboard.
+     * @param lots The lots of the auction being ranked.
+     */
+    public LotLeaderboard(LotIndex lots)
+    {
+        this.lots = lots;
+        this.changed = new ConcurrentLinkedQueue<Lot>();
+        this.byValue = new TreeSet<Lot>(BY_VALUE);
+        this.byCount = new TreeSet<Lot>(BY_COUNT);
+    }
+
+    /**
+     * Note that a lot has been bid for, so it is ranked again before
+     * the top lots are next listed. Safe to call from any thread.
+     * @param lot The lot.
+     */
+    public void changed(Lot lot)
+    {
+        if(lot.markChanged(Lot.RANKING)) {
+            changed.add(lot);
+        }
+    }
+
+    /**
+     * @param count The most lots to list.
+     * @return The lots with the highest bids, highest first.
+     */
+    public synchronized ArrayList<Lot> getTopByHighestBid(int count)
+    {
+        rankChangedLots();
+        return first(byValue, count);
+    }
+
+    /**
+     * @param count The most lots to list.
+     * @return The lots with the most bids, most first.
+     */
+    public synchronized ArrayList<Lot> getTopByBidCount(int count)
+    {
+        rankChangedLots();
+        return first(byCount, count);
+    }
+
+    /**
+     * Rank again every lot that has changed since it was last ranked,
+     * and drop those that have left the auction.
+     */
+    private void rankChangedLots()
+    {
+        Lot lot;
+        while((lot = changed.poll()) != null) {
+            // Clear the mark first, so a bid made from now on queues
+            // the lot again.
+            lot.clearChanged(Lot.RANKING);
+            byValue.remove(lot);
+            byCount.remove(lot);
+            if(lots.get(lot.getNumber()) != lot) {
+                continue;
+            }
+            Bid highest = lot.getHighestBid();
+            lot.setRanked((highest != null) ? highest.getValue() : 0, lot.getBidCount());
+            if(highest != null) {
+                byValue.add(lot);
+            }
+            if(lot.getRankedCount() > 0) {
+                byCount.add(lot);
+            }
+        }
+    }
+
+    /**
+     * @param ranked Some ranked lots.
+     * @param count The most lots to list.
+     * @return The first lots in the ranking.
+     */
+    private static ArrayList<Lot> first(TreeSet<Lot> ranked, int count)
+    {
+        ArrayList<Lot> top = new ArrayList<Lot>(Math.max(Math.min(count, ranked.size()), 0));
+        Iterator<Lot> it = ranked.iterator();
+        while((top.size() < count) && it.hasNext()) {
+            top.add(it.next());
+        }
+        return top;
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * How the winner of a lot, and the price they pay, are decided.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public enum LotPricing
+{
+    /** Bids are open, each must beat the last, and the highest wins. */
+    ASCENDING,
+    /** Bids are sealed until the lot closes; the highest pays what they bid. */
+    FIRST_PRICE_SEALED,
+    /**
+     * Bids are sealed until the lot closes; the highest pays what the
+     * next highest bidder bid (a Vickrey auction).
+     */
+    SECOND_PRICE_SEALED
+}
@@ -0,0 +1,112 @@
+/**
+ * What a lot looked like when an AuctionView was published: its
+ * number, description, highest bid, bid count and whether it had been
+ * closed. A LotView never changes, so it may be shared between views
+ * and read from any thread.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class LotView
+{
+    // The lot's number.
+    private final int number;
+    // The lot's description.
+    private final String description;
+    // The lot's highest bid, or null if it had none.
+    private final Bid highestBid;
+    // The number of bids made for the lot, accepted or not.
+    private final int bidCount;
+    // How the lot is sold.
+    private final LotPricing pricing;
+    // True if the lot had been closed.
+    private final boolean closed;
+
+    /**
+     * Record what a lot looks like now.
+     * @param lot The lot.
+     */
+    public LotView(Lot lot)
+    {
+        this.number = lot.getNumber();
+        this.description = lot.getDescription();
+        this.highestBid = lot.getHighestBid();
+        this.bidCount = lot.getBidCount();
+        this.pricing = lot.getPricing();
+        this.closed = lot.isClosed();
+    }
+
+    /**
+     * @return The lot's number.
+     */
+    public int getNumber()
+    {
+        return number;
+    }
+
+    /**
+     * @return The lot's description.
+     */
+    public String getDescription()
+    {
+        return description;
+    }
+
+    /**
+     * @return The lot's highest bid. This could be null if there was
+     *         no bid, or if the lot's bids are sealed and it had not
+     *         closed.
+     */
+    public Bid getHighestBid()
+    {
+        return highestBid;
+    }
+
+    /**
+     * @return The number of bids made for the lot, accepted or not.
+     */
+    public int getBidCount()
+    {
+        return bidCount;
+    }
+
+    /**
+     * @return How the lot is sold.
+     */
+    public LotPricing getPricing()
+    {
+        return pricing;
+    }
+
+    /**
+     * @return True if the lot had any bid, sealed or not.
+     */
+    public boolean hasBids()
+    {
+        return (highestBid != null) || (bidCount > 0);
+    }
+
+    /**
+     * @return True if the lot had been closed.
+     */
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     * @return A string representation of the lot's details, as
+     *         Lot.toString gives them.
+     */
+    public String toString()
+    {
+        String details = number + ": " + description;
+        if(highestBid != null) {
+            details += "    Bid: " + highestBid.getValue();
+        }
+        else {
+            details += "    (No bid)";
+        }
+        return details;
+    }
+}
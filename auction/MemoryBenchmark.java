@@ -0,0 +1,105 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compare the heap used per lot, and the time spent in garbage
+ * collection, by Auction and by CompactAuction. Each auction is
+ * filled with lots and every lot gets a bid.
+ *
+ * Run it from the command line, optionally giving the number of lots:
+ *     java -Xmx8g MemoryBenchmark 20000000
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class MemoryBenchmark
+{
+    // The auction being measured, kept reachable until it has been measured.
+    private static Object retained;
+
+    /**
+     * Run the benchmark.
+     * @param args The number of lots.
+     */
+    public static void main(String[] args)
+    {
+        final int lots = (args.length > 0) ? Integer.parseInt(args[0]) : 5000000;
+        final Person[] bidders = new Person[1000];
+        for(int i = 0; i < bidders.length; i++) {
+            bidders[i] = new Person("Bidder " + i);
+        }
+
+        measure("Auction", lots, new Runnable()
+        {
+            public void run()
+            {
+                Auction auction = new Auction();
+                auction.setListener(new NullAuctionListener());
+                for(int i = 0; i < lots; i++) {
+                    auction.enterLot("Lot number " + i);
+                    auction.bidFor(i + 1, bidders[i % bidders.length], i + 1);
+                }
+                retained = auction;
+            }
+        });
+        retained = null;
+
+        measure("CompactAuction", lots, new Runnable()
+        {
+            public void run()
+            {
+                CompactAuction auction = new CompactAuction();
+                for(int i = 0; i < lots; i++) {
+                    auction.enterLot("Lot number " + i);
+                    auction.bidFor(i + 1, bidders[i % bidders.length], i + 1);
+                }
+                retained = auction;
+                System.out.printf("%-16s %,d bytes of descriptions off the heap%n", "", auction.getTextSize());
+            }
+        });
+        retained = null;
+    }
+
+    /**
+     * Build an auction and report its heap use and garbage collection time.
+     * @param name The name of the auction type.
+     * @param lots The number of lots it holds.
+     * @param build Builds the auction and stores it in retained.
+     */
+    private static void measure(String name, int lots, Runnable build)
+    {
+        long before = usedHeap();
+        long gcBefore = gcMillis();
+        long start = System.nanoTime();
+        build.run();
+        long elapsed = System.nanoTime() - start;
+        long gc = gcMillis() - gcBefore;
+        long after = usedHeap();
+        System.out.printf("%-16s %6.1f bytes/lot  build %,6d ms  gc %,6d ms%n",
+                          name, (after - before) / (double) lots, elapsed / 1000000, gc);
+    }
+
+    /**
+     * @return The heap in use after a full collection, in bytes.
+     */
+    private static long usedHeap()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * @return The total time spent in garbage collection so far, in milliseconds.
+     */
+    private static long gcMillis()
+    {
+        long total = 0;
+        for(GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.Random;
+
+/**
+ * Measures what the auction's metrics cost a bid. The same bids, on
+ * lots chosen at random, are made with bids and lookups untimed, as
+ * they are unless asked for, and then with one in SAMPLE_RATE timed.
+ * The metrics gathered are printed at the end.
+ *
+ * To compare with an auction that keeps no metrics at all, run the
+ * bid.uniform benchmark of AuctionBenchmark on a build without them.
+ *
+ * Run it from the command line, optionally giving the number of lots
+ * and the number of bids:
+ *     java MetricsBenchmark 100000 10000000
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class MetricsBenchmark
+{
+    // The number of different bidders.
+    private static final int BIDDERS = 1000;
+
+    /**
+     * Run the benchmark.
+     * @param args The number of lots and the number of bids.
+     */
+    public static void main(String[] args)
+    {
+        int lotCount = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+        int bidCount = (args.length > 1) ? Integer.parseInt(args[1]) : 10000000;
+        Person[] people = new Person[BIDDERS];
+        for(int b = 0; b < BIDDERS; b++) {
+            people[b] = new Person("Bidder " + b);
+        }
+        int[] lotNumbers = new int[bidCount];
+        int[] bidders = new int[bidCount];
+        long[] values = new long[bidCount];
+        Random random = new Random(42);
+        for(int i = 0; i < bidCount; i++) {
+            lotNumbers[i] = 1 + random.nextInt(lotCount);
+            bidders[i] = random.nextInt(BIDDERS);
+            values[i] = 1 + random.nextInt(1000000);
+        }
+        Auction auction = null;
+        // Once to warm up, then again to measure.
+        for(int round = 0; round < 2; round++) {
+            boolean print = (round == 1);
+            run("untimed", false, lotCount, people, lotNumbers, bidders, values, print);
+            auction = run("timed", true, lotCount, people, lotNumbers, bidders, values, print);
+        }
+        System.out.println();
+        System.out.print(auction.getMetrics().toText());
+    }
+
+    /**
+     * Make the bids on a new auction.
+     * @param name The name to print.
+     * @param timing Whether to time bids and lookups.
+     * @param lotCount The number of lots.
+     * @param people The bidders.
+     * @param lotNumbers The lot of each bid.
+     * @param bidders The bidder of each bid.
+     * @param values The value of each bid.
+     * @param print Whether to print the results.
+     * @return The auction the bids were made on.
+     */
+    private static Auction run(String name, boolean timing, int lotCount, Person[] people,
+                               int[] lotNumbers, int[] bidders, long[] values, boolean print)
+    {
+        Auction auction = new Auction();
+        auction.setListener(new NullAuctionListener());
+        for(int i = 0; i < lotCount; i++) {
+            auction.enterLot("Lot " + i);
+        }
+        auction.getMetrics().setTimingEnabled(timing);
+        long start = System.nanoTime();
+        for(int i = 0; i < lotNumbers.length; i++) {
+            auction.bidFor(lotNumbers[i], people[bidders[i]], values[i]);
+        }
+        long bidTime = System.nanoTime() - start;
+        if(print) {
+            System.out.printf("%-8s %,8.1f ns/bid%n", name, (double) bidTime / lotNumbers.length);
+        }
+        return auction;
+    }
+}
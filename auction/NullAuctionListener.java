@@ -0,0 +1,37 @@
+/**
+ * A listener that ignores every event. An auction using it does no
+ * formatting or printing at all.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class NullAuctionListener implements AuctionListener
+{
+    /**
+     * Ignore an accepted bid.
+     * @param lot The lot that was bid for.
+     * @param bid The accepted bid.
+     */
+    public void bidAccepted(Lot lot, Bid bid)
+    {
+    }
+
+    /**
+     * Ignore a rejected bid.
+     * @param lot The lot that was bid for.
+     * @param bid The rejected bid.
+     * @param highestBid The bid that beat it.
+     */
+    public void bidRejected(Lot lot, Bid bid, Bid highestBid)
+    {
+    }
+
+    /**
+     * Ignore a closed lot.
+     * @param lot The lot that was closed.
+     * @param winningBid The bid that won the lot, or null.
+     */
+    public void lotClosed(Lot lot, Bid winningBid)
+    {
+    }
+}
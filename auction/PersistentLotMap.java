@@ -0,0 +1,245 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable map from lot number to LotView, kept as a radix trie
+ * of 32-way nodes, like a persistent vector with holes. A lot is
+ * found by taking five bits of its number at each level, so a lookup
+ * touches at most seven nodes and needs no lock.
+ *
+ * Changing the map makes a new one. Only the nodes on the paths to
+ * the changed lots are copied; every other node is shared with the
+ * old map, which is left as it was. A batch of d changes to a map of
+ * n lots therefore costs O(d log n) time and space, however large n.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class PersistentLotMap implements Iterable<LotView>
+{
+    // The number of bits of a lot number used at each level.
+    private static final int BITS = 5;
+    // The number of children of a node.
+    private static final int WIDTH = 1 << BITS;
+    // Picks out the bits used at one level.
+    private static final int MASK = WIDTH - 1;
+    // The map with no lots.
+    private static final PersistentLotMap EMPTY = new PersistentLotMap(null, 0, 0);
+
+    // The top node, or null if the map is empty. Below the leaves,
+    // whose entries are LotViews, every entry is a node or null.
+    private final Object[] root;
+    // How far to shift a lot number to find its entry in the root.
+    private final int shift;
+    // The number of lots in the map.
+    private final int size;
+
+    private PersistentLotMap(Object[] root, int shift, int size)
+    {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    /**
+     * @return The map with no lots.
+     */
+    public static PersistentLotMap empty()
+    {
+        return EMPTY;
+    }
+
+    /**
+     * @param number A lot number.
+     * @return The view of the lot with that number, or null if there is none.
+     */
+    public LotView get(int number)
+    {
+        if((number < 0) || (root == null) || ((shift < 30) && ((number >>> shift) >= WIDTH))) {
+            return null;
+        }
+        Object[] node = root;
+        for(int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(number >>> level) & MASK];
+            if(node == null) {
+                return null;
+            }
+        }
+        return (LotView) node[number & MASK];
+    }
+
+    /**
+     * @return The number of lots in the map.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Make a map with some lots added, replaced or removed.
+     * @param numbers The lot numbers, in increasing order, each once.
+     * @param views The view to store for each number, or null to
+     *              remove the lot with that number.
+     * @param count The number of changes.
+     * @return The changed map. This map is not changed.
+     */
+    public PersistentLotMap with(int[] numbers, LotView[] views, int count)
+    {
+        if(count == 0) {
+            return this;
+        }
+        Object[] top = root;
+        int level = shift;
+        // Add levels above the root until the highest number fits.
+        int highest = numbers[count - 1];
+        while((level < 30) && ((highest >>> level) >= WIDTH)) {
+            if(top != null) {
+                Object[] above = new Object[WIDTH];
+                above[0] = top;
+                top = above;
+            }
+            level += BITS;
+        }
+        int[] change = new int[1];
+        top = update(top, level, numbers, views, 0, count, change);
+        return (top == null) ? EMPTY : new PersistentLotMap(top, level, size + change[0]);
+    }
+
+    /**
+     * Copy a node, and the nodes below it, with changes made.
+     * @param node The node, or null if there is none yet.
+     * @param level The shift for this node's entries.
+     * @param numbers The lot numbers being changed.
+     * @param views The views to store.
+     * @param from The first change under this node.
+     * @param to The change after the last one under this node.
+     * @param change Adds the change in the number of lots.
+     * @return The new node, or null if it is left empty.
+     */
+    private static Object[] update(Object[] node, int level, int[] numbers, LotView[] views,
+                                   int from, int to, int[] change)
+    {
+        Object[] copy = (node != null) ? node.clone() : new Object[WIDTH];
+        if(level == 0) {
+            for(int i = from; i < to; i++) {
+                int index = numbers[i] & MASK;
+                change[0] += ((views[i] != null) ? 1 : 0) - ((copy[index] != null) ? 1 : 0);
+                copy[index] = views[i];
+            }
+        }
+        else {
+            int i = from;
+            while(i < to) {
+                int index = (numbers[i] >>> level) & MASK;
+                int j = i + 1;
+                while((j < to) && (((numbers[j] >>> level) & MASK) == index)) {
+                    j++;
+                }
+                copy[index] = update((Object[]) copy[index], level - BITS, numbers, views, i, j, change);
+                i = j;
+            }
+        }
+        for(Object entry : copy) {
+            if(entry != null) {
+                return copy;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return An iterator over the views in the map, in lot number order.
+     */
+    public Iterator<LotView> iterator()
+    {
+        return new Iterator<LotView>()
+        {
+            // The node being walked at each level, from the root down,
+            // and the next entry to look at in each.
+            private final Object[][] nodes = new Object[shift / BITS + 1][];
+            private final int[] next = new int[shift / BITS + 1];
+            // How many levels are being walked, and the next view to return.
+            private int depth = (root != null) ? 1 : 0;
+            private LotView view;
+
+            {
+                nodes[0] = root;
+                view = find();
+            }
+
+            public boolean hasNext()
+            {
+                return view != null;
+            }
+
+            public LotView next()
+            {
+                if(view == null) {
+                    throw new NoSuchElementException();
+                }
+                LotView current = view;
+                view = find();
+                return current;
+            }
+
+            /**
+             * @return The next view, or null if there are no more.
+             */
+            private LotView find()
+            {
+                while(depth > 0) {
+                    int top = depth - 1;
+                    Object[] node = nodes[top];
+                    if(next[top] == WIDTH) {
+                        depth--;
+                        continue;
+                    }
+                    Object entry = node[next[top]++];
+                    if(entry instanceof LotView) {
+                        return (LotView) entry;
+                    }
+                    if(entry != null) {
+                        nodes[depth] = (Object[]) entry;
+                        next[depth] = 0;
+                        depth++;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Sort a batch of changes by lot number, keeping the last change
+     * made to each lot.
+     * @param numbers The lot number of each change, in the order made.
+     * @param views The view for each change, or null for a removal.
+     * @param count The number of changes.
+     * @return The number of changes left, which are now at the start
+     *         of the arrays in increasing order of lot number.
+     */
+    static int sortChanges(int[] numbers, LotView[] views, int count)
+    {
+        // Sort by number and then by the order made, in one key.
+        long[] keys = new long[count];
+        for(int i = 0; i < count; i++) {
+            keys[i] = ((long) numbers[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        LotView[] made = Arrays.copyOf(views, count);
+        int kept = 0;
+        for(int i = 0; i < count; i++) {
+            int number = (int) (keys[i] >>> 32);
+            if((i + 1 < count) && ((int) (keys[i + 1] >>> 32) == number)) {
+                // A later change to the same lot follows.
+                continue;
+            }
+            numbers[kept] = number;
+            views[kept] = made[(int) keys[i]];
+            kept++;
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,156 @@
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures the latency of bids made by many threads at once, first
+ * calling Auction.bidFor directly from every thread and then going
+ * through an AuctionPipeline. For a direct bid the latency is the time
+ * bidFor takes; for a pipelined bid it is the time from submitting the
+ * bid to its callback running on the writer thread. The median, 99th
+ * and 99.9th percentiles and the throughput are reported.
+ *
+ * The producers bid as fast as they can, so the pipeline's ring stays
+ * full and a pipelined bid waits behind a full ring of others. Its
+ * latency therefore grows with the ring's capacity.
+ *
+ * Run it from the command line, optionally giving the number of
+ * producer threads, the number of bids each makes and the capacity
+ * of the ring:
+ *     java PipelineBenchmark 32 100000 1024
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class PipelineBenchmark
+{
+    // The number of producer threads used when none is given.
+    private static final int DEFAULT_PRODUCERS = 32;
+    // The number of bids each producer makes when none is given.
+    private static final int DEFAULT_BIDS = 50000;
+    // The number of lots bid for.
+    private static final int LOTS = 10000;
+    // The number of commands that can wait in the pipeline when none is given.
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Run the benchmark.
+     * @param args The number of producer threads, the number of bids
+     *             each makes and the capacity of the ring. The defaults
+     *             are used for anything left out.
+     */
+    public static void main(String[] args) throws InterruptedException
+    {
+        int producers = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PRODUCERS;
+        int bids = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_BIDS;
+        int capacity = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_CAPACITY;
+        // Run each once to warm up, then again to measure.
+        run(0, producers, bids, new LatencyHistogram());
+        report("direct", producers, bids, 0);
+        run(capacity, producers, bids, new LatencyHistogram());
+        report("pipeline", producers, bids, capacity);
+    }
+
+    /**
+     * Run one measured round and print its results.
+     * @param name The name to print.
+     * @param producers The number of producer threads.
+     * @param bids The number of bids each producer makes.
+     * @param capacity The capacity of the pipeline's ring, or 0 to
+     *                 call bidFor directly.
+     */
+    private static void report(String name, int producers, int bids, int capacity)
+        throws InterruptedException
+    {
+        LatencyHistogram latency = new LatencyHistogram();
+        long elapsed = run(capacity, producers, bids, latency);
+        double bidsPerSecond = latency.getCount() / (elapsed / 1e9);
+        System.out.printf("%-9s %3d producers: p50 %,9d ns  p99 %,11d ns  p999 %,12d ns  max %,13d ns  %,12.0f bids/s%n",
+                          name, producers, latency.getPercentile(50), latency.getPercentile(99),
+                          latency.getPercentile(99.9), latency.getMax(), bidsPerSecond);
+    }
+
+    /**
+     * Have several threads bid random values for random lots.
+     * @param capacity The capacity of the pipeline's ring, or 0 to
+     *                 call bidFor directly.
+     * @param producers The number of producer threads.
+     * @param bids The number of bids each producer makes.
+     * @param latency Receives the latency of every bid, in nanoseconds.
+     * @return The time taken, in nanoseconds, until every bid was applied.
+     */
+    private static long run(int capacity, int producers, final int bids, final LatencyHistogram latency)
+        throws InterruptedException
+    {
+        final Auction auction = new Auction();
+        auction.setListener(new NullAuctionListener());
+        for(int i = 0; i < LOTS; i++) {
+            auction.enterLot("Lot " + i);
+        }
+        final AuctionPipeline pipeline = (capacity > 0) ? new AuctionPipeline(auction, capacity) : null;
+        final AuctionPipeline.Callback record = new AuctionPipeline.Callback()
+        {
+            public void completed(long tag, boolean result)
+            {
+                latency.record(System.nanoTime() - tag);
+            }
+
+            public void failed(long tag, RuntimeException exception)
+            {
+                throw exception;
+            }
+        };
+
+        final CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> threads = new ArrayList<Thread>();
+        for(int t = 0; t < producers; t++) {
+            final Person bidder = new Person("Producer " + t);
+            Thread thread = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    awaitQuietly(start);
+                    for(int i = 0; i < bids; i++) {
+                        int lot = random.nextInt(LOTS) + 1;
+                        long value = random.nextLong(1, Long.MAX_VALUE);
+                        long begin = System.nanoTime();
+                        if(pipeline != null) {
+                            pipeline.submitBid(lot, bidder, value, begin, record);
+                        }
+                        else {
+                            auction.bidFor(lot, bidder, value);
+                            latency.record(System.nanoTime() - begin);
+                        }
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for(Thread thread : threads) {
+            thread.join();
+        }
+        if(pipeline != null) {
+            pipeline.close();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    /**
+     * Wait for the latch, ignoring interruptions.
+     * @param latch The latch to wait for.
+     */
+    private static void awaitQuietly(CountDownLatch latch)
+    {
+        try {
+            latch.await();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,534 @@
+import java.util.Arrays;
+
+/**
+ * A compressed set of lot numbers, in the style of a roaring bitmap.
+ *
+ * The numbers are grouped by their top 16 bits, and the bottom 16 bits
+ * of each group are kept in a container of one of two kinds. A group
+ * of up to 4,096 numbers is a sorted array of chars, two bytes a
+ * number. A larger group is a bitmap of 65,536 bits, 8KB however full
+ * it is. So a set of scattered numbers costs about two bytes a number,
+ * and a dense run of numbers about one bit a number.
+ *
+ * Intersections and unions work a container at a time, choosing the
+ * method by the kinds of the two containers: merging two arrays,
+ * probing a bitmap for each number of an array, or combining two
+ * bitmaps a word at a time.
+ *
+ * A posting list is not safe to change from several threads at once.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class PostingList
+{
+    // The most numbers an array container holds; a fuller one is a bitmap.
+    private static final int ARRAY_LIMIT = 4096;
+    // A bitmap that falls to this many numbers becomes an array again.
+    // It is well below ARRAY_LIMIT so a container that is added to and
+    // removed from around the limit is not converted every time.
+    private static final int BITMAP_FLOOR = ARRAY_LIMIT / 2;
+    // The number of longs in a bitmap container.
+    private static final int BITMAP_WORDS = 1 << 10;
+    // The first capacity of a new array container.
+    private static final int INITIAL_ARRAY = 4;
+
+    // The top 16 bits of the numbers in each container, in increasing order.
+    private char[] keys;
+    // The containers: a char[] of sorted bottom bits, or a long[] bitmap.
+    private Object[] containers;
+    // The number of numbers in each container.
+    private int[] counts;
+    // The number of containers in use.
+    private int size;
+
+    /**
+     * Create an empty posting list.
+     */
+    public PostingList()
+    {
+        this(1);
+    }
+
+    /**
+     * Create an empty posting list with room for some containers.
+     * @param capacity The number of containers to make room for.
+     */
+    private PostingList(int capacity)
+    {
+        keys = new char[capacity];
+        containers = new Object[capacity];
+        counts = new int[capacity];
+        size = 0;
+    }
+
+    /**
+     * Add a number.
+     * @param number A non-negative number.
+     * @return True if it was added, false if it was already there.
+     */
+    public boolean add(int number)
+    {
+        char key = (char) (number >>> 16);
+        char low = (char) number;
+        int index = find(key);
+        if(index < 0) {
+            index = -index - 1;
+            char[] array = new char[INITIAL_ARRAY];
+            array[0] = low;
+            insertContainer(index, key, array, 1);
+            return true;
+        }
+        Object container = containers[index];
+        if(container instanceof long[]) {
+            long[] bitmap = (long[]) container;
+            long bit = 1L << low;
+            if((bitmap[low >>> 6] & bit) != 0) {
+                return false;
+            }
+            bitmap[low >>> 6] |= bit;
+            counts[index]++;
+            return true;
+        }
+        char[] array = (char[]) container;
+        int count = counts[index];
+        int at = Arrays.binarySearch(array, 0, count, low);
+        if(at >= 0) {
+            return false;
+        }
+        at = -at - 1;
+        if(count == ARRAY_LIMIT) {
+            long[] bitmap = toBitmap(array, count);
+            bitmap[low >>> 6] |= 1L << low;
+            containers[index] = bitmap;
+        }
+        else {
+            if(count == array.length) {
+                array = Arrays.copyOf(array, Math.min(count * 2, ARRAY_LIMIT));
+                containers[index] = array;
+            }
+            System.arraycopy(array, at, array, at + 1, count - at);
+            array[at] = low;
+        }
+        counts[index]++;
+        return true;
+    }
+
+    /**
+     * Remove a number.
+     * @param number A number.
+     * @return True if it was removed, false if it was not there.
+     */
+    public boolean remove(int number)
+    {
+        int index = find((char) (number >>> 16));
+        if(index < 0) {
+            return false;
+        }
+        char low = (char) number;
+        Object container = containers[index];
+        if(container instanceof long[]) {
+            long[] bitmap = (long[]) container;
+            long bit = 1L << low;
+            if((bitmap[low >>> 6] & bit) == 0) {
+                return false;
+            }
+            bitmap[low >>> 6] &= ~bit;
+            counts[index]--;
+            if(counts[index] <= BITMAP_FLOOR) {
+                containers[index] = toArray(bitmap, counts[index]);
+            }
+            return true;
+        }
+        char[] array = (char[]) container;
+        int count = counts[index];
+        int at = Arrays.binarySearch(array, 0, count, low);
+        if(at < 0) {
+            return false;
+        }
+        System.arraycopy(array, at + 1, array, at, count - at - 1);
+        counts[index]--;
+        if(counts[index] == 0) {
+            removeContainer(index);
+        }
+        return true;
+    }
+
+    /**
+     * @param number A number.
+     * @return True if the number is in the list.
+     */
+    public boolean contains(int number)
+    {
+        int index = find((char) (number >>> 16));
+        if(index < 0) {
+            return false;
+        }
+        char low = (char) number;
+        Object container = containers[index];
+        if(container instanceof long[]) {
+            return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, 0, counts[index], low) >= 0;
+    }
+
+    /**
+     * @return The number of numbers in the list.
+     */
+    public int getCardinality()
+    {
+        int total = 0;
+        for(int i = 0; i < size; i++) {
+            total += counts[i];
+        }
+        return total;
+    }
+
+    /**
+     * @return True if the list has no numbers.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * @return The numbers in the list, in increasing order.
+     */
+    public int[] toArray()
+    {
+        int[] numbers = new int[getCardinality()];
+        int next = 0;
+        for(int i = 0; i < size; i++) {
+            int high = keys[i] << 16;
+            Object container = containers[i];
+            if(container instanceof long[]) {
+                long[] bitmap = (long[]) container;
+                for(int word = 0; word < BITMAP_WORDS; word++) {
+                    long bits = bitmap[word];
+                    while(bits != 0) {
+                        numbers[next++] = high | (word << 6) | Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                    }
+                }
+            }
+            else {
+                char[] array = (char[]) container;
+                for(int j = 0; j < counts[i]; j++) {
+                    numbers[next++] = high | array[j];
+                }
+            }
+        }
+        return numbers;
+    }
+
+    /**
+     * @return A copy of this list, which can be changed separately.
+     */
+    public PostingList copy()
+    {
+        PostingList copy = new PostingList(Math.max(size, 1));
+        for(int i = 0; i < size; i++) {
+            Object container = containers[i];
+            Object copied = (container instanceof long[]) ? ((long[]) container).clone()
+                                                           : Arrays.copyOf((char[]) container, counts[i]);
+            copy.appendContainer(keys[i], copied, counts[i]);
+        }
+        return copy;
+    }
+
+    /**
+     * @param other Another posting list.
+     * @return A new list of the numbers in both this list and the other.
+     */
+    public PostingList and(PostingList other)
+    {
+        PostingList result = new PostingList(Math.max(Math.min(size, other.size), 1));
+        int i = 0;
+        int j = 0;
+        while((i < size) && (j < other.size)) {
+            if(keys[i] < other.keys[j]) {
+                i++;
+            }
+            else if(keys[i] > other.keys[j]) {
+                j++;
+            }
+            else {
+                result.appendAnd(keys[i], containers[i], counts[i], other.containers[j], other.counts[j]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param other Another posting list.
+     * @return A new list of the numbers in either this list or the other.
+     */
+    public PostingList or(PostingList other)
+    {
+        PostingList result = new PostingList(Math.max(size + other.size, 1));
+        int i = 0;
+        int j = 0;
+        while((i < size) || (j < other.size)) {
+            if((j == other.size) || ((i < size) && (keys[i] < other.keys[j]))) {
+                result.appendContainer(keys[i], copyOf(containers[i], counts[i]), counts[i]);
+                i++;
+            }
+            else if((i == size) || (keys[i] > other.keys[j])) {
+                result.appendContainer(other.keys[j], copyOf(other.containers[j], other.counts[j]),
+                                       other.counts[j]);
+                j++;
+            }
+            else {
+                result.appendOr(keys[i], containers[i], counts[i], other.containers[j], other.counts[j]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add the intersection of two containers with the same key, if it
+     * is not empty, after the containers already in this list.
+     * @param key The key of both containers.
+     * @param a One container.
+     * @param countA The number of numbers in it.
+     * @param b The other container.
+     * @param countB The number of numbers in it.
+     */
+    private void appendAnd(char key, Object a, int countA, Object b, int countB)
+    {
+        if((a instanceof long[]) && (b instanceof long[])) {
+            long[] x = (long[]) a;
+            long[] y = (long[]) b;
+            long[] bitmap = new long[BITMAP_WORDS];
+            int count = 0;
+            for(int word = 0; word < BITMAP_WORDS; word++) {
+                bitmap[word] = x[word] & y[word];
+                count += Long.bitCount(bitmap[word]);
+            }
+            if(count > ARRAY_LIMIT) {
+                appendContainer(key, bitmap, count);
+            }
+            else if(count > 0) {
+                appendContainer(key, toArray(bitmap, count), count);
+            }
+            return;
+        }
+        if(a instanceof long[]) {
+            // Probe the bitmap with each number of the array.
+            Object swap = a;
+            a = b;
+            b = swap;
+            int swapCount = countA;
+            countA = countB;
+            countB = swapCount;
+        }
+        char[] array = (char[]) a;
+        char[] result = new char[Math.min(countA, countB)];
+        int count = 0;
+        if(b instanceof long[]) {
+            long[] bitmap = (long[]) b;
+            for(int i = 0; i < countA; i++) {
+                char low = array[i];
+                if((bitmap[low >>> 6] & (1L << low)) != 0) {
+                    result[count++] = low;
+                }
+            }
+        }
+        else {
+            char[] other = (char[]) b;
+            int i = 0;
+            int j = 0;
+            while((i < countA) && (j < countB)) {
+                if(array[i] < other[j]) {
+                    i++;
+                }
+                else if(array[i] > other[j]) {
+                    j++;
+                }
+                else {
+                    result[count++] = array[i];
+                    i++;
+                    j++;
+                }
+            }
+        }
+        if(count > 0) {
+            appendContainer(key, result, count);
+        }
+    }
+
+    /**
+     * Add the union of two containers with the same key after the
+     * containers already in this list.
+     * @param key The key of both containers.
+     * @param a One container.
+     * @param countA The number of numbers in it.
+     * @param b The other container.
+     * @param countB The number of numbers in it.
+     */
+    private void appendOr(char key, Object a, int countA, Object b, int countB)
+    {
+        if((a instanceof long[]) || (b instanceof long[])) {
+            long[] bitmap;
+            if(a instanceof long[]) {
+                bitmap = ((long[]) a).clone();
+            }
+            else {
+                bitmap = toBitmap((char[]) a, countA);
+            }
+            if(b instanceof long[]) {
+                long[] other = (long[]) b;
+                for(int word = 0; word < BITMAP_WORDS; word++) {
+                    bitmap[word] |= other[word];
+                }
+            }
+            else {
+                char[] other = (char[]) b;
+                for(int i = 0; i < countB; i++) {
+                    bitmap[other[i] >>> 6] |= 1L << other[i];
+                }
+            }
+            int count = 0;
+            for(int word = 0; word < BITMAP_WORDS; word++) {
+                count += Long.bitCount(bitmap[word]);
+            }
+            appendContainer(key, bitmap, count);
+            return;
+        }
+        char[] x = (char[]) a;
+        char[] y = (char[]) b;
+        char[] result = new char[countA + countB];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while((i < countA) || (j < countB)) {
+            if((j == countB) || ((i < countA) && (x[i] < y[j]))) {
+                result[count++] = x[i++];
+            }
+            else if((i == countA) || (x[i] > y[j])) {
+                result[count++] = y[j++];
+            }
+            else {
+                result[count++] = x[i];
+                i++;
+                j++;
+            }
+        }
+        if(count > ARRAY_LIMIT) {
+            appendContainer(key, toBitmap(result, count), count);
+        }
+        else {
+            appendContainer(key, result, count);
+        }
+    }
+
+    /**
+     * @param key The top 16 bits of some numbers.
+     * @return The index of the container for the key, or (-(insertion
+     *         point) - 1) if there is none.
+     */
+    private int find(char key)
+    {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    /**
+     * Put a container into the list at the given index.
+     * @param index Where to put it.
+     * @param key The top 16 bits of its numbers.
+     * @param container The container.
+     * @param count The number of numbers in it.
+     */
+    private void insertContainer(int index, char key, Object container, int count)
+    {
+        if(size == keys.length) {
+            int capacity = Math.max(size * 2, 1);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        System.arraycopy(counts, index, counts, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        counts[index] = count;
+        size++;
+    }
+
+    /**
+     * Put a container after the containers already in the list. Its key
+     * must be higher than theirs.
+     * @param key The top 16 bits of its numbers.
+     * @param container The container.
+     * @param count The number of numbers in it.
+     */
+    private void appendContainer(char key, Object container, int count)
+    {
+        insertContainer(size, key, container, count);
+    }
+
+    /**
+     * Take the container at the given index out of the list.
+     * @param index The index of the container.
+     */
+    private void removeContainer(int index)
+    {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        System.arraycopy(counts, index + 1, counts, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    /**
+     * @param container A container.
+     * @param count The number of numbers in it.
+     * @return A copy of the container.
+     */
+    private static Object copyOf(Object container, int count)
+    {
+        if(container instanceof long[]) {
+            return ((long[]) container).clone();
+        }
+        return Arrays.copyOf((char[]) container, count);
+    }
+
+    /**
+     * @param array The numbers of an array container.
+     * @param count How many there are.
+     * @return A bitmap container holding the same numbers.
+     */
+    private static long[] toBitmap(char[] array, int count)
+    {
+        long[] bitmap = new long[BITMAP_WORDS];
+        for(int i = 0; i < count; i++) {
+            bitmap[array[i] >>> 6] |= 1L << array[i];
+        }
+        return bitmap;
+    }
+
+    /**
+     * @param bitmap A bitmap container.
+     * @param count How many numbers it holds.
+     * @return An array container holding the same numbers.
+     */
+    private static char[] toArray(long[] bitmap, int count)
+    {
+        char[] array = new char[Math.max(count, INITIAL_ARRAY)];
+        int next = 0;
+        for(int word = 0; word < BITMAP_WORDS; word++) {
+            long bits = bitmap[word];
+            while(bits != 0) {
+                array[next++] = (char) ((word << 6) | Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return array;
+    }
+}
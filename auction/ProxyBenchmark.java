@@ -0,0 +1,180 @@
+import java.util.Random;
+
+/**
+ * Compares bidding by hand with proxy bidding on contested lots. Every
+ * bidder wants every lot and has a limit for each. Bidding by hand,
+ * each bidder who has been outbid bids one increment more, in turn,
+ * until no one will go higher. With proxies, each bidder makes one
+ * proxy bid of their limit and the auction resolves them. The number
+ * of bids placed, the time taken, and whether the same bidders won
+ * are reported.
+ *
+ * Run it from the command line, optionally giving the number of lots,
+ * the number of bidders per lot and the bid increment:
+ *     java ProxyBenchmark 10000 20 5
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class ProxyBenchmark
+{
+    // The largest limit a bidder may have.
+    private static final int MAXIMUM_LIMIT = 10000;
+
+    /**
+     * Run the benchmark.
+     * @param args The number of lots, the number of bidders per lot
+     *             and the bid increment.
+     */
+    public static void main(String[] args)
+    {
+        int lotCount = (args.length > 0) ? Integer.parseInt(args[0]) : 10000;
+        int bidderCount = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+        int increment = (args.length > 2) ? Integer.parseInt(args[2]) : 5;
+        Person[] people = new Person[bidderCount];
+        for(int b = 0; b < bidderCount; b++) {
+            people[b] = new Person("Bidder " + b);
+        }
+        long[][] limits = new long[lotCount][bidderCount];
+        Random random = new Random(42);
+        for(int lot = 0; lot < lotCount; lot++) {
+            for(int b = 0; b < bidderCount; b++) {
+                limits[lot][b] = 1 + random.nextInt(MAXIMUM_LIMIT);
+            }
+        }
+        // Once to warm up, then again to measure.
+        run(people, limits, increment, false);
+        run(people, limits, increment, true);
+    }
+
+    /**
+     * Run both kinds of bidding on auctions of their own.
+     * @param people The bidders.
+     * @param limits Each bidder's limit for each lot.
+     * @param increment The bid increment.
+     * @param print Whether to print the results.
+     */
+    private static void run(Person[] people, long[][] limits, int increment, boolean print)
+    {
+        int lotCount = limits.length;
+        Auction byHand = newAuction(lotCount, increment);
+        long start = System.nanoTime();
+        long handBids = 0;
+        for(int lot = 0; lot < lotCount; lot++) {
+            handBids += bidByHand(byHand, lot + 1, people, limits[lot], increment);
+        }
+        long handTime = System.nanoTime() - start;
+
+        Auction byProxy = newAuction(lotCount, increment);
+        CountingListener counted = new CountingListener();
+        byProxy.setListener(counted);
+        start = System.nanoTime();
+        for(int lot = 0; lot < lotCount; lot++) {
+            for(int b = 0; b < people.length; b++) {
+                byProxy.proxyBidFor(lot + 1, people[b], limits[lot][b]);
+            }
+        }
+        long proxyTime = System.nanoTime() - start;
+
+        int sameWinner = 0;
+        for(int number = 1; number <= lotCount; number++) {
+            if(byHand.getLot(number).getHighestBid().getBidder()
+               == byProxy.getLot(number).getHighestBid().getBidder()) {
+                sameWinner++;
+            }
+        }
+        if(print) {
+            System.out.printf("%,d lots, %d bidders each, increment %d%n", lotCount, people.length, increment);
+            System.out.printf("by hand   %,12d bids %,8.1f ms%n", handBids, handTime / 1e6);
+            System.out.printf("by proxy  %,12d bids %,8.1f ms (%,d proxy bids)%n",
+                              counted.bids, proxyTime / 1e6, (long) lotCount * people.length);
+            System.out.printf("same winner on %,d of %,d lots%n", sameWinner, lotCount);
+        }
+    }
+
+    /**
+     * @param lotCount The number of lots.
+     * @param increment The bid increment.
+     * @return A silent auction with that many lots.
+     */
+    private static Auction newAuction(int lotCount, int increment)
+    {
+        Auction auction = new Auction();
+        auction.setListener(new NullAuctionListener());
+        auction.setBidIncrement(increment);
+        for(int i = 0; i < lotCount; i++) {
+            auction.enterLot("Lot " + i);
+        }
+        return auction;
+    }
+
+    /**
+     * Have the bidders take turns bidding for a lot, each bidding one
+     * increment over the highest bid while that is within their limit,
+     * until none of them will bid.
+     * @param auction The auction.
+     * @param number The lot number.
+     * @param people The bidders.
+     * @param limits Each bidder's limit for the lot.
+     * @param increment The bid increment.
+     * @return The number of bids made.
+     */
+    private static long bidByHand(Auction auction, int number, Person[] people, long[] limits, int increment)
+    {
+        Lot lot = auction.getLot(number);
+        long bids = 0;
+        boolean bidding = true;
+        while(bidding) {
+            bidding = false;
+            for(int b = 0; b < people.length; b++) {
+                Bid highest = lot.getHighestBid();
+                long value = (highest != null) ? highest.getValue() + increment : increment;
+                if(((highest == null) || (highest.getBidder() != people[b])) && (value <= limits[b])) {
+                    auction.bidFor(number, people[b], value);
+                    bids++;
+                    bidding = true;
+                }
+            }
+        }
+        return bids;
+    }
+
+    /**
+     * Counts the bids an auction places.
+     */
+    private static class CountingListener implements AuctionListener
+    {
+        // The number of bids placed.
+        private long bids;
+
+        /**
+         * Count an accepted bid.
+         * @param lot The lot that was bid for.
+         * @param bid The accepted bid.
+         */
+        public void bidAccepted(Lot lot, Bid bid)
+        {
+            bids++;
+        }
+
+        /**
+         * Count a rejected bid.
+         * @param lot The lot that was bid for.
+         * @param bid The rejected bid.
+         * @param highestBid The bid that beat it.
+         */
+        public void bidRejected(Lot lot, Bid bid, Bid highestBid)
+        {
+            bids++;
+        }
+
+        /**
+         * Ignore a closed lot.
+         * @param lot The lot that was closed.
+         * @param winningBid The bid that won the lot, or null.
+         */
+        public void lotClosed(Lot lot, Bid winningBid)
+        {
+        }
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.TreeSet;
+
+/**
+ * The proxy bids registered for one lot. A proxy bid is the most a
+ * bidder is willing to pay; the auction bids for them, only as much as
+ * it takes to beat the other bidders.
+ *
+ * The proxies are kept in a sorted tree, highest maximum first and,
+ * between equal maximums, the earliest first, since the earlier proxy
+ * wins a tie. The leading proxy and its nearest rival are the first
+ * two entries, so both can be found, and a proxy added or raised, in
+ * O(log p) time for p proxies.
+ *
+ * A proxy book is locked while it is used: whoever holds its lock may
+ * resolve its proxies against the lot's highest bid.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class ProxyBook
+{
+    /**
+     * One bidder's proxy bid.
+     */
+    public static class Proxy
+    {
+        // The bidder, the most they will pay, and when the proxy was made.
+        private final Person bidder;
+        private final long maximum;
+        private final long sequence;
+
+        private Proxy(Person bidder, long maximum, long sequence)
+        {
+            this.bidder = bidder;
+            this.maximum = maximum;
+            this.sequence = sequence;
+        }
+
+        /**
+         * @return The bidder.
+         */
+        public Person getBidder()
+        {
+            return bidder;
+        }
+
+        /**
+         * @return The most the bidder will pay.
+         */
+        public long getMaximum()
+        {
+            return maximum;
+        }
+    }
+
+    // Highest maximum first, then the earliest.
+    private static final Comparator<Proxy> BY_MAXIMUM = new Comparator<Proxy>()
+    {
+        public int compare(Proxy a, Proxy b)
+        {
+            int order = Long.compare(b.maximum, a.maximum);
+            return (order != 0) ? order : Long.compare(a.sequence, b.sequence);
+        }
+    };
+
+    // The proxies, best first.
+    private final TreeSet<Proxy> proxies;
+    // Each bidder's proxy.
+    private final HashMap<Person, Proxy> byBidder;
+    // The sequence number of the next proxy.
+    private long nextSequence;
+
+    /**
+     * Create an empty proxy book.
+     */
+    public ProxyBook()
+    {
+        proxies = new TreeSet<Proxy>(BY_MAXIMUM);
+        byBidder = new HashMap<Person, Proxy>();
+        nextSequence = 0;
+    }
+
+    /**
+     * Add a bidder's proxy, or raise the one they have. A proxy can be
+     * raised but not lowered. A raised proxy keeps its place among
+     * equal maximums.
+     * @param bidder The bidder.
+     * @param maximum The most they will pay.
+     * @return True if the proxy was added or raised.
+     */
+    public synchronized boolean register(Person bidder, long maximum)
+    {
+        Proxy old = byBidder.get(bidder);
+        if((old != null) && (old.maximum >= maximum)) {
+            return false;
+        }
+        long sequence = nextSequence++;
+        if(old != null) {
+            proxies.remove(old);
+            sequence = old.sequence;
+        }
+        Proxy proxy = new Proxy(bidder, maximum, sequence);
+        proxies.add(proxy);
+        byBidder.put(bidder, proxy);
+        return true;
+    }
+
+    /**
+     * @return The proxy with the highest maximum, or null if there is none.
+     */
+    public synchronized Proxy getLeader()
+    {
+        return proxies.isEmpty() ? null : proxies.first();
+    }
+
+    /**
+     * @return The proxy with the next highest maximum after the leader,
+     *         or null if there is none.
+     */
+    public synchronized Proxy getRunnerUp()
+    {
+        return proxies.isEmpty() ? null : proxies.higher(proxies.first());
+    }
+
+    /**
+     * Forget every proxy whose maximum is no more than the given value.
+     * They can never win the lot.
+     * @param value A bid value that has been made for the lot.
+     */
+    public synchronized void dropBelow(long value)
+    {
+        while(!proxies.isEmpty() && (proxies.last().maximum <= value)) {
+            byBidder.remove(proxies.pollLast().bidder);
+        }
+    }
+
+    /**
+     * @return The number of proxies.
+     */
+    public synchronized int size()
+    {
+        return proxies.size();
+    }
+
+    /**
+     * @return The proxies, best first.
+     */
+    public synchronized ArrayList<Proxy> getProxies()
+    {
+        ArrayList<Proxy> list = new ArrayList<Proxy>(proxies.size());
+        Iterator<Proxy> it = proxies.iterator();
+        while(it.hasNext()) {
+            list.add(it.next());
+        }
+        return list;
+    }
+}
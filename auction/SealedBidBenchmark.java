@@ -0,0 +1,90 @@
+import java.util.Random;
+
+/**
+ * Compares the cost of bidding on ascending lots and on lots with
+ * sealed bids, and of closing each auction. The same bids, with lots
+ * chosen by a Zipf distribution so that a few lots get most of them,
+ * are made on an auction of ascending lots and on one of second-price
+ * sealed lots. Closing the sealed auction is where its winners are
+ * worked out.
+ *
+ * Run it from the command line, optionally giving the number of lots
+ * and the number of bids:
+ *     java SealedBidBenchmark 1000000 10000000
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class SealedBidBenchmark
+{
+    // The number of different bidders.
+    private static final int BIDDERS = 1000;
+
+    /**
+     * Run the benchmark.
+     * @param args The number of lots and the number of bids.
+     */
+    public static void main(String[] args)
+    {
+        int lotCount = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        int bidCount = (args.length > 1) ? Integer.parseInt(args[1]) : 10000000;
+        Person[] people = new Person[BIDDERS];
+        for(int b = 0; b < BIDDERS; b++) {
+            people[b] = new Person("Bidder " + b);
+        }
+        int[] lotNumbers = new int[bidCount];
+        int[] bidders = new int[bidCount];
+        long[] values = new long[bidCount];
+        ZipfDistribution popularity = new ZipfDistribution(lotCount, 1.0);
+        Random random = new Random(42);
+        for(int i = 0; i < bidCount; i++) {
+            lotNumbers[i] = popularity.next(random);
+            bidders[i] = random.nextInt(BIDDERS);
+            values[i] = 1 + random.nextInt(1000000);
+        }
+        // Once to warm up, then again to measure.
+        for(int round = 0; round < 2; round++) {
+            boolean print = (round == 1);
+            run("ascending", LotPricing.ASCENDING, lotCount, people, lotNumbers, bidders, values, print);
+            run("second-price", LotPricing.SECOND_PRICE_SEALED, lotCount, people, lotNumbers, bidders, values,
+                print);
+        }
+    }
+
+    /**
+     * Make the bids on a new auction and close it.
+     * @param name The name to print.
+     * @param pricing The pricing of every lot.
+     * @param lotCount The number of lots.
+     * @param people The bidders.
+     * @param lotNumbers The lot of each bid.
+     * @param bidders The bidder of each bid.
+     * @param values The value of each bid.
+     * @param print Whether to print the results.
+     */
+    private static void run(String name, LotPricing pricing, int lotCount, Person[] people,
+                            int[] lotNumbers, int[] bidders, long[] values, boolean print)
+    {
+        Auction auction = new Auction();
+        auction.setListener(new NullAuctionListener());
+        for(int i = 0; i < lotCount; i++) {
+            auction.enterLot("Lot " + i);
+            if(pricing != LotPricing.ASCENDING) {
+                auction.setLotPricing(i + 1, pricing);
+            }
+        }
+        long start = System.nanoTime();
+        for(int i = 0; i < lotNumbers.length; i++) {
+            auction.bidFor(lotNumbers[i], people[bidders[i]], values[i]);
+        }
+        long bidTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        auction.close();
+        long closeTime = System.nanoTime() - start;
+        if(print) {
+            System.out.printf("%-13s %,8.1f ns/bid  close %,8.1f ms  revenue %,d%n", name,
+                              (double) bidTime / lotNumbers.length, closeTime / 1e6,
+                              auction.getSettlement().getRevenue());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * The sealed bids made for one lot. Bids are only appended to a pair
+ * of growing arrays, with no comparison against the others, so a bid
+ * costs the same however many there are. Nothing is worked out until
+ * the lot closes, when getWinningBid finds the winner and the price in
+ * one pass over the bids.
+ *
+ * Under first-price pricing the highest bid wins and pays its own
+ * value. Under second-price pricing it pays the highest value bid by
+ * anyone else, or its own value if nobody else bid. Between equal bids
+ * the earlier wins.
+ *
+ * The bids are locked while in use. Once closed, no more are taken and
+ * the winning bid is worked out only once.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class SealedBids
+{
+    // The room for bids a lot starts with.
+    private static final int INITIAL_CAPACITY = 4;
+
+    // How the winner and price are decided.
+    private final LotPricing pricing;
+    // The bidder and value of each bid, in the order they were made.
+    private Person[] bidders;
+    private long[] values;
+    private int size;
+    // True once the lot has closed.
+    private boolean closed;
+    // The winning bid, once the bids are closed and it has been worked out.
+    private Bid winningBid;
+    private boolean resolved;
+
+    /**
+     * Create an empty set of sealed bids.
+     * @param pricing FIRST_PRICE_SEALED or SECOND_PRICE_SEALED.
+     */
+    public SealedBids(LotPricing pricing)
+    {
+        if(pricing == LotPricing.ASCENDING) {
+            throw new IllegalArgumentException("Ascending bids are not sealed");
+        }
+        this.pricing = pricing;
+        bidders = new Person[INITIAL_CAPACITY];
+        values = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Add a bid, unless the bids are closed.
+     * @param bidder The person bidding.
+     * @param value The value of the bid.
+     * @return Where the bid is among the bids, from 0, or -1 if the
+     *         bids are closed.
+     */
+    public synchronized int add(Person bidder, long value)
+    {
+        if(closed) {
+            return -1;
+        }
+        if(size == values.length) {
+            Person[] moreBidders = new Person[size * 2];
+            long[] moreValues = new long[size * 2];
+            System.arraycopy(bidders, 0, moreBidders, 0, size);
+            System.arraycopy(values, 0, moreValues, 0, size);
+            bidders = moreBidders;
+            values = moreValues;
+        }
+        bidders[size] = bidder;
+        values[size] = value;
+        return size++;
+    }
+
+    /**
+     * Take no more bids.
+     */
+    public synchronized void close()
+    {
+        closed = true;
+    }
+
+    /**
+     * Take no more bids, unless there already are some.
+     * @return True if the bids are now closed and there are none.
+     */
+    synchronized boolean closeIfEmpty()
+    {
+        if(size == 0) {
+            closed = true;
+        }
+        return size == 0;
+    }
+
+    /**
+     * Work out the winning bid. Before the bids are closed this is what
+     * would win if they closed now.
+     * @return A bid by the winner for the price they pay, or null if
+     *         there are no bids.
+     */
+    public synchronized Bid getWinningBid()
+    {
+        if(resolved) {
+            return winningBid;
+        }
+        int best = -1;
+        for(int i = 0; i < size; i++) {
+            if((best < 0) || (values[i] > values[best])) {
+                best = i;
+            }
+        }
+        Bid winner = null;
+        if(best >= 0) {
+            long price = values[best];
+            if(pricing == LotPricing.SECOND_PRICE_SEALED) {
+                long second = 0;
+                for(int i = 0; i < size; i++) {
+                    // The winner's own lower bids do not set the price.
+                    if((bidders[i] != bidders[best]) && (values[i] > second)) {
+                        second = values[i];
+                    }
+                }
+                if(second > 0) {
+                    price = second;
+                }
+            }
+            winner = new Bid(bidders[best], price);
+        }
+        if(closed) {
+            winningBid = winner;
+            resolved = true;
+        }
+        return winner;
+    }
+
+    /**
+     * @return How the winner and price are decided.
+     */
+    public LotPricing getPricing()
+    {
+        return pricing;
+    }
+
+    /**
+     * @return The number of bids.
+     */
+    public synchronized int size()
+    {
+        return size;
+    }
+
+    /**
+     * @param index The position of a bid, from 0.
+     * @return The person who made it.
+     */
+    public synchronized Person getBidder(int index)
+    {
+        return bidders[index];
+    }
+
+    /**
+     * @param index The position of a bid, from 0.
+     * @return Its value.
+     */
+    public synchronized long getValue(int index)
+    {
+        return values[index];
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.Random;
+
+/**
+ * Measures finding lots by keyword through the description index.
+ * Every lot is described by a few words drawn from a vocabulary with
+ * a Zipf distribution, as in real catalogs, so a handful of words are
+ * in a large share of the lots and most are in very few. The time to
+ * index each lot and the time per query are reported for AND and OR
+ * queries of common and rare words, and for a scan of every lot for
+ * comparison.
+ *
+ * Run it from the command line, optionally giving the number of lots:
+ *     java SearchBenchmark 10000000
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class SearchBenchmark
+{
+    // The number of different words lots are described with.
+    private static final int VOCABULARY = 20000;
+    // The number of words in each description.
+    private static final int WORDS_PER_LOT = 4;
+    // The number of times each query is made.
+    private static final int QUERIES = 200;
+
+    /**
+     * Run the benchmark.
+     * @param args The number of lots.
+     */
+    public static void main(String[] args)
+    {
+        int lotCount = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        Random random = new Random(42);
+        ZipfDistribution words = new ZipfDistribution(VOCABULARY, 1.0);
+        Auction auction = new Auction();
+        auction.setListener(new NullAuctionListener());
+        auction.indexDescriptions();
+        long start = System.nanoTime();
+        for(int i = 0; i < lotCount; i++) {
+            StringBuilder description = new StringBuilder();
+            for(int w = 0; w < WORDS_PER_LOT; w++) {
+                description.append(" w").append(words.next(random));
+            }
+            auction.enterLot(description.toString());
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%,d lots entered and indexed in %.1f s, %.0f ns/lot%n",
+                          lotCount, elapsed / 1e9, (double) elapsed / lotCount);
+
+        // w1 is the commonest word, w20000 the rarest.
+        query(auction, "common AND common", "w1 w2", true);
+        query(auction, "common AND rare", "w1 w5000", true);
+        query(auction, "rare AND rare", "w3000 w5000", true);
+        query(auction, "common OR common", "w1 w2", false);
+        query(auction, "rare OR rare", "w3000 w5000", false);
+
+        start = System.nanoTime();
+        int found = 0;
+        for(int number = 1; number <= lotCount; number++) {
+            String description = auction.getLot(number).getDescription();
+            if(description.contains(" w3000") && description.contains(" w5000")) {
+                found++;
+            }
+        }
+        System.out.printf("%-18s %,10.1f us/query (%,d lots)%n",
+                          "scan every lot", (System.nanoTime() - start) / 1e3, found);
+    }
+
+    /**
+     * Make a query many times and print the mean time it took.
+     * @param auction The auction.
+     * @param name The name to print.
+     * @param words The words to look for.
+     * @param all True to find the lots with all the words, false for any.
+     */
+    private static void query(Auction auction, String name, String words, boolean all)
+    {
+        int found = 0;
+        // Warm up first.
+        for(int i = 0; i < QUERIES; i++) {
+            found = all ? auction.findLotsWithAll(words).length : auction.findLotsWithAny(words).length;
+        }
+        long start = System.nanoTime();
+        for(int i = 0; i < QUERIES; i++) {
+            found = all ? auction.findLotsWithAll(words).length : auction.findLotsWithAny(words).length;
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-18s %,10.1f us/query (%,d lots)%n", name, elapsed / 1e3 / QUERIES, found);
+    }
+}
@@ -0,0 +1,384 @@
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * The outcome of an auction: for every lot, the bid that won it or
+ * that it did not sell, and for every winning bidder the total of the
+ * lots they won. A settlement does not change once it is made.
+ *
+ * A settlement is worked out on a ForkJoinPool. The lots are split
+ * into ranges of lot numbers, each range is settled on its own, and
+ * the results are joined back together in the same order, so the
+ * lots always come out in lot number order however the work was
+ * shared. Each lot's highest bid is read only once. A lot with sealed
+ * bids is won by the winner of its SealedBids, worked out there and
+ * then, so the sealed lots are resolved in parallel as well.
+ *
+ * When an auction closes, each lot that takes ascending bids is also
+ * closed as it is settled, and its winning bid is the highest bid that
+ * closing it captured. A bid racing with the close either gets in
+ * before the lot closes, and is settled, or is turned away.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class Settlement
+{
+    // The most lots settled by one task without splitting.
+    private static final int LEAF_SIZE = 1 << 16;
+    // The number of lots formatted by one task when printing.
+    private static final int PRINT_CHUNK = 8192;
+
+    // The lots, in lot number order.
+    private final Lot[] lots;
+    // The bid that won each lot, or null where the lot did not sell.
+    private final Bid[] winningBids;
+    // The lots that had already been closed at their deadlines.
+    private final BitSet closedEarly;
+    // What each winning bidder owes.
+    private final Map<Person, Long> totals;
+    // The number of lots sold, and what they sold for in all.
+    private final int soldCount;
+    private final long revenue;
+
+    /**
+     * The settlement of a range of lots, while the settlement is being
+     * worked out. Parts are joined in lot number order.
+     */
+    private static class Part
+    {
+        // The settled ranges, in lot number order.
+        private final ArrayList<Range> ranges = new ArrayList<Range>();
+        // What each winning bidder in the ranges owes, in a one-element
+        // array so it can be added to without boxing.
+        private HashMap<Person, long[]> totals = new HashMap<Person, long[]>();
+
+        /**
+         * Add the settlement of the lots that follow this part's.
+         * @param next The settlement of the following lots.
+         * @return This part.
+         */
+        private Part append(Part next)
+        {
+            ranges.addAll(next.ranges);
+            // Merge the smaller map into the larger.
+            HashMap<Person, long[]> from = next.totals;
+            if(from.size() > totals.size()) {
+                from = totals;
+                totals = next.totals;
+            }
+            for(Map.Entry<Person, long[]> entry : from.entrySet()) {
+                addTo(totals, entry.getKey(), entry.getValue()[0]);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * The lots of one range and their winning bids.
+     */
+    private static class Range
+    {
+        private final Lot[] lots;
+        private final Bid[] winningBids;
+        private final BitSet closedEarly = new BitSet();
+        // The number of lots in the range.
+        private int size;
+
+        private Range(int capacity)
+        {
+            lots = new Lot[capacity];
+            winningBids = new Bid[capacity];
+        }
+    }
+
+    /**
+     * Settles the lots of a spliterator, splitting it while it is large.
+     */
+    private static class SettleTask extends RecursiveTask<Part>
+    {
+        // RecursiveTask is serializable, though a task is never serialized.
+        private static final long serialVersionUID = 1L;
+
+        // The lots to settle.
+        private final Spliterator<Lot> lots;
+        // True to close the lots that take ascending bids.
+        private final boolean closing;
+
+        private SettleTask(Spliterator<Lot> lots, boolean closing)
+        {
+            this.lots = lots;
+            this.closing = closing;
+        }
+
+        protected Part compute()
+        {
+            Spliterator<Lot> first;
+            if((lots.estimateSize() > LEAF_SIZE) && ((first = lots.trySplit()) != null)) {
+                SettleTask task = new SettleTask(first, closing);
+                task.fork();
+                Part rest = new SettleTask(lots, closing).compute();
+                return task.join().append(rest);
+            }
+            final Part part = new Part();
+            final Range range = new Range((int) lots.estimateSize());
+            part.ranges.add(range);
+            lots.forEachRemaining(new Consumer<Lot>()
+            {
+                public void accept(Lot lot)
+                {
+                    SealedBids sealed = lot.getSealedBids();
+                    // A lot this closes was not closed before.
+                    boolean closedEarly = (closing && (sealed == null)) ? !lot.close() : lot.isClosed();
+                    Bid winningBid = (sealed != null) ? sealed.getWinningBid() : lot.getHighestBid();
+                    if(closedEarly) {
+                        range.closedEarly.set(range.size);
+                    }
+                    range.lots[range.size] = lot;
+                    range.winningBids[range.size] = winningBid;
+                    range.size++;
+                    if(winningBid != null) {
+                        addTo(part.totals, winningBid.getBidder(), winningBid.getValue());
+                    }
+                }
+            });
+            return part;
+        }
+    }
+
+    /**
+     * Create a settlement from the joined parts.
+     * @param part The settlement of every lot.
+     */
+    private Settlement(Part part)
+    {
+        int count = 0;
+        for(Range range : part.ranges) {
+            count += range.size;
+        }
+        lots = new Lot[count];
+        winningBids = new Bid[count];
+        closedEarly = new BitSet();
+        int sold = 0;
+        long total = 0;
+        int next = 0;
+        for(Range range : part.ranges) {
+            System.arraycopy(range.lots, 0, lots, next, range.size);
+            System.arraycopy(range.winningBids, 0, winningBids, next, range.size);
+            for(int i = 0; i < range.size; i++) {
+                Bid bid = range.winningBids[i];
+                if(bid != null) {
+                    sold++;
+                    total += bid.getValue();
+                }
+            }
+            for(int i = range.closedEarly.nextSetBit(0); i >= 0; i = range.closedEarly.nextSetBit(i + 1)) {
+                closedEarly.set(next + i);
+            }
+            next += range.size;
+        }
+        soldCount = sold;
+        revenue = total;
+        HashMap<Person, Long> owed = new HashMap<Person, Long>(part.totals.size() * 4 / 3 + 1);
+        for(Map.Entry<Person, long[]> entry : part.totals.entrySet()) {
+            owed.put(entry.getKey(), entry.getValue()[0]);
+        }
+        totals = Collections.unmodifiableMap(owed);
+    }
+
+    /**
+     * Settle some lots.
+     * @param lots The lots, in lot number order.
+     * @param pool The pool to do the work on. A small number of lots is
+     *             settled on the calling thread instead.
+     * @return The settlement.
+     */
+    public static Settlement settle(Spliterator<Lot> lots, ForkJoinPool pool)
+    {
+        return settle(lots, pool, false);
+    }
+
+    /**
+     * Close and settle the lots of an auction that is closing. Each lot
+     * that takes ascending bids is closed, so no bid can be accepted for
+     * it once it has been settled. The sealed bids should be closed first.
+     * @param lots The lots, in lot number order.
+     * @param pool The pool to do the work on.
+     * @return The settlement.
+     */
+    static Settlement close(Spliterator<Lot> lots, ForkJoinPool pool)
+    {
+        return settle(lots, pool, true);
+    }
+
+    /**
+     * @param lots The lots, in lot number order.
+     * @param pool The pool to do the work on.
+     * @param closing True to close the lots that take ascending bids.
+     * @return The settlement.
+     */
+    private static Settlement settle(Spliterator<Lot> lots, ForkJoinPool pool, boolean closing)
+    {
+        SettleTask task = new SettleTask(lots, closing);
+        Part part = (lots.estimateSize() > LEAF_SIZE) ? pool.invoke(task) : task.compute();
+        return new Settlement(part);
+    }
+
+    /**
+     * @return The number of lots settled.
+     */
+    public int getLotCount()
+    {
+        return lots.length;
+    }
+
+    /**
+     * @param index The place of a lot in lot number order, from 0.
+     * @return The lot.
+     */
+    public Lot getLot(int index)
+    {
+        return lots[index];
+    }
+
+    /**
+     * @param index The place of a lot in lot number order, from 0.
+     * @return The bid that won the lot, or null if it did not sell.
+     */
+    public Bid getWinningBid(int index)
+    {
+        return winningBids[index];
+    }
+
+    /**
+     * @param index The place of a lot in lot number order, from 0.
+     * @return True if the lot had been closed at its deadline before
+     *         the settlement was made.
+     */
+    public boolean isClosedEarly(int index)
+    {
+        return closedEarly.get(index);
+    }
+
+    /**
+     * @return The number of lots that sold.
+     */
+    public int getSoldCount()
+    {
+        return soldCount;
+    }
+
+    /**
+     * @return The total value of the winning bids.
+     */
+    public long getRevenue()
+    {
+        return revenue;
+    }
+
+    /**
+     * @param bidder A person.
+     * @return The total of the winning bids the person made, or 0.
+     */
+    public long getTotal(Person bidder)
+    {
+        Long total = totals.get(bidder);
+        return (total != null) ? total : 0;
+    }
+
+    /**
+     * @return What each winning bidder owes. The map cannot be changed.
+     */
+    public Map<Person, Long> getTotals()
+    {
+        return totals;
+    }
+
+    /**
+     * Report to a listener, in lot number order, every lot that had not
+     * already been closed at its deadline.
+     * @param listener The listener.
+     */
+    public void report(AuctionListener listener)
+    {
+        for(int i = 0; i < lots.length; i++) {
+            if(!closedEarly.get(i)) {
+                listener.lotClosed(lots[i], winningBids[i]);
+            }
+        }
+    }
+
+    /**
+     * Print, in lot number order, every lot that had not already been
+     * closed at its deadline, exactly as a ConsoleAuctionListener would
+     * report it. The text is put together on the pool a chunk at a time,
+     * and each chunk is printed as soon as it and those before it are
+     * ready.
+     * @param out Where to print.
+     * @param pool The pool to put the text together on.
+     */
+    public void print(PrintStream out, ForkJoinPool pool)
+    {
+        // Keep only a few chunks ahead of the printing.
+        int ahead = 2 * pool.getParallelism();
+        ArrayDeque<ForkJoinTask<String>> pending = new ArrayDeque<ForkJoinTask<String>>();
+        for(int start = 0; start < lots.length; start += PRINT_CHUNK) {
+            if(pending.size() >= ahead) {
+                out.print(pending.poll().join());
+            }
+            pending.add(pool.submit(format(start, Math.min(start + PRINT_CHUNK, lots.length))));
+        }
+        while(!pending.isEmpty()) {
+            out.print(pending.poll().join());
+        }
+    }
+
+    /**
+     * Add to what a bidder owes.
+     * @param totals What each bidder owes.
+     * @param bidder The bidder.
+     * @param value The amount to add.
+     */
+    private static void addTo(HashMap<Person, long[]> totals, Person bidder, long value)
+    {
+        long[] total = totals.get(bidder);
+        if(total == null) {
+            total = new long[1];
+            totals.put(bidder, total);
+        }
+        total[0] += value;
+    }
+
+    /**
+     * @param start The place of the first lot to format.
+     * @param end The place after the last lot to format.
+     * @return A task that formats the lots from start up to end.
+     */
+    private Callable<String> format(final int start, final int end)
+    {
+        return new Callable<String>()
+        {
+            public String call()
+            {
+                StringBuilder text = new StringBuilder();
+                for(int i = start; i < end; i++) {
+                    if(!closedEarly.get(i)) {
+                        ConsoleAuctionListener.appendClosed(text, lots[i], winningBids[i]);
+                    }
+                }
+                return text.toString();
+            }
+        };
+    }
+}
@@ -0,0 +1,127 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how long it takes to settle a large auction, first by
+ * walking the lots one at a time on a single thread, and then with
+ * Settlement on fork-join pools of 1, 2, 4 and so on up to the number
+ * of processors. Both working out the winners and printing them, to
+ * a stream that throws the text away, are timed.
+ *
+ * Run it from the command line, optionally giving the number of lots:
+ *     java SettlementBenchmark 2000000
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class SettlementBenchmark
+{
+    // The number of bidders.
+    private static final int BIDDERS = 10000;
+    // The number of times each measurement is repeated; the best is reported.
+    private static final int ROUNDS = 5;
+
+    /**
+     * Run the benchmark.
+     * @param args The number of lots.
+     */
+    public static void main(String[] args)
+    {
+        int lotCount = (args.length > 0) ? Integer.parseInt(args[0]) : 2000000;
+        Auction auction = new Auction();
+        auction.setListener(new NullAuctionListener());
+        Person[] bidders = new Person[BIDDERS];
+        for(int i = 0; i < bidders.length; i++) {
+            bidders[i] = new Person("Bidder " + i);
+        }
+        Random random = new Random(42);
+        for(int i = 0; i < lotCount; i++) {
+            auction.enterLot("Lot " + i);
+            // Most lots sell.
+            if(random.nextInt(4) > 0) {
+                auction.bidFor(i + 1, bidders[random.nextInt(bidders.length)], 1 + random.nextInt(10000));
+            }
+        }
+        PrintStream discard = new PrintStream(new OutputStream()
+        {
+            public void write(int b)
+            {
+            }
+
+            public void write(byte[] b, int off, int len)
+            {
+            }
+        });
+
+        long sequential = Long.MAX_VALUE;
+        long sequentialPrint = Long.MAX_VALUE;
+        long revenue = 0;
+        ConsoleAuctionListener console = new ConsoleAuctionListener(discard);
+        for(int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            revenue = 0;
+            HashMap<Person, long[]> totals = new HashMap<Person, long[]>();
+            Iterator<Lot> lots = auction.lotIterator();
+            while(lots.hasNext()) {
+                Bid bid = lots.next().getHighestBid();
+                if(bid != null) {
+                    revenue += bid.getValue();
+                    long[] total = totals.get(bid.getBidder());
+                    if(total == null) {
+                        total = new long[1];
+                        totals.put(bid.getBidder(), total);
+                    }
+                    total[0] += bid.getValue();
+                }
+            }
+            sequential = Math.min(sequential, System.nanoTime() - start);
+            start = System.nanoTime();
+            lots = auction.lotIterator();
+            while(lots.hasNext()) {
+                Lot lot = lots.next();
+                console.lotClosed(lot, lot.getHighestBid());
+            }
+            sequentialPrint = Math.min(sequentialPrint, System.nanoTime() - start);
+        }
+        if(auction.settle(ForkJoinPool.commonPool()).getRevenue() != revenue) {
+            throw new IllegalStateException("The settlement does not match the lots");
+        }
+        System.out.printf("%,d lots on %d processors%n", lotCount, Runtime.getRuntime().availableProcessors());
+        System.out.printf("sequential       settle %,8.1f ms  print %,8.1f ms%n", sequential / 1e6, sequentialPrint / 1e6);
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        for(int threads = 1; threads <= processors; threads *= 2) {
+            report(auction, new ForkJoinPool(threads), discard, threads);
+            if((threads < processors) && (threads * 2 > processors)) {
+                report(auction, new ForkJoinPool(processors), discard, processors);
+            }
+        }
+    }
+
+    /**
+     * Settle and print the auction on a pool, and print the best times.
+     * @param auction The auction.
+     * @param pool The pool.
+     * @param discard A stream that throws away what is printed to it.
+     * @param threads The number of threads in the pool.
+     */
+    private static void report(Auction auction, ForkJoinPool pool, PrintStream discard, int threads)
+    {
+        long settle = Long.MAX_VALUE;
+        long print = Long.MAX_VALUE;
+        for(int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            Settlement settlement = auction.settle(pool);
+            settle = Math.min(settle, System.nanoTime() - start);
+            start = System.nanoTime();
+            settlement.print(discard, pool);
+            print = Math.min(print, System.nanoTime() - start);
+        }
+        pool.shutdown();
+        System.out.printf("fork-join %2d     settle %,8.1f ms  print %,8.1f ms%n", threads, settle / 1e6, print / 1e6);
+    }
+}
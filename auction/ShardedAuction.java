@@ -0,0 +1,295 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An auction whose lots are split between several shards, so that
+ * work on different lots can be done on different cores at once.
+ * It offers the same operations as Auction.
+ *
+ * Each shard is an ordinary Auction holding every n-th lot number,
+ * and each has a lock so that only one thread at a time changes it.
+ * Lot numbers are given out by a single atomic counter, so they are
+ * unique and increasing across the whole auction, and a bid, lookup
+ * or removal goes straight to the shard that holds its lot.
+ *
+ * Closing takes every shard's lock, so no bid can be accepted by one
+ * shard after another has closed. The closed lots are then reported
+ * in lot number order, as Auction reports them.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class ShardedAuction
+{
+    // Orders lots by number.
+    private static final Comparator<Lot> BY_NUMBER = new Comparator<Lot>()
+    {
+        public int compare(Lot a, Lot b)
+        {
+            return Integer.compare(a.getNumber(), b.getNumber());
+        }
+    };
+
+    // The auctions that hold the lots. Lot n is held by shard (n - 1) % shards.length.
+    private final Auction[] shards;
+    // The lock of each shard. Whoever holds it may change the shard.
+    private final ReentrantLock[] locks;
+    // The number that will be given to the next lot entered.
+    private final AtomicInteger nextLotNumber;
+    // Whether the auction is open.
+    private volatile boolean isOpen;
+    // Receives the bids and closed lots of this auction.
+    private volatile AuctionListener listener;
+
+    /**
+     * Create a new auction with one shard for each available processor.
+     */
+    public ShardedAuction()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new auction.
+     * @param shardCount The number of shards to split the lots between.
+     */
+    public ShardedAuction(int shardCount)
+    {
+        if(shardCount < 1) {
+            throw new IllegalArgumentException("An auction needs at least one shard: " + shardCount);
+        }
+        shards = new Auction[shardCount];
+        locks = new ReentrantLock[shardCount];
+        BidderRegistry bidders = new BidderRegistry();
+        for(int i = 0; i < shardCount; i++) {
+            shards[i] = new Auction(new LotIndex(shardCount), bidders);
+            locks[i] = new ReentrantLock();
+        }
+        nextLotNumber = new AtomicInteger(1);
+        isOpen = true;
+        setListener(new ConsoleAuctionListener());
+    }
+
+    /**
+     * Set the listener that receives the bids and closed lots of this
+     * auction. Bids are reported from the threads that make them, so
+     * the listener must be safe to call from several threads.
+     * @param listener The new listener, or null to ignore all events.
+     */
+    public void setListener(AuctionListener listener)
+    {
+        this.listener = (listener != null) ? listener : new NullAuctionListener();
+        for(Auction shard : shards) {
+            shard.setListener(this.listener);
+        }
+    }
+
+    /**
+     * @return The registry that gives each bidder in this auction a
+     *         number. It is shared by all the shards.
+     */
+    public BidderRegistry getBidderRegistry()
+    {
+        return shards[0].getBidderRegistry();
+    }
+
+    /**
+     * Enter a new lot into the auction. Returns false if the
+     * auction is not open or if the description is null.
+     * @param description A description of the lot.
+     * @return True if a new lot was entered into the auction, false otherwise.
+     */
+    public boolean enterLot(String description)
+    {
+        if(!isOpen || (description == null)) {
+            return false;
+        }
+        int number = nextLotNumber.getAndIncrement();
+        ReentrantLock lock = lockFor(number);
+        lock.lock();
+        try {
+            // The shard refuses the lot if the auction closed meanwhile.
+            return shardFor(number).enterLot(number, description);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bid for a lot. Only the shard holding the lot is locked.
+     * Returns false if the auction is closed, the lot doesn't
+     * exist, the bidder is null, the bid was not positive, or
+     * the bid was not high enough.
+     * @param lotNumber The lot number being bid for.
+     * @param bidder The person bidding for the lot.
+     * @param value The value of the bid.
+     * @return True if the bid was successful, false otherwise.
+     */
+    public boolean bidFor(int lotNumber, Person bidder, long value)
+    {
+        if(lotNumber < 1) {
+            return false;
+        }
+        ReentrantLock lock = lockFor(lotNumber);
+        lock.lock();
+        try {
+            return shardFor(lotNumber).bidFor(lotNumber, bidder, value);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return the lot with the given number, or null if it does not exist.
+     * @param lotNumber The number of the lot to return.
+     * @return the Lot with the given number
+     */
+    public Lot getLot(int lotNumber)
+    {
+        if(lotNumber < 1) {
+            return null;
+        }
+        return shardFor(lotNumber).getLot(lotNumber);
+    }
+
+    /**
+     * Remove the lot with the given lot number, as long as the lot has
+     * no bids, and the auction is open.
+     * @param number The number of the lot to be removed.
+     * @return True if the lot was successfully removed, false otherwise.
+     */
+    public boolean removeLot(int number)
+    {
+        if(number < 1) {
+            return false;
+        }
+        ReentrantLock lock = lockFor(number);
+        lock.lock();
+        try {
+            return shardFor(number).removeLot(number);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an ArrayList containing all the items that have no bids
+     * so far (or have not sold if the auction has ended), in lot
+     * number order.
+     * @return an ArrayList of the Lots which currently have no bids
+     */
+    public ArrayList<Lot> getNoBids()
+    {
+        ArrayList<Lot> noBids = new ArrayList<Lot>();
+        for(Auction shard : shards) {
+            noBids.addAll(shard.getNoBids());
+        }
+        noBids.sort(BY_NUMBER);
+        return noBids;
+    }
+
+    /**
+     * Close every shard at once and report each lot to the listener,
+     * in lot number order.
+     * Returns false if the auction is already closed, true otherwise.
+     * @return False if the auction is closed, true otherwise.
+     */
+    public boolean close()
+    {
+        for(ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            if(!isOpen) {
+                return false;
+            }
+            isOpen = false;
+            for(Auction shard : shards) {
+                // The shards are silent; the lots are reported below, in order.
+                shard.setListener(null);
+                shard.close();
+            }
+            reportClosedLots();
+            return true;
+        }
+        finally {
+            for(ReentrantLock lock : locks) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Report every lot to the listener, merging the shards so that
+     * the lots come out in lot number order.
+     */
+    private void reportClosedLots()
+    {
+        PriorityQueue<ShardCursor> cursors = new PriorityQueue<ShardCursor>();
+        for(Auction shard : shards) {
+            ShardCursor cursor = new ShardCursor(shard.lotIterator());
+            if(cursor.current != null) {
+                cursors.add(cursor);
+            }
+        }
+        AuctionListener listener = this.listener;
+        while(!cursors.isEmpty()) {
+            ShardCursor cursor = cursors.poll();
+            listener.lotClosed(cursor.current, cursor.current.getHighestBid());
+            if(cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+    }
+
+    /**
+     * @param number A lot number.
+     * @return The shard that holds the lot with the given number.
+     */
+    private Auction shardFor(int number)
+    {
+        return shards[(number - 1) % shards.length];
+    }
+
+    /**
+     * @param number A lot number.
+     * @return The lock of the shard that holds the lot.
+     */
+    private ReentrantLock lockFor(int number)
+    {
+        return locks[(number - 1) % locks.length];
+    }
+
+    /**
+     * The position reached in one shard's lots while merging.
+     */
+    private static class ShardCursor implements Comparable<ShardCursor>
+    {
+        private final Iterator<Lot> lots;
+        private Lot current;
+
+        private ShardCursor(Iterator<Lot> lots)
+        {
+            this.lots = lots;
+            advance();
+        }
+
+        private boolean advance()
+        {
+            current = lots.hasNext() ? lots.next() : null;
+            return current != null;
+        }
+
+        public int compareTo(ShardCursor other)
+        {
+            return Integer.compare(current.getNumber(), other.current.getNumber());
+        }
+    }
+}
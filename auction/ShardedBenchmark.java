@@ -0,0 +1,90 @@
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measure how bid throughput on a ShardedAuction grows with the
+ * number of bidding threads. Each thread bids for random lots, and
+ * there is one shard per thread in the largest run. Scaling can only
+ * be seen on a machine with at least as many cores as threads.
+ *
+ * Run it from the command line, optionally giving the number of lots
+ * and the largest thread count:
+ *     java ShardedBenchmark 1000000 16
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class ShardedBenchmark
+{
+    // The number of lots when none is given.
+    private static final int DEFAULT_LOTS = 1000000;
+    // The largest thread count when none is given.
+    private static final int DEFAULT_THREADS = 16;
+    // The number of bids each thread makes.
+    private static final int BIDS_PER_THREAD = 1000000;
+
+    /**
+     * Run the benchmark.
+     * @param args The number of lots and the largest thread count.
+     */
+    public static void main(String[] args) throws InterruptedException
+    {
+        int lots = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_LOTS;
+        int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_THREADS;
+        ShardedAuction auction = new ShardedAuction(maxThreads);
+        auction.setListener(new NullAuctionListener());
+        for(int i = 0; i < lots; i++) {
+            auction.enterLot("Lot " + i);
+        }
+        double single = 0;
+        for(int threads = 1; threads <= maxThreads; threads *= 2) {
+            double rate = bidsPerSecond(auction, lots, threads);
+            if(threads == 1) {
+                single = rate;
+            }
+            System.out.printf("%3d threads: %,14.0f bids/s  (%.2fx)%n", threads, rate, rate / single);
+        }
+    }
+
+    /**
+     * @param auction The auction to bid in.
+     * @param lots The number of lots in the auction.
+     * @param threads The number of bidding threads.
+     * @return The number of bids made per second by all threads together.
+     */
+    private static double bidsPerSecond(final ShardedAuction auction, final int lots, int threads)
+        throws InterruptedException
+    {
+        final CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> bidders = new ArrayList<Thread>();
+        for(int t = 0; t < threads; t++) {
+            final Person bidder = new Person("Bidder " + t);
+            Thread thread = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    try {
+                        start.await();
+                    }
+                    catch(InterruptedException e) {
+                        return;
+                    }
+                    for(int i = 0; i < BIDS_PER_THREAD; i++) {
+                        auction.bidFor(random.nextInt(lots) + 1, bidder, random.nextLong(1, Long.MAX_VALUE));
+                    }
+                }
+            });
+            bidders.add(thread);
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for(Thread thread : bidders) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        return (threads * (double) BIDS_PER_THREAD) / (elapsed / 1e9);
+    }
+}
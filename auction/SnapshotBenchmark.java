@@ -0,0 +1,97 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Compare the time to restart an auction by replaying its whole
+ * journal with the time to load a snapshot and replay only the
+ * journal written after it.
+ *
+ * Run it from the command line, optionally giving the number of lots:
+ *     java SnapshotBenchmark 10000000
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class SnapshotBenchmark
+{
+    // The number of bids made for every lot before the snapshot.
+    private static final int BID_ROUNDS = 5;
+
+    /**
+     * Run the benchmark.
+     * @param args The number of lots.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int lots = (args.length > 0) ? Integer.parseInt(args[0]) : 10000000;
+        Path journalFile = Files.createTempFile("auction", ".journal");
+        Path snapshotFile = Files.createTempFile("auction", ".snapshot");
+        try {
+            Auction auction = new Auction();
+            auction.setListener(new NullAuctionListener());
+            AuctionJournal journal = new AuctionJournal(journalFile, AuctionJournal.SyncPolicy.NEVER, false,
+                                                        1 << 20);
+            auction.setJournal(journal);
+            Person[] bidders = new Person[1000];
+            for(int i = 0; i < bidders.length; i++) {
+                bidders[i] = new Person("Bidder " + i);
+            }
+            Random random = new Random(42);
+            for(int i = 0; i < lots; i++) {
+                auction.enterLot("Lot " + i);
+            }
+            // Several rounds of bidding, as a journal of a real sale has.
+            for(int round = 1; round <= BID_ROUNDS; round++) {
+                for(int i = 0; i < lots; i++) {
+                    auction.bidFor(i + 1, bidders[random.nextInt(bidders.length)], round * 10 + random.nextInt(10));
+                }
+            }
+            long start = System.nanoTime();
+            auction.writeSnapshot(snapshotFile);
+            report("write snapshot", start);
+
+            // A short tail of bids made after the snapshot.
+            for(int i = 0; i < lots / 100; i++) {
+                auction.bidFor(random.nextInt(lots) + 1, bidders[random.nextInt(bidders.length)], 2000 + i);
+            }
+            journal.close();
+
+            start = System.nanoTime();
+            AuctionSnapshotFile.open(snapshotFile);
+            report("open snapshot (mapped)", start);
+
+            start = System.nanoTime();
+            Auction fromSnapshot = AuctionSnapshotFile.recover(snapshotFile, journalFile);
+            report("snapshot + journal tail", start);
+
+            start = System.nanoTime();
+            Auction fromJournal = AuctionJournal.replay(journalFile);
+            report("full journal replay", start);
+
+            for(int number = 1; number <= lots; number++) {
+                if(fromSnapshot.getLot(number).getHighestBid().getValue()
+                   != fromJournal.getLot(number).getHighestBid().getValue()) {
+                    throw new IllegalStateException("Recovered auctions differ at lot " + number);
+                }
+            }
+            System.out.printf("%,d lots; snapshot %,d bytes, journal %,d bytes%n",
+                              lots, Files.size(snapshotFile), Files.size(journalFile));
+        }
+        finally {
+            Files.delete(journalFile);
+            Files.delete(snapshotFile);
+        }
+    }
+
+    /**
+     * Print how long a step took.
+     * @param step What was done.
+     * @param start When it started, from System.nanoTime.
+     */
+    private static void report(String step, long start)
+    {
+        System.out.printf("%-26s %8.1f ms%n", step, (System.nanoTime() - start) / 1e6);
+    }
+}
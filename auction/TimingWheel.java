@@ -0,0 +1,219 @@
+import java.util.ArrayList;
+
+/**
+ * A hierarchical timing wheel that finds the lots whose deadlines have
+ * passed, without looking at any lot that is not yet due.
+ *
+ * Time is counted in ticks of a fixed length. The wheel has eight
+ * levels of 256 buckets each. Level 0 has a bucket for each of the
+ * next 256 ticks; each bucket of level 1 covers 256 ticks, each bucket
+ * of level 2 covers 65,536, and so on. A lot goes in the lowest level
+ * whose buckets are still finer than the time left until its deadline.
+ * As time passes, the buckets of a higher level are emptied into the
+ * level below when their time comes. So scheduling a lot is O(1), and
+ * a lot is moved at most once per level before it is due. Advancing
+ * jumps straight to the next tick at which a bucket comes up, rather
+ * than stepping through every tick, so a long pause between advances
+ * costs no more than the buckets it empties.
+ *
+ * The wheel reads a lot's deadline when the lot is scheduled and again
+ * when its bucket comes up. If the deadline has been pushed out in the
+ * meantime, the lot is simply put back for the new deadline, so
+ * extending a deadline costs nothing until then.
+ *
+ * The wheel is locked while in use.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class TimingWheel
+{
+    // The number of bits of a tick count used by each level, and the
+    // number of buckets in a level.
+    private static final int BITS = 8;
+    private static final int BUCKETS = 1 << BITS;
+    private static final int MASK = BUCKETS - 1;
+    // Enough levels for any tick count.
+    private static final int LEVELS = 8;
+
+    // The length of a tick, in milliseconds.
+    private final long tickMillis;
+    // The buckets of every level, level by level. Null until used.
+    private final ArrayList<ArrayList<Lot>> buckets;
+    // Lots already due when they were scheduled.
+    private ArrayList<Lot> overdue;
+    // The last tick the wheel has been advanced to.
+    private long currentTick;
+    // The number of lots in the wheel.
+    private int size;
+
+    /**
+     * Create an empty wheel.
+     * @param tickMillis The length of a tick, in milliseconds. Lots are
+     *                   found up to one tick after their deadlines.
+     * @param now The current time, in milliseconds since 1970.
+     */
+    public TimingWheel(long tickMillis, long now)
+    {
+        this.tickMillis = Math.max(tickMillis, 1);
+        this.buckets = new ArrayList<ArrayList<Lot>>(LEVELS * BUCKETS);
+        for(int i = 0; i < LEVELS * BUCKETS; i++) {
+            buckets.add(null);
+        }
+        this.overdue = new ArrayList<Lot>();
+        this.currentTick = now / this.tickMillis;
+        this.size = 0;
+    }
+
+    /**
+     * Add a lot to the wheel, to be found when its deadline has passed.
+     * A lot should only be scheduled once.
+     * @param lot A lot with a deadline.
+     */
+    public synchronized void schedule(Lot lot)
+    {
+        insert(lot);
+        size++;
+    }
+
+    /**
+     * Advance the wheel to the given time, collecting the lots whose
+     * deadlines have passed. They are taken out of the wheel.
+     * @param now The current time, in milliseconds since 1970.
+     * @param due Receives the lots whose deadlines have passed.
+     */
+    public synchronized void advance(long now, ArrayList<Lot> due)
+    {
+        long target = now / tickMillis;
+        if(size == 0) {
+            // Nothing to find, so skip straight to the target.
+            currentTick = Math.max(currentTick, target);
+        }
+        while(currentTick < target) {
+            long next = nextBucketTick();
+            if(next < 0 || next > target) {
+                // No bucket comes up before the target.
+                currentTick = target;
+                break;
+            }
+            currentTick = next;
+            // Empty into lower levels every bucket whose time has come,
+            // highest first, so a lot can move down several levels at once.
+            for(int level = LEVELS - 1; level > 0; level--) {
+                if((currentTick & ((1L << (level * BITS)) - 1)) == 0) {
+                    ArrayList<Lot> lots = take(level, (int) (currentTick >>> (level * BITS)) & MASK);
+                    if(lots != null) {
+                        for(Lot lot : lots) {
+                            insert(lot);
+                        }
+                    }
+                }
+            }
+            ArrayList<Lot> lots = take(0, (int) currentTick & MASK);
+            if(lots != null) {
+                fire(lots, due);
+            }
+        }
+        // Lots scheduled since the last advance, or moved down to the
+        // current tick, that were already due.
+        if(!overdue.isEmpty()) {
+            ArrayList<Lot> lots = overdue;
+            overdue = new ArrayList<Lot>();
+            fire(lots, due);
+        }
+    }
+
+    /**
+     * @return The number of lots in the wheel.
+     */
+    public synchronized int size()
+    {
+        return size;
+    }
+
+    /**
+     * Pass on the lots from a bucket whose deadlines have passed, and put
+     * back those whose deadlines have been pushed out.
+     * @param lots The lots from the bucket.
+     * @param due Receives the lots whose deadlines have passed.
+     */
+    private void fire(ArrayList<Lot> lots, ArrayList<Lot> due)
+    {
+        for(Lot lot : lots) {
+            if(tickOf(lot) <= currentTick) {
+                due.add(lot);
+                size--;
+            }
+            else {
+                insert(lot);
+            }
+        }
+    }
+
+    /**
+     * Find the next tick at which a bucket comes up. A lot in level L is
+     * always in a later bucket of that level than the current tick's, in
+     * the same bucket of every level above, so the lowest level with a
+     * lot after the current tick's bucket holds the next one.
+     * @return The first tick after the current one at which a bucket
+     *         comes up, or -1 if every bucket is empty.
+     */
+    private long nextBucketTick()
+    {
+        for(int level = 0; level < LEVELS; level++) {
+            int shift = level * BITS;
+            int current = (int) (currentTick >>> shift) & MASK;
+            for(int slot = current + 1; slot < BUCKETS; slot++) {
+                if(buckets.get(level * BUCKETS + slot) != null) {
+                    // Keep the current tick's higher digits.
+                    long higher = (shift + BITS < 64) ? (currentTick >>> (shift + BITS)) << (shift + BITS) : 0;
+                    return higher | ((long) slot << shift);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Put a lot in the bucket for its deadline.
+     * @param lot The lot.
+     */
+    private void insert(Lot lot)
+    {
+        long tick = tickOf(lot);
+        if(tick <= currentTick) {
+            overdue.add(lot);
+            return;
+        }
+        // The lowest level at which the tick and the current tick share
+        // all the higher digits.
+        int level = (63 - Long.numberOfLeadingZeros(tick ^ currentTick)) / BITS;
+        int index = level * BUCKETS + ((int) (tick >>> (level * BITS)) & MASK);
+        ArrayList<Lot> bucket = buckets.get(index);
+        if(bucket == null) {
+            bucket = new ArrayList<Lot>();
+            buckets.set(index, bucket);
+        }
+        bucket.add(lot);
+    }
+
+    /**
+     * Empty a bucket.
+     * @param level The level of the bucket.
+     * @param slot The bucket's place in its level.
+     * @return The lots that were in the bucket, or null if there were none.
+     */
+    private ArrayList<Lot> take(int level, int slot)
+    {
+        return buckets.set(level * BUCKETS + slot, null);
+    }
+
+    /**
+     * @param lot A lot.
+     * @return The first tick at or after the lot's deadline.
+     */
+    private long tickOf(Lot lot)
+    {
+        return (lot.getDeadline() + tickMillis - 1) / tickMillis;
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Measures the cost of publishing views of an auction. After a first
+ * view of every lot, bids are made for a growing number of lots and a
+ * new view is published each time. The time to publish is compared
+ * with copying a view of every lot, which is what a view would cost
+ * if it were not made from the last one. The cost of a bid with and
+ * without views being published is reported too.
+ *
+ * Run it from the command line, optionally giving the number of lots:
+ *     java ViewBenchmark 1000000
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class ViewBenchmark
+{
+    // The number of times each measurement is repeated.
+    private static final int REPEATS = 5;
+    // The number of bids made to time a bid.
+    private static final int BIDS = 5000000;
+
+    /**
+     * Run the benchmark.
+     * @param args The number of lots.
+     */
+    public static void main(String[] args)
+    {
+        int lotCount = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        Auction auction = new Auction();
+        auction.setListener(new NullAuctionListener());
+        for(int i = 0; i < lotCount; i++) {
+            auction.enterLot("Lot " + i);
+        }
+        Person bidder = new Person("Bidder");
+        Random random = new Random(42);
+        // Time a bid before any view is published.
+        timeBids("bid, no views", auction, bidder, lotCount, random, false);
+
+        long start = System.nanoTime();
+        AuctionView view = auction.publishView();
+        System.out.printf("first view        %,10d lots %,10.1f ms%n", view.getLotCount(),
+                          (System.nanoTime() - start) / 1e6);
+        for(int repeat = 0; repeat < REPEATS; repeat++) {
+            start = System.nanoTime();
+            ArrayList<LotView> copy = new ArrayList<LotView>(lotCount);
+            for(Lot lot : auction.getLots(0, Integer.MAX_VALUE)) {
+                copy.add(new LotView(lot));
+            }
+            if(repeat == REPEATS - 1) {
+                System.out.printf("full copy         %,10d lots %,10.1f ms%n", copy.size(),
+                                  (System.nanoTime() - start) / 1e6);
+            }
+        }
+        // Once to warm up, then again to measure.
+        for(int round = 0; round < 2; round++) {
+            for(int changes = 10; changes <= lotCount / 10; changes *= 10) {
+                long best = Long.MAX_VALUE;
+                for(int repeat = 0; repeat < REPEATS; repeat++) {
+                    for(int i = 0; i < changes; i++) {
+                        auction.bidFor(1 + random.nextInt(lotCount), bidder, 1 + random.nextInt(1000000));
+                    }
+                    start = System.nanoTime();
+                    view = auction.publishView();
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                if(round == 1) {
+                    System.out.printf("publish %,10d changed lots %,10.3f ms%n", changes, best / 1e6);
+                }
+            }
+        }
+        timeBids("bid, publishing", auction, bidder, lotCount, random, true);
+        System.out.printf("version %d, %,d lots with no bids%n", view.getVersion(), view.getNoBidsCount());
+    }
+
+    /**
+     * Make bids for random lots and print the time each took.
+     * @param name The name to print.
+     * @param auction The auction.
+     * @param bidder The bidder.
+     * @param lotCount The number of lots.
+     * @param random Chooses the lots and values.
+     * @param publish True to publish a view every 10,000 bids. The time
+     *                spent publishing is reported apart from the bids.
+     */
+    private static void timeBids(String name, Auction auction, Person bidder, int lotCount, Random random,
+                                 boolean publish)
+    {
+        long publishing = 0;
+        long start = System.nanoTime();
+        for(int i = 0; i < BIDS; i++) {
+            auction.bidFor(1 + random.nextInt(lotCount), bidder, 1 + random.nextInt(1000000));
+            if(publish && (i % 10000 == 0)) {
+                long publishStart = System.nanoTime();
+                auction.publishView();
+                publishing += System.nanoTime() - publishStart;
+            }
+        }
+        long bidding = System.nanoTime() - start - publishing;
+        System.out.printf("%-17s %,10.1f ns/bid, publishing %,8.1f ns/bid%n", name, (double) bidding / BIDS,
+                          (double) publishing / BIDS);
+    }
+}
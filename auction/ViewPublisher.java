@@ -0,0 +1,166 @@
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Publishes immutable AuctionViews of an auction's lots.
+ *
+ * As with a LotLeaderboard, a change to a lot only marks it: the first
+ * change since the lot was last published puts it on a queue, and
+ * later changes see the mark and do nothing more. Publishing takes the
+ * lots off the queue and makes new views of just those lots, which go
+ * into persistent maps that share everything else with the last view.
+ * The first view has to look at every lot, but after that publishing
+ * d changed lots out of n takes O(d log n) time, however large n is.
+ *
+ * Every change made before publish is called is in the view it
+ * returns. A change made while it runs may be in that view or only in
+ * the next.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class ViewPublisher
+{
+    // The room for changes a batch starts with.
+    private static final int INITIAL_CAPACITY = 16;
+
+    // The auction's lots, to tell whether a changed lot is still in it.
+    private final LotIndex lots;
+    // Lots that have changed since they were last published.
+    private final ConcurrentLinkedQueue<Lot> changed;
+    // The latest view, or null if none has been published.
+    private volatile AuctionView current;
+    // The lot numbers and views of the batch being published, kept to
+    // be reused. Only used under the publisher's lock.
+    private int[] numbers;
+    private LotView[] views;
+
+    /**
+     * Create a publisher that has published nothing yet.
+     * @param lots The lots of the auction.
+     */
+    public ViewPublisher(LotIndex lots)
+    {
+        this.lots = lots;
+        this.changed = new ConcurrentLinkedQueue<Lot>();
+        this.numbers = new int[INITIAL_CAPACITY];
+        this.views = new LotView[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Note that a lot has been entered, bid for, closed or removed, so
+     * it is in the next view published. Safe to call from any thread.
+     * @param lot The lot.
+     */
+    public void changed(Lot lot)
+    {
+        if(lot.markChanged(Lot.PUBLISHING)) {
+            changed.add(lot);
+        }
+    }
+
+    /**
+     * Publish a view of the lots as they are now.
+     * @param open True if the auction is open.
+     * @return The new view.
+     */
+    public synchronized AuctionView publish(boolean open)
+    {
+        AuctionView last = current;
+        PersistentLotMap allLots = PersistentLotMap.empty();
+        PersistentLotMap unsold = PersistentLotMap.empty();
+        int count = 0;
+        if(last == null) {
+            // The lots are in number order already.
+            for(Lot lot : lots) {
+                count = add(count, lot.getNumber(), new LotView(lot));
+            }
+            allLots = allLots.with(numbers, views, count);
+            count = noBidsOnly(count, true);
+            unsold = unsold.with(numbers, views, count);
+            count = 0;
+        }
+        else {
+            allLots = last.lots();
+            unsold = last.unsold();
+        }
+        Lot lot;
+        while((lot = changed.poll()) != null) {
+            // Clear the mark first, so a change made from now on queues
+            // the lot again.
+            lot.clearChanged(Lot.PUBLISHING);
+            LotView view = (lots.get(lot.getNumber()) == lot) ? new LotView(lot) : null;
+            count = add(count, lot.getNumber(), view);
+        }
+        int used = count;
+        count = PersistentLotMap.sortChanges(numbers, views, count);
+        allLots = allLots.with(numbers, views, count);
+        count = noBidsOnly(count, false);
+        unsold = unsold.with(numbers, views, count);
+        AuctionView view = new AuctionView((last != null) ? last.getVersion() + 1 : 1, allLots, unsold, open);
+        if(last == null) {
+            // The batch held every lot; start small again.
+            numbers = new int[INITIAL_CAPACITY];
+            views = new LotView[INITIAL_CAPACITY];
+        }
+        else {
+            Arrays.fill(views, 0, used, null);
+        }
+        current = view;
+        return view;
+    }
+
+    /**
+     * @return The latest view, or null if none has been published.
+     *         This takes no lock.
+     */
+    public AuctionView getView()
+    {
+        return current;
+    }
+
+    /**
+     * Add a change to the batch, making room for it if need be.
+     * @param count The number of changes in the batch.
+     * @param number The lot number.
+     * @param view The lot's new view, or null if it has been removed.
+     * @return The number of changes in the batch now.
+     */
+    private int add(int count, int number, LotView view)
+    {
+        if(count == numbers.length) {
+            numbers = Arrays.copyOf(numbers, count * 2);
+            views = Arrays.copyOf(views, count * 2);
+        }
+        numbers[count] = number;
+        views[count] = view;
+        return count + 1;
+    }
+
+    /**
+     * Turn the batch into the changes to the lots with no bids: a lot
+     * that has bids, or has been removed, is taken out of them.
+     * @param count The number of changes in the batch.
+     * @param first True if this is the first view, when there is
+     *              nothing to take lots out of, so they are left out
+     *              of the batch instead.
+     * @return The number of changes in the batch now.
+     */
+    private int noBidsOnly(int count, boolean first)
+    {
+        int kept = 0;
+        for(int i = 0; i < count; i++) {
+            LotView view = views[i];
+            if((view == null) || view.hasBids()) {
+                if(first) {
+                    continue;
+                }
+                view = null;
+            }
+            numbers[kept] = numbers[i];
+            views[kept] = view;
+            kept++;
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,47 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draw numbers from 1 to n with a Zipf (power law) distribution:
+ * number k is drawn with probability proportional to 1 / k^s.
+ * This models lot popularity, where a few lots get most of the bids.
+ *
+ * @author Riya Arora 101190033
+ * @version 2026.10.17
+ */
+public class ZipfDistribution
+{
+    // cumulative[k - 1] is the probability of drawing a number <= k.
+    private final double[] cumulative;
+
+    /**
+     * Create a distribution over the numbers 1 to n.
+     * @param n The largest number that can be drawn.
+     * @param exponent The skew. 0 is uniform; larger values are more skewed.
+     */
+    public ZipfDistribution(int n, double exponent)
+    {
+        cumulative = new double[n];
+        double total = 0;
+        for(int k = 1; k <= n; k++) {
+            total += 1.0 / Math.pow(k, exponent);
+            cumulative[k - 1] = total;
+        }
+        for(int i = 0; i < n; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    /**
+     * @param random The source of randomness.
+     * @return A number from 1 to n.
+     */
+    public int next(Random random)
+    {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        if(index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cumulative.length - 1) + 1;
+    }
+}